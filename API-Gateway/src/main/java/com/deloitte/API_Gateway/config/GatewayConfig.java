@@ -92,7 +92,7 @@ public class GatewayConfig {
                 
                 // Provider schedule management - accessible by ops only
                 .route("appointment_service_schedules_create", r -> r
-                        .path("/api/schedules/create-schedule")
+                        .path("/api/schedules/create-schedule", "/api/schedules/create-schedule-template")
                         .and()
                         .method("POST")
                         .filters(f -> {
@@ -106,7 +106,22 @@ public class GatewayConfig {
                 
                 // Get available slots - accessible by patients and ops
                 .route("appointment_service_available_slots", r -> r
-                        .path("/api/schedules/provider/*/available-slots")
+                        .path("/api/schedules/provider/*/available-slots",
+                                "/api/schedules/provider/*/available-slots/stream",
+                                "/api/schedules/provider/*/available-starts",
+                                "/api/schedules/provider/*/calendar")
+                        .filters(f -> {
+                            RbacGatewayFilterFactory.Config config = new RbacGatewayFilterFactory.Config();
+                            config.setAllowedRoles("patient,ops");
+                            return f.stripPrefix(0)
+                                    .filter(rbacFilter.apply(config));
+                        })
+                        .uri(appointmentServiceUrl)
+                )
+                
+                // Search next available slots across providers - accessible by patients and ops
+                .route("appointment_service_slot_search", r -> r
+                        .path("/api/schedules/search/**")
                         .filters(f -> {
                             RbacGatewayFilterFactory.Config config = new RbacGatewayFilterFactory.Config();
                             config.setAllowedRoles("patient,ops");
@@ -130,7 +145,21 @@ public class GatewayConfig {
                 
                 // Create appointment - accessible by patients
                 .route("appointment_service_create", r -> r
-                        .path("/api/appointments/create-appointment")
+                        .path("/api/appointments/create-appointment", "/api/appointments/create-appointment-series")
+                        .and()
+                        .method("POST")
+                        .filters(f -> {
+                            RbacGatewayFilterFactory.Config config = new RbacGatewayFilterFactory.Config();
+                            config.setAllowedRoles("patient");
+                            return f.stripPrefix(0)
+                                    .filter(rbacFilter.apply(config));
+                        })
+                        .uri(appointmentServiceUrl)
+                )
+                
+                // Slot holds for two-phase booking - accessible by patients
+                .route("appointment_service_slot_holds", r -> r
+                        .path("/api/appointments/holds", "/api/appointments/holds/**")
                         .and()
                         .method("POST")
                         .filters(f -> {
@@ -142,6 +171,18 @@ public class GatewayConfig {
                         .uri(appointmentServiceUrl)
                 )
                 
+                // Waitlist for released slots - accessible by patients
+                .route("appointment_service_waitlist", r -> r
+                        .path("/api/appointments/waitlist", "/api/appointments/waitlist/**")
+                        .filters(f -> {
+                            RbacGatewayFilterFactory.Config config = new RbacGatewayFilterFactory.Config();
+                            config.setAllowedRoles("patient");
+                            return f.stripPrefix(0)
+                                    .filter(rbacFilter.apply(config));
+                        })
+                        .uri(appointmentServiceUrl)
+                )
+                
                 // Provider updates appointment status (confirm/reject)
                 .route("appointment_service_provider_update", r -> r
                         .path("/api/appointments/*/provider/*/update-status")
@@ -178,6 +219,20 @@ public class GatewayConfig {
                         .uri(appointmentServiceUrl)
                 )
                 
+                // Export provider appointment history - accessible by the provider and ops
+                .route("appointment_service_provider_export", r -> r
+                        .path("/api/appointments/provider/*/export")
+                        .and()
+                        .method("GET")
+                        .filters(f -> {
+                            RbacGatewayFilterFactory.Config config = new RbacGatewayFilterFactory.Config();
+                            config.setAllowedRoles("provider,ops");
+                            return f.stripPrefix(0)
+                                    .filter(rbacFilter.apply(config));
+                        })
+                        .uri(appointmentServiceUrl)
+                )
+                
                 // Get provider appointments
                 .route("appointment_service_provider_appointments", r -> r
                         .path("/api/appointments/provider/**")
@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.constants;
+
+public enum PatientOverlapPolicy {
+    ALLOW, // No check
+    WARN, // Book anyway, but log and count the overlap
+    REJECT
+}
@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.constants;
+
+// How createSchedule treats a provider day that already has a schedule
+public enum ScheduleMergeMode {
+    CREATE_ONLY, // Reject unless the request repeats the published schedule exactly
+    MERGE        // Add requested slots the day does not have yet; existing slots keep their live state
+}
@@ -0,0 +1,9 @@
+package com.deloitte.Appointment_Service.constants;
+
+// AVAILABLE while booked < capacity, BOOKED once every seat is taken. CLOSED slots were
+// taken off the schedule by the provider; they keep their seat counters but take no bookings
+public enum SlotState {
+    AVAILABLE,
+    BOOKED,
+    CLOSED
+}
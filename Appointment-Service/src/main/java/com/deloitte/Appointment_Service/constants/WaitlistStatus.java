@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.constants;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED, // A released slot is held for the patient; see hold_id
+    CANCELLED
+}
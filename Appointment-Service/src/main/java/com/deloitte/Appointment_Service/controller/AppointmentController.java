@@ -1,16 +1,31 @@
 package com.deloitte.Appointment_Service.controller;
 
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentPageResponseDto;
 import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.dto.AppointmentSeriesResponseDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateRequestDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateResponseDto;
 import com.deloitte.Appointment_Service.dto.CreateAppointmentRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateAppointmentSeriesRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateSlotHoldRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateWaitlistEntryRequestDto;
+import com.deloitte.Appointment_Service.dto.SlotHoldResponseDto;
 import com.deloitte.Appointment_Service.dto.UpdateAppointmentStatusRequestDto;
+import com.deloitte.Appointment_Service.dto.WaitlistEntryResponseDto;
 import com.deloitte.Appointment_Service.service.AppointmentService;
+import com.deloitte.Appointment_Service.service.WaitlistService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,9 +35,11 @@ public class AppointmentController {
     private static final Logger log = LoggerFactory.getLogger(AppointmentController.class);
 
     private final AppointmentService appointmentService;
+    private final WaitlistService waitlistService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, WaitlistService waitlistService) {
         this.appointmentService = appointmentService;
+        this.waitlistService = waitlistService;
     }
 
     @PostMapping("create-appointment")
@@ -39,6 +56,110 @@ public class AppointmentController {
         }
     }
 
+    @PostMapping("create-appointment-series")
+    public ResponseEntity<AppointmentSeriesResponseDto> createAppointmentSeries(
+            @Valid @RequestBody CreateAppointmentSeriesRequestDto request) {
+        log.info("Received request to create appointment series for patient ID: {}", request.patientId());
+        try {
+            AppointmentSeriesResponseDto response = appointmentService.createAppointmentSeries(request);
+            log.info("Appointment series for patient ID: {} booked {} occurrence(s), {} conflict(s)",
+                    request.patientId(), response.booked(), response.conflicts());
+            // Nothing is booked when any occurrence conflicts; the body says which ones
+            HttpStatus status = response.conflicts() == 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            log.error("Error creating appointment series for patient ID: {}", request.patientId(), e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<SlotHoldResponseDto> holdSlot(
+            @Valid @RequestBody CreateSlotHoldRequestDto request) {
+        log.info("Received request to hold slot for patient ID: {}", request.patientId());
+        try {
+            SlotHoldResponseDto response = appointmentService.holdSlot(request);
+            log.info("Slot held successfully with hold ID: {}", response.holdId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error holding slot for patient ID: {}", request.patientId(), e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/holds/{holdId}/patient/{patientId}/release")
+    public ResponseEntity<SlotHoldResponseDto> releaseHold(
+            @PathVariable String holdId,
+            @PathVariable Long patientId) {
+        log.info("Patient ID: {} releasing slot hold ID: {}", patientId, holdId);
+        try {
+            SlotHoldResponseDto response = appointmentService.releaseHold(holdId, patientId);
+            log.info("Slot hold ID: {} released successfully", holdId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error releasing slot hold ID: {} by patient ID: {}", holdId, patientId, e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/holds/{holdId}/patient/{patientId}/commit")
+    public ResponseEntity<AppointmentResponseDto> commitHold(
+            @PathVariable String holdId,
+            @PathVariable Long patientId) {
+        log.info("Patient ID: {} committing slot hold ID: {}", patientId, holdId);
+        try {
+            AppointmentResponseDto response = appointmentService.commitHold(holdId, patientId);
+            log.info("Slot hold ID: {} committed as appointment ID: {}", holdId, response.id());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error committing slot hold ID: {} by patient ID: {}", holdId, patientId, e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryResponseDto> joinWaitlist(
+            @Valid @RequestBody CreateWaitlistEntryRequestDto request) {
+        log.info("Received request to join waitlist for patient ID: {}", request.patientId());
+        try {
+            WaitlistEntryResponseDto response = waitlistService.join(request);
+            log.info("Waitlist entry created successfully with ID: {}", response.id());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error joining waitlist for patient ID: {}", request.patientId(), e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/waitlist/{entryId}/patient/{patientId}/cancel")
+    public ResponseEntity<WaitlistEntryResponseDto> leaveWaitlist(
+            @PathVariable Long entryId,
+            @PathVariable Long patientId) {
+        log.info("Patient ID: {} leaving waitlist entry ID: {}", patientId, entryId);
+        try {
+            WaitlistEntryResponseDto response = waitlistService.cancel(entryId, patientId);
+            log.info("Waitlist entry ID: {} cancelled successfully", entryId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error cancelling waitlist entry ID: {} by patient ID: {}", entryId, patientId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/waitlist/patient/{patientId}")
+    public ResponseEntity<List<WaitlistEntryResponseDto>> getPatientWaitlist(
+            @PathVariable Long patientId) {
+        log.info("Received request to fetch waitlist entries for patient ID: {}", patientId);
+        try {
+            List<WaitlistEntryResponseDto> entries = waitlistService.getPatientEntries(patientId);
+            log.info("Retrieved {} waitlist entries for patient ID: {}", entries.size(), patientId);
+            return ResponseEntity.ok(entries);
+        } catch (Exception e) {
+            log.error("Error fetching waitlist entries for patient ID: {}", patientId, e);
+            throw e;
+        }
+    }
+
     @PostMapping("/{appointmentId}/provider/{providerId}/update-status")
     public ResponseEntity<AppointmentResponseDto> updateAppointmentStatus(
             @PathVariable Long appointmentId,
@@ -66,6 +187,24 @@ public class AppointmentController {
         }
     }
 
+    @PostMapping("/provider/{providerId}/bulk-update-status")
+    public ResponseEntity<BulkStatusUpdateResponseDto> bulkUpdateAppointmentStatus(
+            @PathVariable Long providerId,
+            @Valid @RequestBody BulkStatusUpdateRequestDto request) {
+        log.info("Provider ID: {} bulk updating status of {} appointment(s)", 
+                providerId, request.decisions().size());
+        try {
+            BulkStatusUpdateResponseDto response = 
+                    appointmentService.bulkUpdateAppointmentStatus(providerId, request);
+            log.info("Bulk status update for provider ID: {} finished with {} succeeded and {} failed", 
+                    providerId, response.succeeded(), response.failed());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error bulk updating appointments by provider ID: {}", providerId, e);
+            throw e;
+        }
+    }
+
     @PostMapping("/{appointmentId}/patient/{patientId}/cancel")
     public ResponseEntity<AppointmentResponseDto> cancelAppointment(
             @PathVariable Long appointmentId,
@@ -85,11 +224,12 @@ public class AppointmentController {
 
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<List<AppointmentResponseDto>> getPatientAppointments(
-            @PathVariable Long patientId) {
+            @PathVariable Long patientId,
+            @RequestParam(required = false) Integer size) {
         log.info("Received request to fetch appointments for patient ID: {}", patientId);
         try {
             List<AppointmentResponseDto> appointments = 
-                    appointmentService.getPatientAppointments(patientId);
+                    appointmentService.getPatientAppointments(patientId, size);
             log.info("Retrieved {} appointments for patient ID: {}", 
                     appointments.size(), patientId);
             return ResponseEntity.ok(appointments);
@@ -101,11 +241,12 @@ public class AppointmentController {
 
     @GetMapping("/provider/{providerId}")
     public ResponseEntity<List<AppointmentResponseDto>> getProviderAppointments(
-            @PathVariable Long providerId) {
+            @PathVariable Long providerId,
+            @RequestParam(required = false) Integer size) {
         log.info("Received request to fetch appointments for provider ID: {}", providerId);
         try {
             List<AppointmentResponseDto> appointments = 
-                    appointmentService.getProviderAppointments(providerId);
+                    appointmentService.getProviderAppointments(providerId, size);
             log.info("Retrieved {} appointments for provider ID: {}", 
                     appointments.size(), providerId);
             return ResponseEntity.ok(appointments);
@@ -117,11 +258,12 @@ public class AppointmentController {
 
     @GetMapping("/provider/{providerId}/requested")
     public ResponseEntity<List<AppointmentResponseDto>> getProviderRequestedAppointments(
-            @PathVariable Long providerId) {
+            @PathVariable Long providerId,
+            @RequestParam(required = false) Integer size) {
         log.info("Received request to fetch REQUESTED appointments for provider ID: {}", providerId);
         try {
             List<AppointmentResponseDto> appointments = 
-                    appointmentService.getProviderRequestedAppointments(providerId);
+                    appointmentService.getProviderRequestedAppointments(providerId, size);
             log.info("Retrieved {} REQUESTED appointments for provider ID: {}", 
                     appointments.size(), providerId);
             return ResponseEntity.ok(appointments);
@@ -131,6 +273,63 @@ public class AppointmentController {
         }
     }
 
+    @GetMapping("/patient/{patientId}/page")
+    public ResponseEntity<AppointmentPageResponseDto> getPatientAppointmentPage(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) AppointmentStatus status) {
+        log.info("Received request to fetch appointment page for patient ID: {}", patientId);
+        try {
+            AppointmentPageResponseDto page = appointmentService.getPatientAppointmentPage(
+                    patientId, cursor, size, from, to, status);
+            log.info("Retrieved {} appointments for patient ID: {}", page.size(), patientId);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            log.error("Error fetching appointment page for patient ID: {}", patientId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/provider/{providerId}/page")
+    public ResponseEntity<AppointmentPageResponseDto> getProviderAppointmentPage(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) AppointmentStatus status) {
+        log.info("Received request to fetch appointment page for provider ID: {}", providerId);
+        try {
+            AppointmentPageResponseDto page = appointmentService.getProviderAppointmentPage(
+                    providerId, cursor, size, from, to, status);
+            log.info("Retrieved {} appointments for provider ID: {}", page.size(), providerId);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            log.error("Error fetching appointment page for provider ID: {}", providerId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping(value = "/provider/{providerId}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProviderAppointments(
+            @PathVariable Long providerId) {
+        log.info("Received request to export appointment history for provider ID: {}", providerId);
+        StreamingResponseBody body = out -> {
+            try {
+                appointmentService.exportProviderAppointments(providerId, out);
+            } catch (Exception e) {
+                log.error("Error exporting appointment history for provider ID: {}", providerId, e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{appointmentId}")
     public ResponseEntity<AppointmentResponseDto> getAppointmentById(
             @PathVariable Long appointmentId) {
@@ -1,16 +1,31 @@
 package com.deloitte.Appointment_Service.controller;
 
+import com.deloitte.Appointment_Service.dto.AvailableSlotsWindowDto;
+import com.deloitte.Appointment_Service.dto.AvailableStartsDto;
 import com.deloitte.Appointment_Service.dto.CreateScheduleRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateScheduleTemplateRequestDto;
+import com.deloitte.Appointment_Service.dto.DayAvailabilitySummaryDto;
+import com.deloitte.Appointment_Service.dto.PatchScheduleSlotsRequestDto;
+import com.deloitte.Appointment_Service.dto.ProviderSlotDto;
 import com.deloitte.Appointment_Service.dto.ScheduleResponseDto;
+import com.deloitte.Appointment_Service.dto.ScheduleTemplateResponseDto;
 import com.deloitte.Appointment_Service.dto.TimeSlotResponseDto;
 import com.deloitte.Appointment_Service.service.ProviderScheduleService;
+import com.deloitte.Appointment_Service.service.SlotSearchService;
+import com.deloitte.Appointment_Service.stream.SlotUpdateBroadcaster;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -19,10 +34,19 @@ public class ProviderScheduleController {
 
     private static final Logger log = LoggerFactory.getLogger(ProviderScheduleController.class);
 
+    // Present when the provider has schedules past the returned window; pass it back to fetch the next one
+    private static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
     private final ProviderScheduleService scheduleService;
+    private final SlotUpdateBroadcaster slotUpdateBroadcaster;
+    private final SlotSearchService slotSearchService;
 
-    public ProviderScheduleController(ProviderScheduleService scheduleService) {
+    public ProviderScheduleController(ProviderScheduleService scheduleService,
+                                      SlotUpdateBroadcaster slotUpdateBroadcaster,
+                                      SlotSearchService slotSearchService) {
         this.scheduleService = scheduleService;
+        this.slotUpdateBroadcaster = slotUpdateBroadcaster;
+        this.slotSearchService = slotSearchService;
     }
 
     @PostMapping("create-schedule")
@@ -31,26 +55,135 @@ public class ProviderScheduleController {
         log.info("Received request to create schedule for provider ID: {}", request.providerId());
         try {
             ScheduleResponseDto response = scheduleService.createSchedule(request);
-            log.info("Schedule created successfully with ID: {}", response.id());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            log.info("{} for schedule ID: {}", response.message(), response.id());
+            // A replay or merge into an existing day is answered with 200, as nothing new was created
+            return ResponseEntity.status(response.created() ? HttpStatus.CREATED : HttpStatus.OK).body(response);
         } catch (Exception e) {
             log.error("Error creating schedule for provider ID: {}", request.providerId(), e);
             throw e;
         }
     }
 
+    @PostMapping("create-schedule-template")
+    public ResponseEntity<ScheduleTemplateResponseDto> createSchedulesFromTemplate(
+            @Valid @RequestBody CreateScheduleTemplateRequestDto request) {
+        log.info("Received request to create schedules from template for provider ID: {}", request.providerId());
+        try {
+            ScheduleTemplateResponseDto response = scheduleService.createSchedulesFromTemplate(request);
+            log.info("Created {} schedule(s) from template for provider ID: {}",
+                    response.createdDates().size(), request.providerId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error creating schedules from template for provider ID: {}", request.providerId(), e);
+            throw e;
+        }
+    }
+
+    @PatchMapping("/provider/{providerId}/date/{scheduleDate}/slots")
+    public ResponseEntity<ScheduleResponseDto> patchScheduleSlots(
+            @PathVariable Long providerId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate scheduleDate,
+            @Valid @RequestBody PatchScheduleSlotsRequestDto request) {
+        log.info("Received request to patch slots for provider ID: {} on date: {}", providerId, scheduleDate);
+        try {
+            ScheduleResponseDto response = scheduleService.patchScheduleSlots(providerId, scheduleDate, request);
+            log.info("Slots patched successfully for schedule ID: {}", response.id());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error patching slots for provider ID: {} on date: {}", providerId, scheduleDate, e);
+            throw e;
+        }
+    }
+
     @GetMapping("/provider/{providerId}/available-slots")
     public ResponseEntity<List<TimeSlotResponseDto>> getAvailableSlots(
-            @PathVariable Long providerId) {
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) String continuationToken) {
         log.info("Received request to fetch available slots for provider ID: {}", providerId);
         try {
-            List<TimeSlotResponseDto> slots = scheduleService.getAvailableSlots(providerId);
-            log.info("Retrieved {} available slots for provider ID: {}", slots.size(), providerId);
-            return ResponseEntity.ok(slots);
+            AvailableSlotsWindowDto window = scheduleService.getAvailableSlots(
+                    providerId, from, to, days, continuationToken);
+            log.info("Retrieved {} available slots for provider ID: {}", window.slots().size(), providerId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (window.continuationToken() != null) {
+                response.header(CONTINUATION_TOKEN_HEADER, window.continuationToken());
+            }
+            return response.body(window.slots());
         } catch (Exception e) {
             log.error("Error fetching available slots for provider ID: {}", providerId, e);
             throw e;
         }
     }
-}
 
+    @GetMapping("/provider/{providerId}/available-starts")
+    public ResponseEntity<AvailableStartsDto> getAvailableStarts(
+            @PathVariable Long providerId,
+            @RequestParam Integer durationMinutes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Received request to fetch {}-minute start times for provider ID: {}", durationMinutes, providerId);
+        try {
+            AvailableStartsDto starts = scheduleService.getAvailableStarts(providerId, durationMinutes, from, to);
+            log.info("Retrieved {} start times for provider ID: {}", starts.startTimes().size(), providerId);
+            return ResponseEntity.ok(starts);
+        } catch (Exception e) {
+            log.error("Error fetching start times for provider ID: {}", providerId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/provider/{providerId}/calendar")
+    public ResponseEntity<List<DayAvailabilitySummaryDto>> getMonthSummary(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        YearMonth requestedMonth = month != null ? month : YearMonth.now();
+        log.info("Received request to fetch availability calendar for provider ID: {} for month: {}",
+                providerId, requestedMonth);
+        try {
+            List<DayAvailabilitySummaryDto> days = scheduleService.getMonthSummary(providerId, requestedMonth);
+            log.info("Retrieved {} calendar days for provider ID: {}", days.size(), providerId);
+            return ResponseEntity.ok(days);
+        } catch (Exception e) {
+            log.error("Error fetching availability calendar for provider ID: {}", providerId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping(value = "/provider/{providerId}/available-slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableSlots(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer days) {
+        log.info("Received request to stream available slots for provider ID: {}", providerId);
+        try {
+            return slotUpdateBroadcaster.subscribe(providerId, from, to, days);
+        } catch (Exception e) {
+            log.error("Error opening slot stream for provider ID: {}", providerId, e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/search/next-available")
+    public ResponseEntity<List<ProviderSlotDto>> findNextAvailableSlots(
+            @RequestParam(required = false) List<Long> providerIds,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request to search next available slots for providers: {}, speciality: {}",
+                providerIds, speciality);
+        try {
+            List<ProviderSlotDto> slots = slotSearchService.findEarliestSlots(providerIds, speciality, from, to, limit);
+            log.info("Found {} next available slots", slots.size());
+            return ResponseEntity.ok(slots);
+        } catch (Exception e) {
+            log.error("Error searching next available slots for providers: {}, speciality: {}",
+                    providerIds, speciality, e);
+            throw e;
+        }
+    }
+}
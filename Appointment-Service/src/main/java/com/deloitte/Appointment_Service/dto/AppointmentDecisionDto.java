@@ -0,0 +1,11 @@
+package com.deloitte.Appointment_Service.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record AppointmentDecisionDto(
+        @NotNull(message = "Appointment ID is required")
+        Long appointmentId,
+
+        @NotNull(message = "Action is required (CONFIRM or REJECT)")
+        String action
+) {}
@@ -0,0 +1,9 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.util.List;
+
+public record AppointmentPageResponseDto(
+        List<AppointmentResponseDto> items,
+        int size,
+        String nextCursor
+) {}
@@ -10,7 +10,16 @@ public record AppointmentResponseDto(
         Long providerId,
         AppointmentStatus status,
         LocalDateTime appointmentDateTime,
+        Integer durationMinutes,
         LocalDateTime createdAt,
         String message,
         String errorMessage
-) {}
+) {
+
+    // Used by the JPQL constructor projections in AppointmentRepository
+    public AppointmentResponseDto(Long id, Long patientId, Long providerId, AppointmentStatus status,
+                                  LocalDateTime appointmentDateTime, Integer durationMinutes,
+                                  LocalDateTime createdAt) {
+        this(id, patientId, providerId, status, appointmentDateTime, durationMinutes, createdAt, null, null);
+    }
+}
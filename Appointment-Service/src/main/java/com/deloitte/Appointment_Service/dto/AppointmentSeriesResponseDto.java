@@ -0,0 +1,12 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.util.List;
+
+public record AppointmentSeriesResponseDto(
+        Long patientId,
+        Long providerId,
+        int booked,
+        int conflicts,
+        List<SeriesOccurrenceResultDto> occurrences,
+        String message
+) {}
@@ -0,0 +1,11 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AvailableSlotsWindowDto(
+        List<TimeSlotResponseDto> slots,
+        LocalDateTime from,
+        LocalDateTime to,
+        String continuationToken
+) {}
@@ -0,0 +1,12 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AvailableStartsDto(
+        Long providerId,
+        Integer durationMinutes,
+        List<LocalDateTime> startTimes,
+        LocalDateTime from,
+        LocalDateTime to
+) {}
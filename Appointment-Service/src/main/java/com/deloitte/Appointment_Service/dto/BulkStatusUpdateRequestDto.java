@@ -0,0 +1,13 @@
+package com.deloitte.Appointment_Service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequestDto(
+        @NotEmpty(message = "At least one decision is required")
+        @Size(max = 500, message = "At most 500 decisions can be processed per request")
+        List<@Valid AppointmentDecisionDto> decisions
+) {}
@@ -0,0 +1,10 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.util.List;
+
+public record BulkStatusUpdateResponseDto(
+        Long providerId,
+        int succeeded,
+        int failed,
+        List<BulkStatusUpdateResultDto> results
+) {}
@@ -0,0 +1,11 @@
+package com.deloitte.Appointment_Service.dto;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+
+public record BulkStatusUpdateResultDto(
+        Long appointmentId,
+        String action,
+        AppointmentStatus status,
+        boolean success,
+        String errorMessage
+) {}
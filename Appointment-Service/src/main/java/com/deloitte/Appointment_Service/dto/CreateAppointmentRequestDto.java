@@ -2,6 +2,7 @@ package com.deloitte.Appointment_Service.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
 
@@ -14,5 +15,9 @@ public record CreateAppointmentRequestDto(
         
         @NotNull(message = "Appointment date time is required")
         @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
-        LocalDateTime appointmentDateTime
+        LocalDateTime appointmentDateTime,
+
+        // Optional; books the consecutive slots covering this many minutes instead of a single slot
+        @Positive(message = "Duration must be positive")
+        Integer durationMinutes
 ) {}
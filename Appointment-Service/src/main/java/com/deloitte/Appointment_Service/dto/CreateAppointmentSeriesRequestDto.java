@@ -0,0 +1,26 @@
+package com.deloitte.Appointment_Service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+
+public record CreateAppointmentSeriesRequestDto(
+        @NotNull(message = "Patient ID is required")
+        Long patientId,
+
+        @NotNull(message = "Provider ID is required")
+        Long providerId,
+
+        @NotNull(message = "First appointment date time is required")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+        LocalDateTime firstAppointmentDateTime,
+
+        @NotNull(message = "Number of occurrences is required")
+        @Positive(message = "Number of occurrences must be positive")
+        Integer occurrences,
+
+        @Positive(message = "Interval must be positive")
+        Integer intervalWeeks // Optional, defaults to 1 (weekly)
+) {}
@@ -1,5 +1,6 @@
 package com.deloitte.Appointment_Service.dto;
 
+import com.deloitte.Appointment_Service.constants.ScheduleMergeMode;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -18,6 +19,12 @@ public record CreateScheduleRequestDto(
 
         @NotNull(message = "Slots are required")
         @JdbcTypeCode(SqlTypes.JSON)
-        Map<String, Boolean> slots
+        Map<String, Boolean> slots,
+
+        ScheduleMergeMode mergeMode, // Optional, defaults to CREATE_ONLY
+
+        // Optional seats per slot, defaults to 1; more for group sessions or controlled overbooking
+        @Positive(message = "Slot capacity must be positive")
+        Integer slotCapacity
 ) {}
 
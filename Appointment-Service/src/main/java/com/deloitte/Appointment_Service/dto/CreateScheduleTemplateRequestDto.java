@@ -0,0 +1,38 @@
+package com.deloitte.Appointment_Service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public record CreateScheduleTemplateRequestDto(
+        @NotNull(message = "Provider ID is required")
+        Long providerId,
+
+        @NotNull(message = "Start date is required")
+        LocalDate startDate,
+
+        @NotNull(message = "Number of weeks is required")
+        @Positive(message = "Number of weeks must be positive")
+        Integer weeks,
+
+        @NotEmpty(message = "At least one day of week is required")
+        Set<DayOfWeek> daysOfWeek,
+
+        @NotNull(message = "Start time is required")
+        LocalTime startTime,
+
+        @NotNull(message = "End time is required")
+        LocalTime endTime,
+
+        @NotNull(message = "Slot duration is required")
+        @Positive(message = "Slot duration must be positive")
+        Integer slotDurationMinutes,
+
+        @Positive(message = "Slot capacity must be positive")
+        Integer slotCapacity // Optional, defaults to 1
+) {}
@@ -0,0 +1,22 @@
+package com.deloitte.Appointment_Service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+
+public record CreateSlotHoldRequestDto(
+        @NotNull(message = "Patient ID is required")
+        Long patientId,
+
+        @NotNull(message = "Provider ID is required")
+        Long providerId,
+
+        @NotNull(message = "Appointment date time is required")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+        LocalDateTime appointmentDateTime,
+
+        @Positive(message = "Hold duration must be positive")
+        Integer holdSeconds // Optional, defaults to appointment.slot-hold.default-seconds
+) {}
@@ -0,0 +1,26 @@
+package com.deloitte.Appointment_Service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDateTime;
+
+public record CreateWaitlistEntryRequestDto(
+        @NotNull(message = "Patient ID is required")
+        Long patientId,
+
+        @NotNull(message = "Provider ID is required")
+        Long providerId,
+
+        @NotNull(message = "Window start is required")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+        LocalDateTime windowStart,
+
+        @NotNull(message = "Window end is required")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+        LocalDateTime windowEnd, // Exclusive
+
+        @PositiveOrZero(message = "Priority cannot be negative")
+        Integer priority // Optional, defaults to 0; higher is offered first
+) {}
@@ -0,0 +1,9 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDate;
+
+public record DayAvailabilitySummaryDto(
+        LocalDate scheduleDate,
+        Integer openSlots,
+        Integer totalSlots
+) {}
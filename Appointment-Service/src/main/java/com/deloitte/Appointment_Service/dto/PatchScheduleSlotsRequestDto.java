@@ -0,0 +1,16 @@
+package com.deloitte.Appointment_Service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalTime;
+import java.util.List;
+
+// Each list is optional; a time may appear in at most one of them
+public record PatchScheduleSlotsRequestDto(
+        List<@NotNull LocalTime> add,    // New slots, published as available
+        List<@NotNull LocalTime> remove, // Only slots with no seat taken can be removed
+        List<@NotNull LocalTime> open,   // Reopen closed slots; their booked seats are untouched
+        List<@NotNull LocalTime> close,  // Stop bookings on slots; existing bookings keep their seats
+        @Positive Integer addCapacity    // Seats per added slot, defaults to 1
+) {}
@@ -0,0 +1,8 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDateTime;
+
+public record ProviderSlotDto(
+        Long providerId,
+        LocalDateTime slotTime
+) {}
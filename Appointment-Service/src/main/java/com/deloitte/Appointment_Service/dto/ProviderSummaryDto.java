@@ -0,0 +1,9 @@
+package com.deloitte.Appointment_Service.dto;
+
+public record ProviderSummaryDto(
+        Long providerId,
+        Long userId,
+        String name,
+        String speciality,
+        String department
+) {}
@@ -1,5 +1,7 @@
 package com.deloitte.Appointment_Service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -10,5 +12,6 @@ public record ScheduleResponseDto(
         LocalDate scheduleDate,
         Map<String, Boolean> slots,
         String message,
-        String errorMessage
+        String errorMessage,
+        @JsonIgnore boolean created // Whether this request inserted the day; replays and merges did not
 ) {}
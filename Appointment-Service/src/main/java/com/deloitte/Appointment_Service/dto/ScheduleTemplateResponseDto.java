@@ -0,0 +1,14 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ScheduleTemplateResponseDto(
+        Long providerId,
+        LocalDate startDate,
+        LocalDate endDate,
+        int slotsPerDay,
+        List<LocalDate> createdDates,
+        List<LocalDate> skippedDates,
+        String message
+) {}
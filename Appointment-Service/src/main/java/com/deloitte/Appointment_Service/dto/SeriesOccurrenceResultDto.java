@@ -0,0 +1,10 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDateTime;
+
+public record SeriesOccurrenceResultDto(
+        LocalDateTime appointmentDateTime,
+        Long appointmentId,
+        boolean success,
+        String errorMessage
+) {}
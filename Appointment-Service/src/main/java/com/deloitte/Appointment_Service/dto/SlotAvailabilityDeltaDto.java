@@ -0,0 +1,11 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SlotAvailabilityDeltaDto(
+        Long providerId,
+        LocalDate scheduleDate,
+        boolean scheduleCreated,
+        List<TimeSlotResponseDto> slots
+) {}
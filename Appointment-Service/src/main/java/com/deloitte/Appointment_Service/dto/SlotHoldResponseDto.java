@@ -0,0 +1,12 @@
+package com.deloitte.Appointment_Service.dto;
+
+import java.time.LocalDateTime;
+
+public record SlotHoldResponseDto(
+        String holdId,
+        Long patientId,
+        Long providerId,
+        LocalDateTime appointmentDateTime,
+        LocalDateTime expiresAt,
+        String message
+) {}
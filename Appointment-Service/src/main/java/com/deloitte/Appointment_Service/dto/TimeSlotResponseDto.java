@@ -4,5 +4,6 @@ import java.time.LocalDateTime;
 
 public record TimeSlotResponseDto(
         LocalDateTime slotTime,
-        Boolean isAvailable
+        Boolean isAvailable,
+        Integer remainingCapacity // Seats left; 1 or 0 for an ordinary single-seat slot
 ) {}
@@ -0,0 +1,20 @@
+package com.deloitte.Appointment_Service.dto;
+
+import com.deloitte.Appointment_Service.constants.WaitlistStatus;
+
+import java.time.LocalDateTime;
+
+public record WaitlistEntryResponseDto(
+        Long id,
+        Long patientId,
+        Long providerId,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        int priority,
+        WaitlistStatus status,
+        String holdId, // Set once a slot is offered; commit it like any other slot hold
+        LocalDateTime offeredSlotTime,
+        LocalDateTime offerExpiresAt,
+        LocalDateTime createdAt,
+        String message
+) {}
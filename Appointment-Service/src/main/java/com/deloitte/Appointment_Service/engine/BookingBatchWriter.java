@@ -0,0 +1,356 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.constants.SlotState;
+import com.deloitte.Appointment_Service.exception.InvalidAppointmentStateException;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Persists a drained batch of partition commands with JDBC batching inside one
+ * transaction. Every write is still conditional, so the database stays the
+ * final arbiter even if a partition's in-memory view is stale. Partitions
+ * track availability as a single flag per slot, so only single-seat slots
+ * are booked here; cancellations give back a seat on slots of any size.
+ */
+@Component
+@ConditionalOnProperty(prefix = "appointment.booking", name = "mode", havingValue = "partitioned")
+public class BookingBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBatchWriter.class);
+
+    private static final String LOAD_DAY_SQL =
+            "SELECT slot_minute, state, capacity FROM provider_slot WHERE provider_id = ? AND schedule_date = ?";
+
+    private static final String CLAIM_SLOT_SQL =
+            "UPDATE provider_slot SET state = 'BOOKED', booked = booked + 1, version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? " +
+            "AND booked < capacity AND capacity = 1 AND state <> 'CLOSED'";
+
+    private static final String RELEASE_SLOT_SQL =
+            "UPDATE provider_slot " +
+            "SET state = CASE WHEN state = 'CLOSED' THEN 'CLOSED' ELSE 'AVAILABLE' END, " +
+            "booked = booked - 1, version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? AND booked > 0";
+
+    private static final String READ_SLOTS_SQL =
+            "SELECT slot_minute, state, capacity, booked FROM provider_slot " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute IN (%s)";
+
+    private static final String ADJUST_OPEN_SLOTS_SQL =
+            "UPDATE provider_time_slots SET open_slots = open_slots + ? WHERE provider_id = ? AND schedule_date = ?";
+
+    private static final String INSERT_APPOINTMENT_SQL =
+            "INSERT INTO appointments (patient_id, provider_id, status, appointment_date_time, created_at, updated_at) " +
+            "VALUES (?, ?, 'REQUESTED', ?, ?, ?)";
+
+    private static final String REJECT_SQL =
+            "UPDATE appointments SET status = 'REJECTED', updated_at = ? " +
+            "WHERE id = ? AND provider_id = ? AND status = 'REQUESTED'";
+
+    private static final String CANCEL_SQL =
+            "UPDATE appointments SET status = 'CANCELLED', updated_at = ? " +
+            "WHERE id = ? AND patient_id = ? AND status IN ('REQUESTED', 'CONFIRMED')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    private record ProviderDay(Long providerId, LocalDate scheduleDate) {
+    }
+
+    // slotChanges and seats hold only the slots the command actually changed, as they stand after the batch
+    record CommandOutcome(Long appointmentId, LocalDateTime timestamp, RuntimeException failure,
+                          Map<Integer, Boolean> slotChanges, Map<Integer, Integer> seats) {
+
+        static CommandOutcome failed(RuntimeException failure) {
+            return new CommandOutcome(null, null, failure, Map.of(), Map.of());
+        }
+
+        boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    // sharedSeatMinutes are the slots with more than one seat, which partitions do not book
+    record LoadedDay(Map<Integer, Boolean> slots, Set<Integer> sharedSeatMinutes) {
+    }
+
+    private record SlotRow(SlotState state, int capacity, int booked) {
+
+        int remaining() {
+            return capacity - booked;
+        }
+    }
+
+    LoadedDay loadDay(Long providerId, LocalDate scheduleDate) {
+        Map<Integer, Boolean> slots = new HashMap<>();
+        Set<Integer> sharedSeatMinutes = new HashSet<>();
+        jdbcTemplate.query(LOAD_DAY_SQL, rs -> {
+            int slotMinute = rs.getInt("slot_minute");
+            slots.put(slotMinute, SlotState.AVAILABLE.name().equals(rs.getString("state")));
+            if (rs.getInt("capacity") > 1) {
+                sharedSeatMinutes.add(slotMinute);
+            }
+        }, providerId, Date.valueOf(scheduleDate));
+        return new LoadedDay(slots, sharedSeatMinutes);
+    }
+
+    // Outcomes are aligned with the input list
+    List<CommandOutcome> persist(List<BookingCommand> commands) {
+        try {
+            return transactionTemplate.execute(status -> write(commands));
+        } catch (RuntimeException e) {
+            if (commands.size() == 1) {
+                return List.of(CommandOutcome.failed(e));
+            }
+            // One bad command must not fail its neighbours; fall back to one transaction each
+            log.warn("Batch of {} booking commands failed, retrying individually", commands.size(), e);
+            List<CommandOutcome> outcomes = new ArrayList<>(commands.size());
+            for (BookingCommand command : commands) {
+                try {
+                    outcomes.add(transactionTemplate.execute(status -> write(List.of(command))).get(0));
+                } catch (RuntimeException ex) {
+                    outcomes.add(CommandOutcome.failed(ex));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private List<CommandOutcome> write(List<BookingCommand> commands) {
+        LocalDateTime now = LocalDateTime.now();
+        CommandOutcome[] outcomes = new CommandOutcome[commands.size()];
+        Map<ProviderDay, Integer> openSlotDeltas = new LinkedHashMap<>();
+
+        // Claim slots for new bookings, then insert the appointments whose claim succeeded
+        List<Integer> creates = indexesOf(commands, BookingCommand.Type.CREATE);
+        if (!creates.isEmpty()) {
+            List<Object[]> claimArgs = new ArrayList<>(creates.size());
+            for (int i : creates) {
+                claimArgs.add(slotArgs(commands.get(i), commands.get(i).slotMinute));
+            }
+            int[] claimed = jdbcTemplate.batchUpdate(CLAIM_SLOT_SQL, claimArgs);
+
+            List<BookingCommand> toInsert = new ArrayList<>();
+            List<Integer> insertIndexes = new ArrayList<>();
+            for (int k = 0; k < creates.size(); k++) {
+                int i = creates.get(k);
+                if (claimed[k] > 0) {
+                    BookingCommand command = commands.get(i);
+                    toInsert.add(command);
+                    insertIndexes.add(i);
+                    openSlotDeltas.merge(new ProviderDay(command.providerId, command.scheduleDate), -1, Integer::sum);
+                } else {
+                    outcomes[i] = CommandOutcome.failed(new SlotNotAvailableException(
+                            "Time slot is not available for booking for time slot: " + commands.get(i).slotTime));
+                }
+            }
+            List<Long> ids = insertAppointments(toInsert, now);
+            for (int k = 0; k < insertIndexes.size(); k++) {
+                // Only single-seat slots are claimed, so a claimed slot is always full
+                outcomes[insertIndexes.get(k)] = new CommandOutcome(ids.get(k), now, null,
+                        Map.of(toInsert.get(k).slotMinute, false), Map.of());
+            }
+        }
+
+        // Conditional status transitions, then release the slots of the ones that applied
+        List<Integer> releases = new ArrayList<>();
+        applyTransitions(commands, BookingCommand.Type.REJECT, REJECT_SQL, now, outcomes, releases);
+        applyTransitions(commands, BookingCommand.Type.CANCEL, CANCEL_SQL, now, outcomes, releases);
+        if (!releases.isEmpty()) {
+            releaseSlots(commands, releases, outcomes, openSlotDeltas);
+        }
+
+        // Per-day open-slot counters move in the same transaction as the slot rows
+        if (!openSlotDeltas.isEmpty()) {
+            List<Object[]> adjustArgs = new ArrayList<>(openSlotDeltas.size());
+            openSlotDeltas.forEach((day, delta) -> {
+                if (delta != 0) {
+                    adjustArgs.add(new Object[]{delta, day.providerId(), Date.valueOf(day.scheduleDate())});
+                }
+            });
+            if (!adjustArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADJUST_OPEN_SLOTS_SQL, adjustArgs);
+            }
+        }
+
+        return Arrays.asList(outcomes);
+    }
+
+    // Gives back every slot of each transitioned appointment and records what actually changed
+    private void releaseSlots(List<BookingCommand> commands, List<Integer> releases, CommandOutcome[] outcomes,
+                              Map<ProviderDay, Integer> openSlotDeltas) {
+        List<Object[]> releaseArgs = new ArrayList<>();
+        for (int i : releases) {
+            BookingCommand command = commands.get(i);
+            for (int slotMinute : command.slotMinutes) {
+                releaseArgs.add(slotArgs(command, slotMinute));
+            }
+        }
+        int[] released = jdbcTemplate.batchUpdate(RELEASE_SLOT_SQL, releaseArgs);
+
+        // Seats given back per slot; several commands of the batch may release the same slot
+        Map<ProviderDay, Map<Integer, Integer>> releasedSeats = new LinkedHashMap<>();
+        int k = 0;
+        for (int i : releases) {
+            BookingCommand command = commands.get(i);
+            for (int slotMinute : command.slotMinutes) {
+                if (released[k++] > 0) {
+                    releasedSeats.computeIfAbsent(new ProviderDay(command.providerId, command.scheduleDate),
+                            day -> new HashMap<>()).merge(slotMinute, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<ProviderDay, Map<Integer, SlotRow>> rows = new HashMap<>();
+        releasedSeats.forEach((day, seatsByMinute) -> {
+            Map<Integer, SlotRow> dayRows = readSlots(day, seatsByMinute.keySet());
+            rows.put(day, dayRows);
+            seatsByMinute.forEach((slotMinute, count) -> {
+                SlotRow row = dayRows.get(slotMinute);
+                boolean wasAvailable = row.state() != SlotState.CLOSED && row.remaining() - count > 0;
+                boolean isAvailable = row.state() == SlotState.AVAILABLE;
+                if (wasAvailable != isAvailable) {
+                    openSlotDeltas.merge(day, isAvailable ? 1 : -1, Integer::sum);
+                }
+            });
+        });
+
+        k = 0;
+        for (int i : releases) {
+            BookingCommand command = commands.get(i);
+            Map<Integer, SlotRow> dayRows = rows.getOrDefault(
+                    new ProviderDay(command.providerId, command.scheduleDate), Map.of());
+            Map<Integer, Boolean> slotChanges = new HashMap<>();
+            Map<Integer, Integer> seats = new HashMap<>();
+            for (int slotMinute : command.slotMinutes) {
+                if (released[k++] > 0) {
+                    SlotRow row = dayRows.get(slotMinute);
+                    slotChanges.put(slotMinute, row.state() == SlotState.AVAILABLE);
+                    if (row.capacity() > 1) {
+                        seats.put(slotMinute, row.remaining());
+                    }
+                }
+            }
+            CommandOutcome outcome = outcomes[i];
+            outcomes[i] = new CommandOutcome(outcome.appointmentId(), outcome.timestamp(), null, slotChanges, seats);
+        }
+    }
+
+    private Map<Integer, SlotRow> readSlots(ProviderDay day, Set<Integer> slotMinutes) {
+        List<Object> args = new ArrayList<>(slotMinutes.size() + 2);
+        args.add(day.providerId());
+        args.add(Date.valueOf(day.scheduleDate()));
+        args.addAll(slotMinutes);
+        Map<Integer, SlotRow> rows = new HashMap<>();
+        String sql = String.format(READ_SLOTS_SQL, String.join(", ", Collections.nCopies(slotMinutes.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            rows.put(rs.getInt("slot_minute"), new SlotRow(SlotState.valueOf(rs.getString("state")),
+                    rs.getInt("capacity"), rs.getInt("booked")));
+        }, args.toArray());
+        return rows;
+    }
+
+    private void applyTransitions(List<BookingCommand> commands, BookingCommand.Type type, String sql,
+                                  LocalDateTime now, CommandOutcome[] outcomes, List<Integer> releases) {
+        List<Integer> indexes = indexesOf(commands, type);
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(indexes.size());
+        for (int i : indexes) {
+            BookingCommand command = commands.get(i);
+            args.add(new Object[]{Timestamp.valueOf(now), command.appointment.getId(), command.actorId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(sql, args);
+        for (int k = 0; k < indexes.size(); k++) {
+            int i = indexes.get(k);
+            BookingCommand command = commands.get(i);
+            if (updated[k] > 0) {
+                outcomes[i] = new CommandOutcome(command.appointment.getId(), now, null, Map.of(), Map.of());
+                releases.add(i);
+            } else {
+                outcomes[i] = CommandOutcome.failed(transitionFailure(command));
+            }
+        }
+    }
+
+    private RuntimeException transitionFailure(BookingCommand command) {
+        boolean reject = command.type == BookingCommand.Type.REJECT;
+        Long owner = reject ? command.appointment.getProviderId() : command.appointment.getPatientId();
+        if (!owner.equals(command.actorId)) {
+            return new InvalidAppointmentStateException(
+                    "Appointment does not belong to this " + (reject ? "provider" : "patient"));
+        }
+        AppointmentStatus status = jdbcTemplate.queryForObject(
+                "SELECT status FROM appointments WHERE id = ?",
+                (rs, rowNum) -> AppointmentStatus.valueOf(rs.getString("status")),
+                command.appointment.getId());
+        return new InvalidAppointmentStateException(reject
+                ? "Only REQUESTED appointments can be rejected. Current state: " + status
+                : "Only REQUESTED or CONFIRMED appointments can be cancelled. Current state: " + status);
+    }
+
+    private List<Long> insertAppointments(List<BookingCommand> commands, LocalDateTime now) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    INSERT_APPOINTMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                Timestamp timestamp = Timestamp.valueOf(now);
+                for (BookingCommand command : commands) {
+                    ps.setLong(1, command.patientId);
+                    ps.setLong(2, command.providerId);
+                    ps.setTimestamp(3, Timestamp.valueOf(command.slotTime));
+                    ps.setTimestamp(4, timestamp);
+                    ps.setTimestamp(5, timestamp);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(commands.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    private static List<Integer> indexesOf(List<BookingCommand> commands, BookingCommand.Type type) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (commands.get(i).type == type) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
+    private static Object[] slotArgs(BookingCommand command, int slotMinute) {
+        return new Object[]{command.providerId, Date.valueOf(command.scheduleDate), slotMinute};
+    }
+}
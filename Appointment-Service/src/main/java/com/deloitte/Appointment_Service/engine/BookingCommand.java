@@ -0,0 +1,77 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A unit of work for a booking partition. CREATE/CANCEL/REJECT complete their
+ * future once persisted; SLOTS_CHANGED carries availability changes made
+ * outside the engine so the owning partition can refresh its state.
+ */
+final class BookingCommand {
+
+    enum Type {
+        CREATE,
+        CANCEL,
+        REJECT,
+        SLOTS_CHANGED
+    }
+
+    final Type type;
+    final Long providerId;
+    final LocalDate scheduleDate;
+    final int slotMinute;
+    final int[] slotMinutes; // Every slot a transition gives back, starting with slotMinute
+    final LocalDateTime slotTime;
+    final Long patientId;
+    final Long actorId;
+    final Appointment appointment;
+    final Map<Integer, Boolean> slotChanges;
+    final Set<Integer> sharedSeatMinutes; // Slots in slotChanges that have more than one seat
+    final CompletableFuture<AppointmentResponseDto> result = new CompletableFuture<>();
+
+    private BookingCommand(Type type, Long providerId, LocalDate scheduleDate, int[] slotMinutes,
+                           LocalDateTime slotTime, Long patientId, Long actorId, Appointment appointment,
+                           Map<Integer, Boolean> slotChanges, Set<Integer> sharedSeatMinutes) {
+        this.type = type;
+        this.providerId = providerId;
+        this.scheduleDate = scheduleDate;
+        this.slotMinute = slotMinutes.length > 0 ? slotMinutes[0] : -1;
+        this.slotMinutes = slotMinutes;
+        this.slotTime = slotTime;
+        this.patientId = patientId;
+        this.actorId = actorId;
+        this.appointment = appointment;
+        this.slotChanges = slotChanges;
+        this.sharedSeatMinutes = sharedSeatMinutes;
+    }
+
+    static BookingCommand create(Long patientId, Long providerId, LocalDateTime slotTime, int slotMinute) {
+        return new BookingCommand(Type.CREATE, providerId, slotTime.toLocalDate(), new int[] {slotMinute}, slotTime,
+                patientId, patientId, null, null, null);
+    }
+
+    static BookingCommand cancel(Appointment appointment, Long patientId, int[] slotMinutes) {
+        return new BookingCommand(Type.CANCEL, appointment.getProviderId(),
+                appointment.getAppointmentDateTime().toLocalDate(), slotMinutes, appointment.getAppointmentDateTime(),
+                appointment.getPatientId(), patientId, appointment, null, null);
+    }
+
+    static BookingCommand reject(Appointment appointment, Long providerId, int[] slotMinutes) {
+        return new BookingCommand(Type.REJECT, appointment.getProviderId(),
+                appointment.getAppointmentDateTime().toLocalDate(), slotMinutes, appointment.getAppointmentDateTime(),
+                appointment.getPatientId(), providerId, appointment, null, null);
+    }
+
+    static BookingCommand slotsChanged(Long providerId, LocalDate scheduleDate, Map<Integer, Boolean> changes,
+                                       Set<Integer> sharedSeatMinutes) {
+        return new BookingCommand(Type.SLOTS_CHANGED, providerId, scheduleDate, new int[0], null,
+                null, null, null, changes, sharedSeatMinutes);
+    }
+}
@@ -0,0 +1,150 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.dto.CreateAppointmentRequestDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.exception.BookingPendingException;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.model.Appointment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional booking mode (appointment.booking.mode=partitioned) that shards
+ * providers across single-threaded partitions. Each partition owns its
+ * providers' slot state, so bookings for a provider never contend with each
+ * other on a lock; they are serialized through the partition's ring buffer
+ * and persisted in JDBC batches.
+ */
+@Component
+@ConditionalOnProperty(prefix = "appointment.booking", name = "mode", havingValue = "partitioned")
+public class BookingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingEngine.class);
+
+    private final BookingPartition[] partitions;
+    private final long responseTimeoutMillis;
+
+    public BookingEngine(BookingBatchWriter batchWriter,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry,
+                         @Value("${appointment.booking.engine.partitions:0}") int partitionCount,
+                         @Value("${appointment.booking.engine.ring-size:4096}") int ringSize,
+                         @Value("${appointment.booking.engine.batch-size:256}") int batchSize,
+                         @Value("${appointment.booking.engine.state-ttl-seconds:60}") long stateTtlSeconds,
+                         @Value("${appointment.booking.engine.response-timeout-millis:5000}") long responseTimeoutMillis) {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new BookingPartition[count];
+        for (int i = 0; i < count; i++) {
+            BookingPartition partition = new BookingPartition(i, ringSize, batchSize,
+                    TimeUnit.SECONDS.toNanos(stateTtlSeconds), batchWriter, eventPublisher);
+            partitions[i] = partition;
+            Gauge.builder("appointment.booking.engine.queue.depth", partition, BookingPartition::queueDepth)
+                    .description("Commands waiting in a booking partition's ring buffer")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (BookingPartition partition : partitions) {
+            partition.start();
+        }
+        log.info("Started partitioned booking engine with {} partitions", partitions.length);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (BookingPartition partition : partitions) {
+            partition.stop();
+        }
+        log.info("Stopped partitioned booking engine");
+    }
+
+    public AppointmentResponseDto createAppointment(CreateAppointmentRequestDto request) {
+        int slotMinute = SlotKeys.toMinuteOfDay(request.appointmentDateTime().toLocalTime());
+        return execute(BookingCommand.create(
+                request.patientId(), request.providerId(), request.appointmentDateTime(), slotMinute));
+    }
+
+    // bookedSlots are every slot the appointment occupies, starting with its start slot
+    public AppointmentResponseDto cancelAppointment(Appointment appointment, Long patientId,
+                                                    List<LocalDateTime> bookedSlots) {
+        return execute(BookingCommand.cancel(appointment, patientId, toMinutes(bookedSlots)));
+    }
+
+    public AppointmentResponseDto rejectAppointment(Appointment appointment, Long providerId,
+                                                    List<LocalDateTime> bookedSlots) {
+        return execute(BookingCommand.reject(appointment, providerId, toMinutes(bookedSlots)));
+    }
+
+    // Keeps partition state in step with schedule and slot changes made outside the engine
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        BookingPartition partition = partitionFor(event.providerId());
+        if (partition.owns(Thread.currentThread())) {
+            return;
+        }
+        if (!partition.submit(BookingCommand.slotsChanged(event.providerId(), event.scheduleDate(), event.changes(),
+                event.seats().keySet()))) {
+            // Reloading the day from the database covers the change as well as applying it would
+            partition.invalidate(event.providerId(), event.scheduleDate());
+            log.warn("Booking partition queue full, reloading provider ID: {} on date: {} instead of applying a slot change",
+                    event.providerId(), event.scheduleDate());
+        }
+    }
+
+    private AppointmentResponseDto execute(BookingCommand command) {
+        if (!partitionFor(command.providerId).submit(command)) {
+            throw new SlotNotAvailableException(
+                    "Provider " + command.providerId + " is busy processing bookings, please retry");
+        }
+        try {
+            return command.result.get(responseTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Booking command failed", e.getCause());
+        } catch (TimeoutException e) {
+            // The command stays queued and may still commit, so this must not read as a plain failure
+            log.warn("Booking engine did not respond within {} ms for provider ID: {}",
+                    responseTimeoutMillis, command.providerId);
+            throw new BookingPendingException("Booking for provider " + command.providerId +
+                    " is still being processed; check the appointments before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the booking engine", e);
+        }
+    }
+
+    private static int[] toMinutes(List<LocalDateTime> slotTimes) {
+        int[] minutes = new int[slotTimes.size()];
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = SlotKeys.toMinuteOfDay(slotTimes.get(i).toLocalTime());
+        }
+        return minutes;
+    }
+
+    private BookingPartition partitionFor(Long providerId) {
+        return partitions[Math.floorMod(Long.hashCode(providerId), partitions.length)];
+    }
+}
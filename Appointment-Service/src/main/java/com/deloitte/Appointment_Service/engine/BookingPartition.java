@@ -0,0 +1,267 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.index.DaySlotBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-threaded owner of the slot state for the providers hashed to it.
+ * Commands are drained from the ring buffer in batches, checked against the
+ * in-memory day bitmaps and persisted together by {@link BookingBatchWriter}.
+ */
+final class BookingPartition implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartition.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int partitionId;
+    private final RingBuffer<BookingCommand> ringBuffer;
+    private final BookingBatchWriter batchWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long stateTtlNanos;
+
+    // Owned by the partition thread only
+    private final Map<ProviderDay, DayState> days = new HashMap<>();
+    private long lastSweepNanos = System.nanoTime();
+
+    // Days whose external change could not be queued; dropped from the state before the next batch
+    private final Set<ProviderDay> staleDays = ConcurrentHashMap.newKeySet();
+
+    private volatile Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+
+    BookingPartition(int partitionId, int ringSize, int batchSize, long stateTtlNanos,
+                     BookingBatchWriter batchWriter, ApplicationEventPublisher eventPublisher) {
+        this.partitionId = partitionId;
+        this.ringBuffer = new RingBuffer<>(ringSize);
+        this.batchSize = batchSize;
+        this.stateTtlNanos = stateTtlNanos;
+        this.batchWriter = batchWriter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    void start() {
+        Thread worker = new Thread(this, "booking-partition-" + partitionId);
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    void stop() {
+        running = false;
+        Thread worker = thread;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    boolean owns(Thread candidate) {
+        return candidate == thread;
+    }
+
+    int queueDepth() {
+        return ringBuffer.size();
+    }
+
+    boolean submit(BookingCommand command) {
+        if (!ringBuffer.offer(command)) {
+            return false;
+        }
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    // Any thread; the day is reloaded from the database the next time it is used
+    void invalidate(Long providerId, LocalDate scheduleDate) {
+        staleDays.add(new ProviderDay(providerId, scheduleDate));
+    }
+
+    @Override
+    public void run() {
+        List<BookingCommand> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (ringBuffer.drainTo(batch, batchSize) == 0) {
+                idle();
+                continue;
+            }
+            try {
+                process(batch);
+            } catch (RuntimeException e) {
+                log.error("Booking partition {} failed to process a batch of {} commands", partitionId, batch.size(), e);
+                days.clear();
+                batch.forEach(command -> command.result.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+
+        // Fail whatever is still queued so callers are not left waiting
+        ringBuffer.drainTo(batch, Integer.MAX_VALUE);
+        batch.forEach(command -> command.result.completeExceptionally(
+                new IllegalStateException("Booking engine is shutting down")));
+    }
+
+    private void idle() {
+        sweepExpiredDays();
+        sleeping = true;
+        if (running && ringBuffer.isEmpty()) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        sleeping = false;
+    }
+
+    private void process(List<BookingCommand> batch) {
+        dropStaleDays();
+        List<BookingCommand> toPersist = new ArrayList<>(batch.size());
+        for (BookingCommand command : batch) {
+            switch (command.type) {
+                case SLOTS_CHANGED -> applyExternalChange(command);
+                case CREATE -> {
+                    DayState day = dayState(command.providerId, command.scheduleDate);
+                    if (day.sharedSeatMinutes.contains(command.slotMinute)) {
+                        command.result.completeExceptionally(new IllegalArgumentException(
+                                "Slots with more than one seat cannot be booked in partitioned booking mode"));
+                        continue;
+                    }
+                    if (!day.bitmap.isAvailable(command.slotMinute)) {
+                        command.result.completeExceptionally(new SlotNotAvailableException(
+                                "Time slot is not available for booking for time slot: " + command.slotTime));
+                        continue;
+                    }
+                    // Taken optimistically so later commands in this batch see the slot as booked
+                    day.bitmap = day.bitmap.with(Map.of(command.slotMinute, false));
+                    toPersist.add(command);
+                }
+                case CANCEL, REJECT -> toPersist.add(command);
+            }
+        }
+        if (toPersist.isEmpty()) {
+            return;
+        }
+
+        List<BookingBatchWriter.CommandOutcome> outcomes = batchWriter.persist(toPersist);
+        for (int i = 0; i < toPersist.size(); i++) {
+            complete(toPersist.get(i), outcomes.get(i));
+        }
+    }
+
+    private void complete(BookingCommand command, BookingBatchWriter.CommandOutcome outcome) {
+        ProviderDay key = new ProviderDay(command.providerId, command.scheduleDate);
+        if (!outcome.succeeded()) {
+            if (command.type == BookingCommand.Type.CREATE && !(outcome.failure() instanceof SlotNotAvailableException)) {
+                // The optimistic claim was rolled back; reload the day from the database
+                days.remove(key);
+            }
+            command.result.completeExceptionally(outcome.failure());
+            return;
+        }
+
+        // Only slots whose row actually changed are applied and announced, so nobody is offered a slot still taken
+        if (!outcome.slotChanges().isEmpty()) {
+            DayState day = days.get(key);
+            if (day != null) {
+                day.bitmap = day.bitmap.with(outcome.slotChanges());
+            }
+        }
+        // The command has committed, so its caller is answered before listeners run on this thread
+        command.result.complete(toResponse(command, outcome));
+        if (!outcome.slotChanges().isEmpty()) {
+            publishSlotChanges(command, outcome);
+        }
+    }
+
+    // A failing listener must not reach run(), which would fail commands that are already committed
+    private void publishSlotChanges(BookingCommand command, BookingBatchWriter.CommandOutcome outcome) {
+        try {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.slotsUpdated(
+                    command.providerId, command.scheduleDate, outcome.slotChanges(), outcome.seats()));
+        } catch (RuntimeException e) {
+            log.error("Booking partition {} failed to announce slot changes for provider ID: {} on date: {}",
+                    partitionId, command.providerId, command.scheduleDate, e);
+        }
+    }
+
+    private AppointmentResponseDto toResponse(BookingCommand command, BookingBatchWriter.CommandOutcome outcome) {
+        return switch (command.type) {
+            case CREATE -> new AppointmentResponseDto(outcome.appointmentId(), command.patientId, command.providerId,
+                    AppointmentStatus.REQUESTED, command.slotTime, null, outcome.timestamp(),
+                    "Appointment requested successfully", null);
+            case REJECT -> new AppointmentResponseDto(outcome.appointmentId(), command.patientId, command.providerId,
+                    AppointmentStatus.REJECTED, command.slotTime, command.appointment.getDurationMinutes(),
+                    command.appointment.getCreatedAt(), "Appointment rejected successfully", null);
+            case CANCEL -> new AppointmentResponseDto(outcome.appointmentId(), command.patientId, command.providerId,
+                    AppointmentStatus.CANCELLED, command.slotTime, command.appointment.getDurationMinutes(),
+                    command.appointment.getCreatedAt(), "Appointment cancelled successfully", null);
+            case SLOTS_CHANGED -> throw new IllegalStateException("SLOTS_CHANGED commands have no response");
+        };
+    }
+
+    private void applyExternalChange(BookingCommand command) {
+        ProviderDay key = new ProviderDay(command.providerId, command.scheduleDate);
+        DayState day = days.get(key);
+        if (day != null) {
+            day.bitmap = day.bitmap.with(command.slotChanges);
+            day.sharedSeatMinutes.addAll(command.sharedSeatMinutes);
+        }
+    }
+
+    private void dropStaleDays() {
+        Iterator<ProviderDay> it = staleDays.iterator();
+        while (it.hasNext()) {
+            days.remove(it.next());
+            it.remove();
+        }
+    }
+
+    private void sweepExpiredDays() {
+        long now = System.nanoTime();
+        if (now - lastSweepNanos < stateTtlNanos) {
+            return;
+        }
+        days.values().removeIf(day -> now - day.loadedAtNanos > stateTtlNanos);
+        lastSweepNanos = now;
+    }
+
+    private DayState dayState(Long providerId, LocalDate scheduleDate) {
+        ProviderDay key = new ProviderDay(providerId, scheduleDate);
+        DayState day = days.get(key);
+        long now = System.nanoTime();
+        if (day == null || now - day.loadedAtNanos > stateTtlNanos) {
+            BookingBatchWriter.LoadedDay loaded = batchWriter.loadDay(providerId, scheduleDate);
+            day = new DayState(DaySlotBitmap.of(loaded.slots()), new HashSet<>(loaded.sharedSeatMinutes()), now);
+            days.put(key, day);
+        }
+        return day;
+    }
+
+    private record ProviderDay(Long providerId, LocalDate scheduleDate) {
+    }
+
+    private static final class DayState {
+
+        private DaySlotBitmap bitmap;
+        private final Set<Integer> sharedSeatMinutes;
+        private final long loadedAtNanos;
+
+        private DayState(DaySlotBitmap bitmap, Set<Integer> sharedSeatMinutes, long loadedAtNanos) {
+            this.bitmap = bitmap;
+            this.sharedSeatMinutes = sharedSeatMinutes;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.deloitte.Appointment_Service.event;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Published by ProviderScheduleService whenever slots of a provider day are
+ * created or change availability. Keys are minute-of-day offsets. Slots with
+ * more than one seat also report their remaining seats in {@code seats};
+ * single-seat slots are fully described by {@code changes}.
+ */
+public record SlotAvailabilityChangedEvent(
+        Long providerId,
+        LocalDate scheduleDate,
+        Map<Integer, Boolean> changes,
+        Map<Integer, Integer> seats,
+        boolean scheduleCreated
+) {
+
+    public static SlotAvailabilityChangedEvent scheduleCreated(Long providerId, LocalDate scheduleDate,
+                                                               Map<Integer, Boolean> slots) {
+        return scheduleCreated(providerId, scheduleDate, slots, Map.of());
+    }
+
+    public static SlotAvailabilityChangedEvent scheduleCreated(Long providerId, LocalDate scheduleDate,
+                                                               Map<Integer, Boolean> slots,
+                                                               Map<Integer, Integer> seats) {
+        return new SlotAvailabilityChangedEvent(providerId, scheduleDate, Map.copyOf(slots), Map.copyOf(seats), true);
+    }
+
+    public static SlotAvailabilityChangedEvent slotUpdated(Long providerId, LocalDate scheduleDate,
+                                                           int minuteOfDay, boolean isAvailable) {
+        return new SlotAvailabilityChangedEvent(providerId, scheduleDate, Map.of(minuteOfDay, isAvailable),
+                Map.of(), false);
+    }
+
+    // A seat was taken or given back on a slot with several seats; a closed slot is unavailable with seats left
+    public static SlotAvailabilityChangedEvent seatsUpdated(Long providerId, LocalDate scheduleDate,
+                                                            int minuteOfDay, boolean isAvailable,
+                                                            int remainingSeats) {
+        return new SlotAvailabilityChangedEvent(providerId, scheduleDate, Map.of(minuteOfDay, isAvailable),
+                Map.of(minuteOfDay, remainingSeats), false);
+    }
+
+    public static SlotAvailabilityChangedEvent slotsUpdated(Long providerId, LocalDate scheduleDate,
+                                                            Map<Integer, Boolean> changes) {
+        return slotsUpdated(providerId, scheduleDate, changes, Map.of());
+    }
+
+    public static SlotAvailabilityChangedEvent slotsUpdated(Long providerId, LocalDate scheduleDate,
+                                                            Map<Integer, Boolean> changes,
+                                                            Map<Integer, Integer> seats) {
+        return new SlotAvailabilityChangedEvent(providerId, scheduleDate, Map.copyOf(changes), Map.copyOf(seats), false);
+    }
+}
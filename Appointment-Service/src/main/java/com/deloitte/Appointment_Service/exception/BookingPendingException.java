@@ -0,0 +1,8 @@
+package com.deloitte.Appointment_Service.exception;
+
+// The booking command was accepted but its outcome is not known yet; it may still commit
+public class BookingPendingException extends RuntimeException {
+    public BookingPendingException(String message) {
+        super(message);
+    }
+}
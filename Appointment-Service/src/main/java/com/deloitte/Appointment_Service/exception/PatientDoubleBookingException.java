@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.exception;
+
+public class PatientDoubleBookingException extends RuntimeException {
+    public PatientDoubleBookingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.exception;
+
+public class ScheduleConflictException extends RuntimeException {
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+}
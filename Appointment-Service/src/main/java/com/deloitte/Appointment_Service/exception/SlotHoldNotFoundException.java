@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.exception;
+
+public class SlotHoldNotFoundException extends RuntimeException {
+    public SlotHoldNotFoundException(String message) {
+        super(message);
+    }
+}
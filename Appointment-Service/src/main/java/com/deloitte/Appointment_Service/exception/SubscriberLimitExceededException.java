@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.exception;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
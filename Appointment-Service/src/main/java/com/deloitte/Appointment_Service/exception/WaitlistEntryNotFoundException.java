@@ -0,0 +1,7 @@
+package com.deloitte.Appointment_Service.exception;
+
+public class WaitlistEntryNotFoundException extends RuntimeException {
+    public WaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.deloitte.Appointment_Service.gateway;
+
+import com.deloitte.Appointment_Service.dto.ProviderSummaryDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Gateway to communicate with UserService
+ */
+@Component
+public class UserServiceGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(UserServiceGateway.class);
+
+    private final RestTemplate restTemplate;
+
+    @Value("${user-service.base-url:http://localhost:8081}")
+    private String userServiceBaseUrl;
+
+    @Value("${user-service.providers.endpoint:/api/providers}")
+    private String providersEndpoint;
+
+    public UserServiceGateway(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Calls UserService's providers API to list the providers with a speciality
+     */
+    public List<ProviderSummaryDto> getProvidersBySpeciality(String speciality) {
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceBaseUrl + providersEndpoint)
+                .queryParam("speciality", speciality)
+                .toUriString();
+
+        log.info("Calling UserService providers API at: {}", url);
+
+        try {
+            ResponseEntity<List<ProviderSummaryDto>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<ProviderSummaryDto>>() {}
+            );
+
+            List<ProviderSummaryDto> providers = response.getBody();
+            log.info("UserService returned {} providers for speciality: {}",
+                    providers == null ? 0 : providers.size(), speciality);
+            return providers == null ? List.of() : providers;
+
+        } catch (HttpClientErrorException e) {
+            log.error("Client error calling UserService: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("Failed to look up providers for speciality: " + speciality, e);
+        } catch (HttpServerErrorException e) {
+            log.error("Server error from UserService: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("UserService is currently unavailable. Please try again later.", e);
+        } catch (RestClientException e) {
+            log.error("Error calling UserService: ", e);
+            throw new RuntimeException("Failed to connect to UserService: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.deloitte.Appointment_Service.hold;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for hold expiry. A single thread advances one bucket per
+ * tick; a timeout lands in the bucket for its deadline and carries the number
+ * of full wheel turns left, so scheduling and cancelling are O(1) and any
+ * number of holds share one thread. Expired hold IDs are handed to the expiry
+ * handler in batches. Deadlines are rounded up to the next tick, so a hold
+ * never expires early.
+ */
+public final class HoldTimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldTimerWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<String, Timeout> pending = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final Consumer<List<String>> expiryHandler;
+    private final Thread worker;
+
+    private long startNanos;
+    private long tick; // Only touched by the worker thread
+    private volatile boolean running;
+
+    @SuppressWarnings("unchecked")
+    public HoldTimerWheel(long tickMillis, int wheelSize, int batchSize, Consumer<List<String>> expiryHandler) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Timer wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.batchSize = batchSize;
+        this.expiryHandler = expiryHandler;
+        this.worker = new Thread(this::run, "slot-hold-timer");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        running = true;
+        worker.start();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    // Replaces any earlier timeout for the same hold
+    public void schedule(String holdId, long delayMillis) {
+        Timeout timeout = new Timeout(holdId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        Timeout previous = pending.put(holdId, timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incoming.add(timeout);
+    }
+
+    public void cancel(String holdId) {
+        Timeout timeout = pending.remove(holdId);
+        if (timeout != null) {
+            timeout.cancelled = true;
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            try {
+                transferIncoming();
+                expire(buckets[(int) (tick & mask)]);
+            } catch (RuntimeException e) {
+                log.error("Slot hold timer tick failed", e);
+            }
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max(tick, ceilDiv(timeout.deadlineNanos - startNanos, tickNanos));
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        List<String> expired = new ArrayList<>();
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                it.remove();
+                if (pending.remove(timeout.holdId, timeout)) {
+                    expired.add(timeout.holdId);
+                }
+            }
+        }
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<String> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                expiryHandler.accept(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to expire {} slot hold(s); the reaper will pick them up", batch.size(), e);
+            }
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return value <= 0 ? 0 : (value + divisor - 1) / divisor;
+    }
+
+    private static final class Timeout {
+
+        private final String holdId;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(String holdId, long deadlineNanos) {
+            this.holdId = holdId;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.deloitte.Appointment_Service.index;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable minute-of-day bitset for one provider day. Bit {@code m} of
+ * {@code defined} marks a slot at minute {@code m}; the same bit of
+ * {@code available} marks it as bookable. Updates return a new copy.
+ */
+public final class DaySlotBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] defined;
+    private final long[] available;
+    private int slotLength; // Memoized by slotLengthMinutes(); 0 until computed
+
+    private DaySlotBitmap(long[] defined, long[] available) {
+        this.defined = defined;
+        this.available = available;
+    }
+
+    public static DaySlotBitmap of(Map<Integer, Boolean> slots) {
+        long[] defined = new long[WORDS];
+        long[] available = new long[WORDS];
+        for (Map.Entry<Integer, Boolean> entry : slots.entrySet()) {
+            int minute = entry.getKey();
+            if (minute < 0 || minute >= MINUTES_PER_DAY) {
+                continue;
+            }
+            defined[minute >>> 6] |= 1L << minute;
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                available[minute >>> 6] |= 1L << minute;
+            }
+        }
+        return new DaySlotBitmap(defined, available);
+    }
+
+    public DaySlotBitmap with(Map<Integer, Boolean> changes) {
+        long[] newDefined = Arrays.copyOf(defined, WORDS);
+        long[] newAvailable = Arrays.copyOf(available, WORDS);
+        for (Map.Entry<Integer, Boolean> entry : changes.entrySet()) {
+            int minute = entry.getKey();
+            if (minute < 0 || minute >= MINUTES_PER_DAY) {
+                continue;
+            }
+            long bit = 1L << minute;
+            newDefined[minute >>> 6] |= bit;
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                newAvailable[minute >>> 6] |= bit;
+            } else {
+                newAvailable[minute >>> 6] &= ~bit;
+            }
+        }
+        return new DaySlotBitmap(newDefined, newAvailable);
+    }
+
+    public boolean isDefined(int minute) {
+        return (defined[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+    public boolean isAvailable(int minute) {
+        return (available[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+    // Returns the first available minute >= fromMinute, or -1 when there is none
+    public int nextAvailable(int fromMinute) {
+        if (fromMinute < 0) {
+            fromMinute = 0;
+        }
+        if (fromMinute >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int word = fromMinute >>> 6;
+        long bits = available[word] & (-1L << fromMinute);
+        while (true) {
+            if (bits != 0) {
+                int minute = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return minute < MINUTES_PER_DAY ? minute : -1;
+            }
+            if (++word == WORDS) {
+                return -1;
+            }
+            bits = available[word];
+        }
+    }
+
+    /**
+     * Smallest gap between two published minutes, i.e. the length of one slot,
+     * or -1 when fewer than two slots are published and the length is unknown.
+     */
+    public int slotLengthMinutes() {
+        int length = slotLength;
+        if (length == 0) {
+            length = -1;
+            int previous = -1;
+            for (int word = 0; word < WORDS; word++) {
+                long bits = defined[word];
+                while (bits != 0) {
+                    int minute = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (previous >= 0 && (length < 0 || minute - previous < length)) {
+                        length = minute - previous;
+                    }
+                    previous = minute;
+                    bits &= bits - 1;
+                }
+            }
+            slotLength = length;
+        }
+        return length;
+    }
+
+    /**
+     * Start minutes of every run of {@code slotCount} consecutive available
+     * slots, returned as the available bits of a new bitmap. Bit {@code m}
+     * survives {@code r &= r >> k*g} only if minute {@code m + k*g} is available
+     * too, so doubling the covered run length each round needs O(log n) word
+     * passes over the day instead of a probe per slot.
+     */
+    public DaySlotBitmap runStarts(int slotCount) {
+        int length = slotLengthMinutes();
+        if (slotCount <= 1) {
+            return this;
+        }
+        long[] starts = new long[WORDS];
+        if (length > 0) {
+            System.arraycopy(available, 0, starts, 0, WORDS);
+            int covered = 1;
+            while (covered < slotCount) {
+                int step = Math.min(covered, slotCount - covered);
+                long[] shifted = shiftDown(starts, step * length);
+                for (int word = 0; word < WORDS; word++) {
+                    starts[word] &= shifted[word];
+                }
+                covered += step;
+            }
+        }
+        return new DaySlotBitmap(defined, starts);
+    }
+
+    // Bit m of the result is bit m + distance of the input
+    private static long[] shiftDown(long[] bits, int distance) {
+        long[] shifted = new long[WORDS];
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        for (int word = 0; word + wordShift < WORDS; word++) {
+            long low = bits[word + wordShift] >>> bitShift;
+            long high = bitShift != 0 && word + wordShift + 1 < WORDS
+                    ? bits[word + wordShift + 1] << (64 - bitShift)
+                    : 0;
+            shifted[word] = low | high;
+        }
+        return shifted;
+    }
+
+    public int availableCount() {
+        int count = 0;
+        for (long word : available) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int definedCount() {
+        int count = 0;
+        for (long word : defined) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,241 @@
+package com.deloitte.Appointment_Service.index;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.constants.PatientOverlapPolicy;
+import com.deloitte.Appointment_Service.exception.PatientDoubleBookingException;
+import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.deloitte.Appointment_Service.repository.PatientAppointmentView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-patient interval index for double-booking detection. Each patient's
+ * live bookings sit in a set sorted by start time, so an overlap check is one
+ * ceiling lookup instead of a scan of the patient's appointments. Bookings
+ * without a duration are appointment-minutes long. A patient is
+ * loaded from the (patient_id, appointment_date_time) index on first use and
+ * reloaded periodically to pick up bookings made on other replicas.
+ * Cancellations are not pushed here: a conflicting entry is re-checked against
+ * the database before a booking is refused, and dropped if it is no longer live.
+ */
+@Component
+public class PatientAppointmentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientAppointmentIndex.class);
+
+    public static final long NO_RESERVATION = 0;
+
+    private static final List<AppointmentStatus> LIVE_STATUSES =
+            List.of(AppointmentStatus.REQUESTED, AppointmentStatus.CONFIRMED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final Map<Long, PatientBookings> patients = new ConcurrentHashMap<>();
+    // Bookings still in flight are keyed by negative tickets until they have an appointment ID
+    private final AtomicLong tickets = new AtomicLong();
+    private final Counter overlapsDetected;
+
+    @Value("${appointment.patient-overlap.policy:REJECT}")
+    private PatientOverlapPolicy policy;
+
+    @Value("${appointment.patient-overlap.appointment-minutes:30}")
+    private long appointmentMinutes;
+
+    @Value("${appointment.duration.max-minutes:480}")
+    private long maxDurationMinutes;
+
+    @Value("${appointment.patient-overlap.index.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${appointment.patient-overlap.index.max-patients:50000}")
+    private int maxPatients;
+
+    public PatientAppointmentIndex(AppointmentRepository appointmentRepository, MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.overlapsDetected = Counter.builder("appointment.patient.overlaps")
+                .description("Bookings that overlapped another live appointment of the same patient")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the patient's bookings for an overlap with one starting at
+     * {@code start} and, unless the policy rejects it, records the booking as in
+     * flight. Pass the returned ticket to {@link #bind} once the appointment is
+     * saved, or to {@link #cancel} if booking fails.
+     */
+    public long reserve(Long patientId, LocalDateTime start) {
+        return reserve(patientId, start, null);
+    }
+
+    public long reserve(Long patientId, LocalDateTime start, Integer durationMinutes) {
+        if (policy == PatientOverlapPolicy.ALLOW) {
+            return NO_RESERVATION;
+        }
+        long ticket = -tickets.incrementAndGet();
+        while (true) {
+            PatientBookings bookings = patients.computeIfAbsent(patientId, id -> new PatientBookings());
+            evictIfFull(patientId);
+            if (bookings.reserve(patientId, start, end(start, durationMinutes), ticket)) {
+                return ticket;
+            }
+            // Evicted after the lookup; its replacement is loaded from the database
+        }
+    }
+
+    private LocalDateTime end(LocalDateTime start, Integer durationMinutes) {
+        return start.plusMinutes(durationMinutes != null ? durationMinutes : appointmentMinutes);
+    }
+
+    public void bind(Long patientId, long ticket, Long appointmentId) {
+        PatientBookings bookings = patients.get(patientId);
+        if (ticket != NO_RESERVATION && bookings != null) {
+            bookings.bind(ticket, appointmentId);
+        }
+    }
+
+    public void cancel(Long patientId, long ticket) {
+        PatientBookings bookings = patients.get(patientId);
+        if (ticket != NO_RESERVATION && bookings != null) {
+            bookings.remove(ticket);
+        }
+    }
+
+    // Patients with a reservation in flight are kept, or its bind or cancel would land on a dropped entry
+    private void evictIfFull(Long keep) {
+        if (patients.size() <= maxPatients) {
+            return;
+        }
+        Iterator<Long> it = patients.keySet().iterator();
+        while (patients.size() > maxPatients && it.hasNext()) {
+            Long patientId = it.next();
+            if (!patientId.equals(keep)) {
+                patients.computeIfPresent(patientId, (id, bookings) -> bookings.evictIfIdle() ? null : bookings);
+            }
+        }
+    }
+
+    private record Booking(LocalDateTime start, LocalDateTime end, long key) {
+
+        private static final Comparator<Booking> BY_START =
+                Comparator.comparing(Booking::start).thenComparingLong(Booking::key);
+    }
+
+    private final class PatientBookings {
+
+        private final TreeSet<Booking> byStart = new TreeSet<>(Booking.BY_START);
+        private final Map<Long, Booking> byKey = new HashMap<>();
+        private Duration longest = Duration.ZERO; // Only grows until the next load
+        private long loadedAtNanos;
+        private boolean loaded;
+        private boolean evicted;
+
+        // False once the entry has been evicted; the caller retries on a fresh one
+        synchronized boolean reserve(Long patientId, LocalDateTime start, LocalDateTime end, long ticket) {
+            if (evicted) {
+                return false;
+            }
+            if (!loaded || System.nanoTime() - loadedAtNanos > TimeUnit.SECONDS.toNanos(refreshSeconds)) {
+                load(patientId);
+            }
+            Booking overlap = findOverlap(start, end);
+            if (overlap != null) {
+                overlapsDetected.increment();
+                if (policy == PatientOverlapPolicy.REJECT) {
+                    throw new PatientDoubleBookingException("Patient " + patientId +
+                            " already has an appointment overlapping " + start);
+                }
+                log.warn("Patient ID: {} is booking {} over an existing appointment at {}",
+                        patientId, start, overlap.start());
+            }
+            add(new Booking(start, end, ticket));
+            return true;
+        }
+
+        synchronized boolean evictIfIdle() {
+            for (long key : byKey.keySet()) {
+                if (key < 0) {
+                    return false;
+                }
+            }
+            evicted = true;
+            return true;
+        }
+
+        synchronized void bind(long ticket, Long appointmentId) {
+            Booking pending = remove(ticket);
+            if (pending != null) {
+                add(new Booking(pending.start(), pending.end(), appointmentId));
+            }
+        }
+
+        synchronized Booking remove(long key) {
+            Booking booking = byKey.remove(key);
+            if (booking != null) {
+                byStart.remove(booking);
+            }
+            return booking;
+        }
+
+        // No booking is longer than the longest one seen, so an overlap must start strictly within that distance
+        private Booking findOverlap(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime from = start.minus(longest);
+            Booking candidate = byStart.higher(new Booking(from, from, Long.MAX_VALUE));
+            while (candidate != null && candidate.start().isBefore(end)) {
+                if (!candidate.end().isAfter(start)) {
+                    candidate = byStart.higher(candidate);
+                    continue;
+                }
+                // In-flight bookings count; saved ones are confirmed live before they block anything
+                if (candidate.key() < 0
+                        || appointmentRepository.existsByIdAndStatusIn(candidate.key(), LIVE_STATUSES)) {
+                    return candidate;
+                }
+                Booking stale = candidate;
+                candidate = byStart.higher(stale);
+                remove(stale.key());
+            }
+            return null;
+        }
+
+        private void add(Booking booking) {
+            byKey.put(booking.key(), booking);
+            byStart.add(booking);
+            Duration length = Duration.between(booking.start(), booking.end());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        // Keeps in-flight reservations, which the database cannot know about yet
+        private void load(Long patientId) {
+            List<Booking> pending = new ArrayList<>();
+            byKey.values().forEach(booking -> {
+                if (booking.key() < 0) {
+                    pending.add(booking);
+                }
+            });
+            byStart.clear();
+            byKey.clear();
+            longest = Duration.ZERO;
+            pending.forEach(this::add);
+            LocalDateTime after = LocalDateTime.now().minusMinutes(Math.max(appointmentMinutes, maxDurationMinutes));
+            for (PatientAppointmentView view : appointmentRepository.findPatientBookingsAfter(
+                    patientId, after, LIVE_STATUSES)) {
+                add(new Booking(view.getAppointmentDateTime(),
+                        end(view.getAppointmentDateTime(), view.getDurationMinutes()), view.getId()));
+            }
+            loaded = true;
+            loadedAtNanos = System.nanoTime();
+        }
+    }
+}
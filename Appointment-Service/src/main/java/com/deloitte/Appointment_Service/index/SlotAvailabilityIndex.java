@@ -0,0 +1,334 @@
+package com.deloitte.Appointment_Service.index;
+
+import com.deloitte.Appointment_Service.constants.SlotState;
+import com.deloitte.Appointment_Service.dto.TimeSlotResponseDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.repository.ProviderSlotRepository;
+import com.deloitte.Appointment_Service.repository.ProviderSlotView;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory availability index keyed by (providerId, scheduleDate). Each day is
+ * held as a {@link DaySlotBitmap}, so reads are bit scans that come out sorted.
+ * Slots with more than one seat also keep their remaining seats in an
+ * {@link AtomicInteger} mirror of the database counters; every other slot has
+ * one seat, free exactly when its bit is set. Providers are loaded lazily, one
+ * bounded date window at a time, and refreshed periodically to pick up writes
+ * made by other replicas; local writes are applied after their transaction commits.
+ */
+@Component
+public class SlotAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+
+    private final ProviderSlotRepository slotRepository;
+    // Bounded by Caffeine's frequency-aware eviction, so busy providers stay loaded; any entry can be dropped
+    // safely because it is reloaded from the database on its next use
+    private final Map<Long, ProviderDays> providers;
+
+    @Value("${appointment.slot-index.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${appointment.slot-index.horizon-days:31}")
+    private int horizonDays;
+
+    public SlotAvailabilityIndex(ProviderSlotRepository slotRepository,
+                                 @Value("${appointment.slot-index.max-providers:10000}") long maxProviders) {
+        this.slotRepository = slotRepository;
+        this.providers = Caffeine.newBuilder()
+                .maximumSize(maxProviders)
+                .<Long, ProviderDays>build()
+                .asMap();
+    }
+
+    // Available slots in [from, to) with their remaining seats, sorted by slot time
+    public List<TimeSlotResponseDto> getAvailableSlots(Long providerId, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlotResponseDto> availableSlots = new ArrayList<>();
+        Iterator<LocalDateTime> it = availableSlotIterator(providerId, from, to);
+        Map<Long, AtomicInteger> seats = seatsOf(providerId);
+        while (it.hasNext()) {
+            LocalDateTime slotTime = it.next();
+            AtomicInteger remaining = seats.get(
+                    seatKey(slotTime.toLocalDate(), SlotKeys.toMinuteOfDay(slotTime.toLocalTime())));
+            availableSlots.add(new TimeSlotResponseDto(slotTime, true, remaining != null ? remaining.get() : 1));
+        }
+        return availableSlots;
+    }
+
+    // Whether the slot has more than one seat. May load the provider's days, so never call it inside a write transaction
+    public boolean hasSharedSeats(Long providerId, LocalDateTime slotTime) {
+        LocalDate scheduleDate = slotTime.toLocalDate();
+        daysFor(providerId, scheduleDate, scheduleDate.plusDays(1));
+        return seatsOf(providerId).containsKey(seatKey(scheduleDate, SlotKeys.toMinuteOfDay(slotTime.toLocalTime())));
+    }
+
+    // Lazily walks available slots in [from, to) in time order, one bit scan per step
+    public Iterator<LocalDateTime> availableSlotIterator(Long providerId, LocalDateTime from, LocalDateTime to) {
+        LocalDate fromDate = from.toLocalDate();
+        LocalDate lastDate = to.toLocalDate();
+        NavigableMap<LocalDate, DaySlotBitmap> days = daysFor(providerId, fromDate, lastDate.plusDays(1))
+                .subMap(fromDate, true, lastDate, true);
+        return new SlotIterator(days.entrySet().iterator(), fromDate, firstMinute(from.toLocalTime()), to);
+    }
+
+    /**
+     * Lazily walks the start times in [from, to) of every run of consecutive
+     * available slots covering {@code durationMinutes}. Each day is reduced to
+     * its run starts with {@link DaySlotBitmap#runStarts} as the walk reaches it,
+     * so a run never crosses midnight.
+     */
+    public Iterator<LocalDateTime> availableStartIterator(Long providerId, LocalDateTime from, LocalDateTime to,
+                                                          int durationMinutes) {
+        LocalDate fromDate = from.toLocalDate();
+        LocalDate lastDate = to.toLocalDate();
+        NavigableMap<LocalDate, DaySlotBitmap> days = daysFor(providerId, fromDate, lastDate.plusDays(1))
+                .subMap(fromDate, true, lastDate, true);
+        Iterator<Map.Entry<LocalDate, DaySlotBitmap>> runDays = new Iterator<>() {
+            private final Iterator<Map.Entry<LocalDate, DaySlotBitmap>> it = days.entrySet().iterator();
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Map.Entry<LocalDate, DaySlotBitmap> next() {
+                Map.Entry<LocalDate, DaySlotBitmap> day = it.next();
+                DaySlotBitmap bitmap = day.getValue();
+                int slotLength = bitmap.slotLengthMinutes();
+                // A single-slot day has no known slot length; its one slot is taken to cover the duration
+                int slotCount = slotLength > 0 ? (durationMinutes + slotLength - 1) / slotLength : 1;
+                return Map.entry(day.getKey(), bitmap.runStarts(slotCount));
+            }
+        };
+        return new SlotIterator(runDays, fromDate, firstMinute(from.toLocalTime()), to);
+    }
+
+    public void invalidate(Long providerId) {
+        ProviderDays entry = providers.get(providerId);
+        if (entry != null) {
+            entry.invalidate();
+        }
+    }
+
+    // Ordered first so caches built on top of the index reload from already-updated state
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        ProviderDays entry = providers.get(event.providerId());
+        if (entry != null) {
+            entry.apply(event);
+            log.debug("Applied {} slot change(s) to index for provider ID: {} on date: {}",
+                    event.changes().size(), event.providerId(), event.scheduleDate());
+        }
+    }
+
+    // Loads at least horizon-days at a time so consecutive windows are served from one load
+    private NavigableMap<LocalDate, DaySlotBitmap> daysFor(Long providerId, LocalDate fromDate, LocalDate toDate) {
+        ProviderDays entry = providers.computeIfAbsent(providerId, id -> new ProviderDays());
+        NavigableMap<LocalDate, DaySlotBitmap> days = entry.snapshot(
+                fromDate, toDate, TimeUnit.SECONDS.toNanos(refreshSeconds));
+        if (days != null) {
+            return days;
+        }
+
+        LocalDate loadTo = toDate.isAfter(fromDate.plusDays(horizonDays)) ? toDate : fromDate.plusDays(horizonDays);
+        long generation = entry.generation();
+        Map<LocalDate, Map<Integer, Boolean>> slotsByDate = new HashMap<>();
+        ConcurrentHashMap<Long, AtomicInteger> seats = new ConcurrentHashMap<>();
+        for (ProviderSlotView slot : slotRepository.findSlotStates(providerId, fromDate, loadTo)) {
+            slotsByDate.computeIfAbsent(slot.getScheduleDate(), date -> new HashMap<>())
+                    .put((int) slot.getSlotMinute(), slot.getState() == SlotState.AVAILABLE);
+            if (slot.getCapacity() > 1) {
+                seats.put(seatKey(slot.getScheduleDate(), slot.getSlotMinute()),
+                        new AtomicInteger(slot.getCapacity() - slot.getBooked()));
+            }
+        }
+
+        ConcurrentSkipListMap<LocalDate, DaySlotBitmap> loaded = new ConcurrentSkipListMap<>();
+        slotsByDate.forEach((date, slots) -> loaded.put(date, DaySlotBitmap.of(slots)));
+        entry.install(loaded, seats, fromDate, loadTo, generation);
+
+        log.debug("Loaded {} schedule day(s) between {} and {} into index for provider ID: {}",
+                loaded.size(), fromDate, loadTo, providerId);
+        return loaded;
+    }
+
+    private Map<Long, AtomicInteger> seatsOf(Long providerId) {
+        ProviderDays entry = providers.get(providerId);
+        return entry != null ? entry.seats() : Map.of();
+    }
+
+    private static long seatKey(LocalDate scheduleDate, int minuteOfDay) {
+        return scheduleDate.toEpochDay() * DaySlotBitmap.MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    // Slots sit on whole minutes, so a start with seconds rounds up to the next one
+    private static int firstMinute(LocalTime fromTime) {
+        return SlotKeys.toMinuteOfDay(fromTime)
+                + (fromTime.truncatedTo(ChronoUnit.MINUTES).equals(fromTime) ? 0 : 1);
+    }
+
+    private static final class SlotIterator implements Iterator<LocalDateTime> {
+
+        private final Iterator<Map.Entry<LocalDate, DaySlotBitmap>> days;
+        private final LocalDate fromDate;
+        private final int firstMinute;
+        private final LocalDateTime to;
+
+        private LocalDate date;
+        private DaySlotBitmap bitmap;
+        private int minute = -1;
+        private LocalDateTime next;
+
+        private SlotIterator(Iterator<Map.Entry<LocalDate, DaySlotBitmap>> days, LocalDate fromDate,
+                             int firstMinute, LocalDateTime to) {
+            this.days = days;
+            this.fromDate = fromDate;
+            this.firstMinute = firstMinute;
+            this.to = to;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (true) {
+                if (bitmap != null) {
+                    minute = bitmap.nextAvailable(minute + 1);
+                    if (minute >= 0) {
+                        LocalDateTime slot = LocalDateTime.of(date, SlotKeys.toLocalTime(minute));
+                        if (slot.isBefore(to)) {
+                            next = slot;
+                        }
+                        return;
+                    }
+                }
+                if (!days.hasNext()) {
+                    return;
+                }
+                Map.Entry<LocalDate, DaySlotBitmap> day = days.next();
+                date = day.getKey();
+                bitmap = day.getValue();
+                minute = date.equals(fromDate) ? firstMinute - 1 : -1;
+            }
+        }
+    }
+
+    private static final class ProviderDays {
+
+        // Bumped on every applied change so a load racing with a commit is not installed stale
+        private final AtomicLong generation = new AtomicLong();
+
+        // Loaded window is [loadedFrom, loadedTo); days outside it are not indexed
+        private volatile ConcurrentSkipListMap<LocalDate, DaySlotBitmap> days;
+        // Remaining seats of multi-seat slots in the loaded window, keyed by seatKey
+        private volatile ConcurrentHashMap<Long, AtomicInteger> seats = new ConcurrentHashMap<>();
+        private volatile LocalDate loadedFrom;
+        private volatile LocalDate loadedTo;
+        private volatile long loadedAtNanos;
+
+        long generation() {
+            return generation.get();
+        }
+
+        Map<Long, AtomicInteger> seats() {
+            return seats;
+        }
+
+        synchronized NavigableMap<LocalDate, DaySlotBitmap> snapshot(LocalDate fromDate, LocalDate toDate,
+                                                                     long maxAgeNanos) {
+            ConcurrentSkipListMap<LocalDate, DaySlotBitmap> current = days;
+            if (current == null || fromDate.isBefore(loadedFrom) || toDate.isAfter(loadedTo)
+                    || System.nanoTime() - loadedAtNanos > maxAgeNanos) {
+                return null;
+            }
+            return current;
+        }
+
+        synchronized void install(ConcurrentSkipListMap<LocalDate, DaySlotBitmap> loaded,
+                                  ConcurrentHashMap<Long, AtomicInteger> loadedSeats,
+                                  LocalDate fromDate, LocalDate toDate, long expectedGeneration) {
+            if (generation.get() != expectedGeneration) {
+                return;
+            }
+            loadedFrom = fromDate;
+            loadedTo = toDate;
+            loadedAtNanos = System.nanoTime();
+            seats = loadedSeats;
+            days = loaded;
+        }
+
+        synchronized void apply(SlotAvailabilityChangedEvent event) {
+            generation.incrementAndGet();
+            ConcurrentSkipListMap<LocalDate, DaySlotBitmap> current = days;
+            if (current == null || event.scheduleDate().isBefore(loadedFrom)
+                    || !event.scheduleDate().isBefore(loadedTo)) {
+                return;
+            }
+            if (event.scheduleCreated()) {
+                current.put(event.scheduleDate(), DaySlotBitmap.of(event.changes()));
+                applySeats(event);
+                return;
+            }
+            DaySlotBitmap bitmap = current.get(event.scheduleDate());
+            if (bitmap == null) {
+                // Day was published elsewhere; reload instead of indexing a partial day
+                days = null;
+                return;
+            }
+            current.put(event.scheduleDate(), bitmap.with(event.changes()));
+            applySeats(event);
+        }
+
+        // Counts are absolute, so a replayed or reordered event cannot drift the mirror
+        private void applySeats(SlotAvailabilityChangedEvent event) {
+            for (Integer minute : event.changes().keySet()) {
+                long key = seatKey(event.scheduleDate(), minute);
+                Integer remaining = event.seats().get(minute);
+                if (remaining == null) {
+                    seats.remove(key);
+                } else {
+                    seats.computeIfAbsent(key, k -> new AtomicInteger()).set(remaining);
+                }
+            }
+        }
+
+        synchronized void invalidate() {
+            generation.incrementAndGet();
+            days = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.deloitte.Appointment_Service.index;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversions between slot keys stored in the schedule JSON ("09:30:00" or a
+ * full ISO datetime) and minute-of-day offsets.
+ */
+public final class SlotKeys {
+
+    private SlotKeys() {
+    }
+
+    // Slots start on whole minutes, so a key that does not parse or carries seconds is rejected
+    public static int toMinuteOfDay(String slotKey) {
+        if (slotKey == null) {
+            throw new IllegalArgumentException("Slot time is missing");
+        }
+        LocalTime time;
+        try {
+            time = slotKey.contains("T")
+                    ? LocalDateTime.parse(slotKey).toLocalTime()
+                    : LocalTime.parse(slotKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid slot time '" + slotKey + "', expected HH:mm or HH:mm:00");
+        }
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            throw new IllegalArgumentException("Slot time '" + slotKey + "' must start on a whole minute");
+        }
+        return toMinuteOfDay(time);
+    }
+
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public static LocalTime toLocalTime(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    // Canonical key format used by the schedule JSON (HH:mm:ss)
+    public static String toSlotKey(int minuteOfDay) {
+        return String.format("%02d:%02d:00", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    // Every key must parse, and two keys may not name the same minute (e.g. "09:00" and "09:00:00")
+    public static Map<Integer, Boolean> toMinuteMap(Map<String, Boolean> slots) {
+        Map<Integer, Boolean> minutes = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> entry : slots.entrySet()) {
+            int minute = toMinuteOfDay(entry.getKey());
+            if (minutes.put(minute, Boolean.TRUE.equals(entry.getValue())) != null) {
+                throw new IllegalArgumentException("Slot time " + toSlotKey(minute) + " appears more than once");
+            }
+        }
+        return minutes;
+    }
+}
@@ -0,0 +1,167 @@
+package com.deloitte.Appointment_Service.index;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Compact, immutable form of a published provider-day schedule: a sorted
+ * {@code short[]} of minute-of-day offsets plus a bitset whose bit {@code i}
+ * marks {@code minutes[i]} as available. A 48-slot day takes about 160 bytes
+ * on the heap and 105 bytes on disk, instead of a String-keyed HashMap.
+ */
+public final class SlotSchedule {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    // Every minute of a day: 1 version byte + 2 count bytes + 2 bytes per minute + the bitset
+    public static final int MAX_ENCODED_BYTES = 1 + 2 + 2 * DaySlotBitmap.MINUTES_PER_DAY + DaySlotBitmap.MINUTES_PER_DAY / 8;
+
+    private final short[] minutes;
+    private final long[] available;
+
+    private SlotSchedule(short[] minutes, long[] available) {
+        this.minutes = minutes;
+        this.available = available;
+    }
+
+    public static SlotSchedule of(Map<Integer, Boolean> slots) {
+        TreeMap<Integer, Boolean> sorted = new TreeMap<>();
+        slots.forEach((minute, isAvailable) -> {
+            if (minute != null && minute >= 0 && minute < DaySlotBitmap.MINUTES_PER_DAY) {
+                sorted.put(minute, Boolean.TRUE.equals(isAvailable));
+            }
+        });
+
+        short[] minutes = new short[sorted.size()];
+        long[] available = new long[(minutes.length + 63) >>> 6];
+        int i = 0;
+        for (Map.Entry<Integer, Boolean> entry : sorted.entrySet()) {
+            minutes[i] = entry.getKey().shortValue();
+            if (entry.getValue()) {
+                available[i >>> 6] |= 1L << i;
+            }
+            i++;
+        }
+        return new SlotSchedule(minutes, available);
+    }
+
+    public static SlotSchedule fromBytes(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported slot schedule format version: " + version);
+        }
+        short[] minutes = new short[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = buffer.getShort();
+        }
+        long[] available = new long[(minutes.length + 63) >>> 6];
+        for (int i = 0; i < minutes.length; i += 8) {
+            long bits = buffer.get() & 0xFFL;
+            available[i >>> 6] |= bits << (i & 63);
+        }
+        return new SlotSchedule(minutes, available);
+    }
+
+    public byte[] toBytes() {
+        int bitsetBytes = (minutes.length + 7) >>> 3;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + 2 * minutes.length + bitsetBytes);
+        buffer.put(FORMAT_VERSION);
+        buffer.putShort((short) minutes.length);
+        for (short minute : minutes) {
+            buffer.putShort(minute);
+        }
+        for (int i = 0; i < minutes.length; i += 8) {
+            buffer.put((byte) (available[i >>> 6] >>> (i & 63)));
+        }
+        return buffer.array();
+    }
+
+    public int size() {
+        return minutes.length;
+    }
+
+    public int availableCount() {
+        int count = 0;
+        for (long word : available) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int minuteAt(int index) {
+        return minutes[index];
+    }
+
+    public boolean isAvailableAt(int index) {
+        return (available[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Smallest gap between consecutive slots, or -1 when the day has fewer than two
+    public int slotLengthMinutes() {
+        int length = -1;
+        for (int i = 1; i < minutes.length; i++) {
+            int gap = minutes[i] - minutes[i - 1];
+            if (length < 0 || gap < length) {
+                length = gap;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Minutes of the consecutive slots covering {@code durationMinutes} from
+     * {@code startMinute}, or {@code null} when any of them is not published.
+     * Availability is left to the caller's conditional updates; a day with a
+     * single slot has no known slot length, so that slot alone is its run.
+     */
+    public int[] runFrom(int startMinute, int durationMinutes) {
+        int length = slotLengthMinutes();
+        if (length < 0) {
+            return minutes.length == 1 && minutes[0] == startMinute ? new int[] {startMinute} : null;
+        }
+        int[] run = new int[Math.max(1, (durationMinutes + length - 1) / length)];
+        for (int k = 0; k < run.length; k++) {
+            run[k] = startMinute + k * length;
+            if (run[k] >= DaySlotBitmap.MINUTES_PER_DAY
+                    || Arrays.binarySearch(minutes, (short) run[k]) < 0) {
+                return null;
+            }
+        }
+        return run;
+    }
+
+    // Sorted minute -> availability view, keyed the same way as the index and slot events
+    public Map<Integer, Boolean> toMinuteMap() {
+        Map<Integer, Boolean> slots = new LinkedHashMap<>();
+        for (int i = 0; i < minutes.length; i++) {
+            slots.put((int) minutes[i], isAvailableAt(i));
+        }
+        return slots;
+    }
+
+    // API view in the original "HH:mm:ss" -> availability shape, sorted by time
+    public Map<String, Boolean> toSlotKeyMap() {
+        Map<String, Boolean> slots = new LinkedHashMap<>();
+        for (int i = 0; i < minutes.length; i++) {
+            slots.put(SlotKeys.toSlotKey(minutes[i]), isAvailableAt(i));
+        }
+        return slots;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SlotSchedule that)) {
+            return false;
+        }
+        return Arrays.equals(minutes, that.minutes) && Arrays.equals(available, that.available);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(minutes) + Arrays.hashCode(available);
+    }
+}
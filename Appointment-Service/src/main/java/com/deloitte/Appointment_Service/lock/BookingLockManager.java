@@ -0,0 +1,115 @@
+package com.deloitte.Appointment_Service.lock;
+
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by (providerId, date). Booking storms on one
+ * provider day queue here instead of on the database, and requests that cannot
+ * get the lock in time, or that target a single-seat slot already being
+ * booked, are rejected with {@link SlotNotAvailableException} before any
+ * transaction opens.
+ */
+@Component
+public class BookingLockManager {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLockManager.class);
+
+    private final ReentrantLock[] stripes;
+    private final long maxWaitMillis;
+    private final Set<SlotKey> slotsInFlight = ConcurrentHashMap.newKeySet();
+
+    private final Timer lockWaitTimer;
+    private final Counter timeoutRejections;
+    private final Counter inFlightRejections;
+
+    public BookingLockManager(@Value("${appointment.booking-lock.stripes:256}") int stripeCount,
+                              @Value("${appointment.booking-lock.max-wait-millis:200}") long maxWaitMillis,
+                              MeterRegistry meterRegistry) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.maxWaitMillis = maxWaitMillis;
+        this.lockWaitTimer = Timer.builder("appointment.booking.lock.wait")
+                .description("Time spent waiting for a provider-day booking lock")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("appointment.booking.lock.rejected")
+                .description("Booking requests rejected before opening a transaction")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        this.inFlightRejections = Counter.builder("appointment.booking.lock.rejected")
+                .description("Booking requests rejected before opening a transaction")
+                .tag("reason", "in_flight")
+                .register(meterRegistry);
+    }
+
+    // Single-flight per slot: a second booking for a slot that is already being booked fails immediately.
+    // Slots with shared seats take concurrent bookings, so those only queue on the provider-day lock
+    public <T> T withSlotLock(Long providerId, LocalDateTime slotTime, boolean sharedSeats, Supplier<T> action) {
+        if (sharedSeats) {
+            return withLock(providerId, slotTime.toLocalDate(), action);
+        }
+        SlotKey slotKey = new SlotKey(providerId, slotTime);
+        if (!slotsInFlight.add(slotKey)) {
+            inFlightRejections.increment();
+            log.debug("Rejecting booking for provider ID: {} at: {}, slot already in flight", providerId, slotTime);
+            throw new SlotNotAvailableException(
+                    "Time slot is not available for booking for time slot: " + slotTime);
+        }
+        try {
+            return withLock(providerId, slotTime.toLocalDate(), action);
+        } finally {
+            slotsInFlight.remove(slotKey);
+        }
+    }
+
+    public <T> T withLock(Long providerId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(providerId, date);
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            timeoutRejections.increment();
+            log.warn("Timed out waiting for booking lock of provider ID: {} on date: {}", providerId, date);
+            throw new SlotNotAvailableException(
+                    "Provider " + providerId + " is busy processing bookings for " + date + ", please retry");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long providerId, LocalDate date) {
+        int hash = 31 * providerId.hashCode() + date.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private record SlotKey(Long providerId, LocalDateTime slotTime) {
+    }
+}
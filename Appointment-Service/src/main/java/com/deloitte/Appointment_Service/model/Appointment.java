@@ -15,7 +15,11 @@ import java.time.LocalDateTime;
            @Index(name = "idx_patient_id", columnList = "patient_id"),
            @Index(name = "idx_provider_id", columnList = "provider_id"),
            @Index(name = "idx_appointment_date_time", columnList = "appointment_date_time"),
-           @Index(name = "idx_status", columnList = "status")
+           @Index(name = "idx_status", columnList = "status"),
+           @Index(name = "idx_patient_date_id", columnList = "patient_id, appointment_date_time, id"),
+           @Index(name = "idx_provider_date_id", columnList = "provider_id, appointment_date_time, id"),
+           @Index(name = "idx_status_date", columnList = "status, appointment_date_time"),
+           @Index(name = "idx_status_created_at", columnList = "status, created_at")
        })
 @Data
 @NoArgsConstructor
@@ -40,6 +44,9 @@ public class Appointment {
     @Column(name = "appointment_date_time", nullable = false)
     private LocalDateTime appointmentDateTime;
 
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes; // Null for a single-slot appointment
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,49 @@
+package com.deloitte.Appointment_Service.model;
+
+import com.deloitte.Appointment_Service.constants.SlotState;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "provider_slot",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_provider_slot", columnNames = {"provider_id", "schedule_date", "slot_minute"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "schedule_date", nullable = false)
+    private LocalDate scheduleDate;
+
+    @Column(name = "slot_minute", nullable = false)
+    private Short slotMinute; // Minutes since midnight
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 16)
+    private SlotState state; // Follows the counters unless the provider closed the slot
+
+    @Column(name = "capacity", nullable = false)
+    private Integer capacity; // Seats; above 1 for group sessions or controlled overbooking
+
+    @Column(name = "booked", nullable = false)
+    private Integer booked; // Seats taken by bookings and holds
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
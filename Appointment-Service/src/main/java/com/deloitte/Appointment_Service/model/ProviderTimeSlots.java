@@ -1,19 +1,20 @@
 package com.deloitte.Appointment_Service.model;
 
 import jakarta.persistence.*;
+import com.deloitte.Appointment_Service.index.SlotSchedule;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Entity
-@Table(name = "provider_time_slots")
+@Table(name = "provider_time_slots",
+       indexes = {
+           @Index(name = "uk_provider_time_slots_provider_date", columnList = "provider_id, schedule_date", unique = true)
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,9 +31,16 @@ public class ProviderTimeSlots {
     @Column(name = "schedule_date", nullable = false)
     private LocalDate scheduleDate;
 
-    @Column(name = "slots", columnDefinition = "JSON", nullable = false)
-    @JdbcTypeCode(SqlTypes.JSON)
-    private Map<String, Boolean> slots; // Key: slot time (ISO format), Value: availability
+    @Column(name = "slot_data", columnDefinition = "VARBINARY(3072)", nullable = false)
+    @Convert(converter = SlotScheduleConverter.class)
+    private SlotSchedule slots; // Published schedule; live availability is kept in provider_slot
+
+    // Maintained in the same transaction as every provider_slot state change, for calendar views
+    @Column(name = "open_slots", nullable = false)
+    private Integer openSlots;
+
+    @Column(name = "total_slots", nullable = false)
+    private Integer totalSlots;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,62 @@
+package com.deloitte.Appointment_Service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "slot_hold",
+       indexes = {
+           @Index(name = "idx_slot_hold_expires_at", columnList = "expires_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotHold implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id; // Random UUID handed to the client
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "slot_time", nullable = false)
+    private LocalDateTime slotTime;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // IDs are assigned by the application, so tell save() to INSERT instead of merging with a SELECT first
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    public void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.deloitte.Appointment_Service.model;
+
+import com.deloitte.Appointment_Service.index.SlotSchedule;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class SlotScheduleConverter implements AttributeConverter<SlotSchedule, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(SlotSchedule schedule) {
+        return schedule == null ? null : schedule.toBytes();
+    }
+
+    @Override
+    public SlotSchedule convertToEntityAttribute(byte[] encoded) {
+        return encoded == null ? null : SlotSchedule.fromBytes(encoded);
+    }
+}
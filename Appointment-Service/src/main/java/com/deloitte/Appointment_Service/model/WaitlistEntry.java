@@ -0,0 +1,78 @@
+package com.deloitte.Appointment_Service.model;
+
+import com.deloitte.Appointment_Service.constants.WaitlistStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entry",
+       indexes = {
+           @Index(name = "idx_waitlist_provider_status_end", columnList = "provider_id, status, window_end"),
+           @Index(name = "idx_waitlist_patient_id", columnList = "patient_id, id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    // Any slot starting in [windowStart, windowEnd) is acceptable to the patient
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    // Higher goes first; ties are broken by enqueue time
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private WaitlistStatus status;
+
+    @Column(name = "hold_id", length = 36)
+    private String holdId;
+
+    @Column(name = "offered_slot_time")
+    private LocalDateTime offeredSlotTime;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.status == null) {
+            this.status = WaitlistStatus.WAITING;
+        }
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,193 @@
+package com.deloitte.Appointment_Service.reaper;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.deloitte.Appointment_Service.repository.SlotHoldRepository;
+import com.deloitte.Appointment_Service.service.ProviderScheduleService;
+import com.deloitte.Appointment_Service.service.SlotHoldService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Background reaper that rejects REQUESTED appointments nobody confirmed in
+ * time (releasing their slots), completes CONFIRMED appointments that are over,
+ * and expires slot holds whose replica never got to them. Every batch is claimed
+ * with FOR UPDATE SKIP LOCKED inside its own short transaction, so any number of
+ * replicas can run it at once and each row is processed by exactly one of them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "appointment.reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReaper.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final SlotHoldRepository slotHoldRepository;
+    private final ProviderScheduleService scheduleService;
+    private final SlotHoldService slotHoldService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter rejectedRequests;
+    private final Counter completedAppointments;
+    private final Counter expiredHolds;
+    private final Timer batchTimer;
+    private final AtomicLong requestedBacklog = new AtomicLong();
+    private final AtomicLong confirmedBacklog = new AtomicLong();
+    private final AtomicLong holdBacklog = new AtomicLong();
+
+    @Value("${appointment.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${appointment.reaper.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${appointment.reaper.requested-ttl-hours:48}")
+    private long requestedTtlHours;
+
+    @Value("${appointment.reaper.complete-after-minutes:60}")
+    private long completeAfterMinutes;
+
+    @Value("${appointment.reaper.hold-grace-seconds:60}")
+    private long holdGraceSeconds;
+
+    public AppointmentReaper(AppointmentRepository appointmentRepository,
+                             SlotHoldRepository slotHoldRepository,
+                             ProviderScheduleService scheduleService,
+                             SlotHoldService slotHoldService,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotHoldRepository = slotHoldRepository;
+        this.scheduleService = scheduleService;
+        this.slotHoldService = slotHoldService;
+        this.transactionTemplate = transactionTemplate;
+
+        this.rejectedRequests = processedCounter(meterRegistry, "rejected_requested");
+        this.completedAppointments = processedCounter(meterRegistry, "completed_confirmed");
+        this.expiredHolds = processedCounter(meterRegistry, "expired_hold");
+        this.batchTimer = Timer.builder("appointment.reaper.batch")
+                .description("Time to claim and process one reaper batch")
+                .register(meterRegistry);
+        backlogGauge(meterRegistry, "requested", requestedBacklog);
+        backlogGauge(meterRegistry, "confirmed", confirmedBacklog);
+        backlogGauge(meterRegistry, "hold", holdBacklog);
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.reaper.interval-millis:30000}",
+               initialDelayString = "${appointment.reaper.initial-delay-millis:30000}")
+    public void reap() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleRequestCutoff = now.minusHours(requestedTtlHours);
+        LocalDateTime completedCutoff = now.minusMinutes(completeAfterMinutes);
+        LocalDateTime holdCutoff = now.minusSeconds(holdGraceSeconds);
+
+        // Unconfirmed requests expire when their slot time has passed or they have waited too long
+        drain(() -> rejectRequested(appointmentRepository.claimByAppointmentTimeBefore(
+                AppointmentStatus.REQUESTED, now, batchSize)));
+        drain(() -> rejectRequested(appointmentRepository.claimByCreatedAtBefore(
+                AppointmentStatus.REQUESTED, staleRequestCutoff, batchSize)));
+        drain(() -> completeConfirmed(appointmentRepository.claimByAppointmentTimeBefore(
+                AppointmentStatus.CONFIRMED, completedCutoff, batchSize)));
+        // Holds normally expire on their replica's timer wheel; the grace period keeps the reaper out of its way
+        drain(() -> expireHolds(slotHoldRepository.claimExpired(holdCutoff, batchSize)));
+
+        requestedBacklog.set(appointmentRepository.countOverdue(AppointmentStatus.REQUESTED, now, staleRequestCutoff));
+        confirmedBacklog.set(appointmentRepository.countByStatusAndAppointmentDateTimeBefore(
+                AppointmentStatus.CONFIRMED, completedCutoff));
+        holdBacklog.set(slotHoldRepository.countByExpiresAtBefore(holdCutoff));
+    }
+
+    // Each batch is its own transaction, so row locks are held briefly; stops on a short batch or the per-run cap
+    private void drain(Supplier<Integer> batch) {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer claimed;
+            try {
+                claimed = batchTimer.record(() -> transactionTemplate.execute(status -> batch.get()));
+            } catch (RuntimeException e) {
+                log.error("Reaper batch failed, retrying on the next run", e);
+                return;
+            }
+            if (claimed == null || claimed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int rejectRequested(List<AppointmentResponseDto> claimed) {
+        List<Long> ids = new ArrayList<>(claimed.size());
+        claimed.forEach(appointment -> ids.add(appointment.id()));
+        int[] updated = appointmentRepository.batchTransition(
+                ids, List.of(AppointmentStatus.REQUESTED), AppointmentStatus.REJECTED);
+
+        Map<Long, List<LocalDateTime>> slotsByProvider = new HashMap<>();
+        int rejected = 0;
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                AppointmentResponseDto appointment = claimed.get(i);
+                slotsByProvider.computeIfAbsent(appointment.providerId(), id -> new ArrayList<>())
+                        .addAll(scheduleService.bookedSlots(appointment.providerId(),
+                                appointment.appointmentDateTime(), appointment.durationMinutes()));
+                rejected++;
+            }
+        }
+        slotsByProvider.forEach(scheduleService::releaseSlots);
+
+        if (rejected > 0) {
+            rejectedRequests.increment(rejected);
+            log.info("Reaper rejected {} overdue REQUESTED appointment(s)", rejected);
+        }
+        return claimed.size();
+    }
+
+    private int completeConfirmed(List<AppointmentResponseDto> claimed) {
+        List<Long> ids = new ArrayList<>(claimed.size());
+        claimed.forEach(appointment -> ids.add(appointment.id()));
+        int completed = Arrays.stream(appointmentRepository.batchTransition(
+                ids, List.of(AppointmentStatus.CONFIRMED), AppointmentStatus.COMPLETED)).sum();
+
+        if (completed > 0) {
+            completedAppointments.increment(completed);
+            log.info("Reaper completed {} past CONFIRMED appointment(s)", completed);
+        }
+        return claimed.size();
+    }
+
+    // Joins the claiming transaction, so the SKIP LOCKED row locks cover the expiry as well
+    private int expireHolds(List<String> claimed) {
+        int expired = claimed.isEmpty() ? 0 : slotHoldService.expireHolds(claimed);
+        if (expired > 0) {
+            expiredHolds.increment(expired);
+            log.info("Reaper expired {} slot hold(s)", expired);
+        }
+        return claimed.size();
+    }
+
+    private static Counter processedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("appointment.reaper.processed")
+                .description("Rows moved by the background reaper")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void backlogGauge(MeterRegistry meterRegistry, String kind, AtomicLong backlog) {
+        Gauge.builder("appointment.reaper.backlog", backlog, AtomicLong::get)
+                .description("Overdue rows still waiting for the reaper after its last run")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
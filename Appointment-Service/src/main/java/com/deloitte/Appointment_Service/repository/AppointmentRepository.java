@@ -1,21 +1,92 @@
 package com.deloitte.Appointment_Service.repository;
 
 import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
 import com.deloitte.Appointment_Service.model.Appointment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
-    
-    List<Appointment> findByPatientId(Long patientId);
-    
-    List<Appointment> findByProviderId(Long providerId);
-    
-    List<Appointment> findByProviderIdAndStatus(Long providerId, AppointmentStatus status);
-    
-    List<Appointment> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
-}
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
+
+    // Read paths project straight into the response DTO, skipping entity hydration and dirty-tracking snapshots
+    String RESPONSE_PROJECTION = "new com.deloitte.Appointment_Service.dto.AppointmentResponseDto(" +
+            "a.id, a.patientId, a.providerId, a.status, a.appointmentDateTime, a.durationMinutes, a.createdAt)";
+
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Appointment a WHERE a.id = :id")
+    Optional<AppointmentResponseDto> findResponseById(@Param("id") Long id);
+
+    // Keyset pages ordered by (appointment_date_time, id); served by idx_patient_date_id / idx_provider_date_id
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Appointment a WHERE a.patientId = :patientId " +
+           "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "AND (a.appointmentDateTime > :afterTime OR (a.appointmentDateTime = :afterTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDateTime ASC, a.id ASC")
+    List<AppointmentResponseDto> findPatientPage(@Param("patientId") Long patientId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("status") AppointmentStatus status,
+                                      @Param("afterTime") LocalDateTime afterTime,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Appointment a WHERE a.providerId = :providerId " +
+           "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "AND (a.appointmentDateTime > :afterTime OR (a.appointmentDateTime = :afterTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDateTime ASC, a.id ASC")
+    List<AppointmentResponseDto> findProviderPage(@Param("providerId") Long providerId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("status") AppointmentStatus status,
+                                       @Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // Loads a patient's live bookings for the overlap index; a range scan on idx_patient_date_id
+    @Query("SELECT a.id AS id, a.appointmentDateTime AS appointmentDateTime, " +
+           "a.durationMinutes AS durationMinutes FROM Appointment a " +
+           "WHERE a.patientId = :patientId AND a.appointmentDateTime > :after AND a.status IN :statuses")
+    List<PatientAppointmentView> findPatientBookingsAfter(@Param("patientId") Long patientId,
+                                                          @Param("after") LocalDateTime after,
+                                                          @Param("statuses") Collection<AppointmentStatus> statuses);
 
+    boolean existsByIdAndStatusIn(Long id, Collection<AppointmentStatus> statuses);
+
+    // Conditional state transitions: zero affected rows means missing, not owned or not in an allowed state
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.providerId = :providerId AND a.status IN :fromStatuses")
+    int transitionAsProvider(@Param("id") Long id,
+                             @Param("providerId") Long providerId,
+                             @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                             @Param("newStatus") AppointmentStatus newStatus,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.patientId = :patientId AND a.status IN :fromStatuses")
+    int transitionAsPatient(@Param("id") Long id,
+                            @Param("patientId") Long patientId,
+                            @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                            @Param("newStatus") AppointmentStatus newStatus,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Reaper backlog: rows a run would still pick up
+    long countByStatusAndAppointmentDateTimeBefore(AppointmentStatus status, LocalDateTime cutoff);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status = :status " +
+           "AND (a.appointmentDateTime < :appointmentCutoff OR a.createdAt < :createdCutoff)")
+    long countOverdue(@Param("status") AppointmentStatus status,
+                      @Param("appointmentCutoff") LocalDateTime appointmentCutoff,
+                      @Param("createdCutoff") LocalDateTime createdCutoff);
+}
@@ -0,0 +1,33 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface AppointmentRepositoryCustom {
+
+    // JDBC-batched variant of transitionAsProvider; counts are aligned with appointmentIds
+    int[] batchTransitionAsProvider(Long providerId, List<Long> appointmentIds,
+                                    Collection<AppointmentStatus> fromStatuses, AppointmentStatus newStatus);
+
+    // Same as batchTransitionAsProvider without the ownership check, for background transitions
+    int[] batchTransition(List<Long> appointmentIds, Collection<AppointmentStatus> fromStatuses,
+                          AppointmentStatus newStatus);
+
+    // One JDBC batch for many appointments of the same patient and provider; returns IDs aligned with appointmentTimes
+    List<Long> insertAppointments(Long patientId, Long providerId, List<LocalDateTime> appointmentTimes,
+                                  AppointmentStatus status);
+
+    // Reaper claims: locks up to limit matching rows with FOR UPDATE SKIP LOCKED, so concurrent
+    // replicas each get a disjoint batch; call inside the transaction that transitions them
+    List<AppointmentResponseDto> claimByAppointmentTimeBefore(AppointmentStatus status, LocalDateTime cutoff, int limit);
+
+    List<AppointmentResponseDto> claimByCreatedAtBefore(AppointmentStatus status, LocalDateTime cutoff, int limit);
+
+    // Streams every appointment of a provider in (appointment_date_time, id) order without buffering the result set
+    void streamProviderAppointments(Long providerId, Consumer<AppointmentResponseDto> consumer);
+}
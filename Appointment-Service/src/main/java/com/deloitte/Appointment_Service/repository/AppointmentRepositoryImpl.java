@@ -0,0 +1,160 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+    private static final String STREAM_PROVIDER_SQL =
+            "SELECT id, patient_id, provider_id, status, appointment_date_time, duration_minutes, created_at " +
+            "FROM appointments WHERE provider_id = ? ORDER BY appointment_date_time, id";
+
+    private static final String INSERT_APPOINTMENT_SQL =
+            "INSERT INTO appointments (patient_id, provider_id, status, appointment_date_time, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_BY_APPOINTMENT_TIME_SQL =
+            "SELECT id, patient_id, provider_id, status, appointment_date_time, duration_minutes, created_at " +
+            "FROM appointments WHERE status = ? AND appointment_date_time < ? " +
+            "ORDER BY appointment_date_time LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_BY_CREATED_AT_SQL =
+            "SELECT id, patient_id, provider_id, status, appointment_date_time, duration_minutes, created_at " +
+            "FROM appointments WHERE status = ? AND created_at < ? " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final RowMapper<AppointmentResponseDto> RESPONSE_ROW_MAPPER = (rs, rowNum) -> new AppointmentResponseDto(
+            rs.getLong("id"),
+            rs.getLong("patient_id"),
+            rs.getLong("provider_id"),
+            AppointmentStatus.valueOf(rs.getString("status")),
+            rs.getTimestamp("appointment_date_time").toLocalDateTime(),
+            rs.getObject("duration_minutes", Integer.class),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] batchTransitionAsProvider(Long providerId, List<Long> appointmentIds,
+                                           Collection<AppointmentStatus> fromStatuses, AppointmentStatus newStatus) {
+        if (appointmentIds.isEmpty()) {
+            return new int[0];
+        }
+        String sql = "UPDATE appointments SET status = ?, updated_at = ? " +
+                     "WHERE id = ? AND provider_id = ? AND status IN (" +
+                     String.join(", ", Collections.nCopies(fromStatuses.size(), "?")) + ")";
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(appointmentIds.size());
+        for (Long appointmentId : appointmentIds) {
+            List<Object> args = new ArrayList<>(4 + fromStatuses.size());
+            args.add(newStatus.name());
+            args.add(now);
+            args.add(appointmentId);
+            args.add(providerId);
+            fromStatuses.forEach(status -> args.add(status.name()));
+            rows.add(args.toArray());
+        }
+        return jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    @Override
+    public int[] batchTransition(List<Long> appointmentIds, Collection<AppointmentStatus> fromStatuses,
+                                 AppointmentStatus newStatus) {
+        if (appointmentIds.isEmpty()) {
+            return new int[0];
+        }
+        String sql = "UPDATE appointments SET status = ?, updated_at = ? " +
+                     "WHERE id = ? AND status IN (" +
+                     String.join(", ", Collections.nCopies(fromStatuses.size(), "?")) + ")";
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(appointmentIds.size());
+        for (Long appointmentId : appointmentIds) {
+            List<Object> args = new ArrayList<>(3 + fromStatuses.size());
+            args.add(newStatus.name());
+            args.add(now);
+            args.add(appointmentId);
+            fromStatuses.forEach(status -> args.add(status.name()));
+            rows.add(args.toArray());
+        }
+        return jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    @Override
+    public List<Long> insertAppointments(Long patientId, Long providerId, List<LocalDateTime> appointmentTimes,
+                                         AppointmentStatus status) {
+        if (appointmentTimes.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    INSERT_APPOINTMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (LocalDateTime appointmentTime : appointmentTimes) {
+                    ps.setLong(1, patientId);
+                    ps.setLong(2, providerId);
+                    ps.setString(3, status.name());
+                    ps.setTimestamp(4, Timestamp.valueOf(appointmentTime));
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                // Connector/J returns the keys of a batched insert in statement order
+                List<Long> ids = new ArrayList<>(appointmentTimes.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    @Override
+    public List<AppointmentResponseDto> claimByAppointmentTimeBefore(AppointmentStatus status, LocalDateTime cutoff,
+                                                                     int limit) {
+        return jdbcTemplate.query(CLAIM_BY_APPOINTMENT_TIME_SQL, RESPONSE_ROW_MAPPER,
+                status.name(), Timestamp.valueOf(cutoff), limit);
+    }
+
+    @Override
+    public List<AppointmentResponseDto> claimByCreatedAtBefore(AppointmentStatus status, LocalDateTime cutoff,
+                                                               int limit) {
+        return jdbcTemplate.query(CLAIM_BY_CREATED_AT_SQL, RESPONSE_ROW_MAPPER,
+                status.name(), Timestamp.valueOf(cutoff), limit);
+    }
+
+    @Override
+    public void streamProviderAppointments(Long providerId, Consumer<AppointmentResponseDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    STREAM_PROVIDER_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J only streams row by row with this fetch size; otherwise it buffers the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, providerId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(RESPONSE_ROW_MAPPER.mapRow(rs, 0)));
+    }
+}
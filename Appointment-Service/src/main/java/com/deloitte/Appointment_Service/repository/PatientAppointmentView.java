@@ -0,0 +1,12 @@
+package com.deloitte.Appointment_Service.repository;
+
+import java.time.LocalDateTime;
+
+public interface PatientAppointmentView {
+
+    Long getId();
+
+    LocalDateTime getAppointmentDateTime();
+
+    Integer getDurationMinutes();
+}
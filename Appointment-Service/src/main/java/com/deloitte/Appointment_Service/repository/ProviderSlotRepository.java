@@ -0,0 +1,72 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.model.ProviderSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProviderSlotRepository extends JpaRepository<ProviderSlot, Long>, ProviderSlotRepositoryCustom {
+
+    boolean existsByProviderIdAndScheduleDateAndSlotMinute(Long providerId, LocalDate scheduleDate, Short slotMinute);
+
+    // Seats left on a bookable slot; empty when the slot does not exist, is full or is closed
+    @Query("SELECT s.capacity - s.booked FROM ProviderSlot s WHERE s.providerId = :providerId " +
+           "AND s.scheduleDate = :scheduleDate AND s.slotMinute = :slotMinute " +
+           "AND s.state = com.deloitte.Appointment_Service.constants.SlotState.AVAILABLE")
+    Optional<Integer> findRemainingSeats(@Param("providerId") Long providerId,
+                                         @Param("scheduleDate") LocalDate scheduleDate,
+                                         @Param("slotMinute") Short slotMinute);
+
+    @Query("SELECT s.scheduleDate AS scheduleDate, s.slotMinute AS slotMinute, s.state AS state, " +
+           "s.capacity AS capacity, s.booked AS booked " +
+           "FROM ProviderSlot s WHERE s.providerId = :providerId " +
+           "AND s.scheduleDate >= :fromDate AND s.scheduleDate < :toDate")
+    List<ProviderSlotView> findSlotStates(@Param("providerId") Long providerId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate);
+
+    // Point lookups for a set of slots, e.g. every occurrence of a series, in one query
+    @Query("SELECT s.scheduleDate AS scheduleDate, s.slotMinute AS slotMinute, s.state AS state, " +
+           "s.capacity AS capacity, s.booked AS booked " +
+           "FROM ProviderSlot s WHERE s.providerId = :providerId " +
+           "AND s.scheduleDate IN :dates AND s.slotMinute IN :minutes")
+    List<ProviderSlotView> findSlotStatesAt(@Param("providerId") Long providerId,
+                                            @Param("dates") Collection<LocalDate> dates,
+                                            @Param("minutes") Collection<Short> minutes);
+
+    @Query("SELECT MAX(s.scheduleDate) FROM ProviderSlot s WHERE s.providerId = :providerId")
+    LocalDate findLastScheduleDate(@Param("providerId") Long providerId);
+
+    // Atomic booking: takes a seat only if one is left on an open slot, reported through the affected-row count.
+    // state is assigned before booked, so it is computed from the pre-update count
+    @Modifying
+    @Query(value = "UPDATE provider_slot " +
+                   "SET state = CASE WHEN booked + 1 < capacity THEN 'AVAILABLE' ELSE 'BOOKED' END, " +
+                   "booked = booked + 1, version = version + 1 " +
+                   "WHERE provider_id = :providerId AND schedule_date = :scheduleDate " +
+                   "AND slot_minute = :slotMinute AND booked < capacity AND state <> 'CLOSED'",
+           nativeQuery = true)
+    int reserveSlot(@Param("providerId") Long providerId,
+                    @Param("scheduleDate") LocalDate scheduleDate,
+                    @Param("slotMinute") int slotMinute);
+
+    // Gives back one seat, whether a booking or a hold held it; a closed slot stays closed
+    @Modifying
+    @Query(value = "UPDATE provider_slot " +
+                   "SET state = CASE WHEN state = 'CLOSED' THEN 'CLOSED' ELSE 'AVAILABLE' END, " +
+                   "booked = booked - 1, version = version + 1 " +
+                   "WHERE provider_id = :providerId AND schedule_date = :scheduleDate " +
+                   "AND slot_minute = :slotMinute AND booked > 0",
+           nativeQuery = true)
+    int releaseSlot(@Param("providerId") Long providerId,
+                    @Param("scheduleDate") LocalDate scheduleDate,
+                    @Param("slotMinute") int slotMinute);
+}
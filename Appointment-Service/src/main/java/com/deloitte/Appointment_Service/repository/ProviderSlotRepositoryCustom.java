@@ -0,0 +1,33 @@
+package com.deloitte.Appointment_Service.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface ProviderSlotRepositoryCustom {
+
+    // Every slot gets capacity free seats; unavailable slots are published closed
+    void insertSlots(Long providerId, LocalDate scheduleDate, Map<Integer, Boolean> slots, int capacity);
+
+    // Same slots on every date, sent as a single JDBC batch
+    void insertSlots(Long providerId, List<LocalDate> scheduleDates, Map<Integer, Boolean> slots, int capacity);
+
+    // Adds slots to an existing day; slots that already exist keep their state, so retries are harmless
+    void mergeSlots(Long providerId, LocalDate scheduleDate, Map<Integer, Boolean> slots, int capacity);
+
+    // JDBC-batched releaseSlot; counts are aligned with slotTimes
+    int[] releaseSlots(Long providerId, List<LocalDateTime> slotTimes);
+
+    // JDBC-batched reserveSlot; counts are aligned with slotTimes
+    int[] reserveSlots(Long providerId, List<LocalDateTime> slotTimes);
+
+    // Closes slots that are not closed yet; booked seats stay booked. Counts are aligned with slotTimes
+    int[] closeSlots(Long providerId, List<LocalDateTime> slotTimes);
+
+    // Reopens closed slots only, so a full or booked slot is never freed. Counts are aligned with slotTimes
+    int[] openSlots(Long providerId, List<LocalDateTime> slotTimes);
+
+    // Deletes slots with no seat taken; a zero count means the slot is booked or missing
+    int[] deleteAvailableSlots(Long providerId, List<LocalDateTime> slotTimes);
+}
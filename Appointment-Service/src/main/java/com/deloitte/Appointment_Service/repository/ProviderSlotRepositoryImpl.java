@@ -0,0 +1,126 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.constants.SlotState;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ProviderSlotRepositoryImpl implements ProviderSlotRepositoryCustom {
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO provider_slot (provider_id, schedule_date, slot_minute, state, capacity, booked, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String MERGE_SLOT_SQL = INSERT_SLOT_SQL + " ON DUPLICATE KEY UPDATE state = state";
+
+    private static final String RELEASE_SLOT_SQL =
+            "UPDATE provider_slot " +
+            "SET state = CASE WHEN state = 'CLOSED' THEN 'CLOSED' ELSE 'AVAILABLE' END, " +
+            "booked = booked - 1, version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? AND booked > 0";
+
+    private static final String RESERVE_SLOT_SQL =
+            "UPDATE provider_slot " +
+            "SET state = CASE WHEN booked + 1 < capacity THEN 'AVAILABLE' ELSE 'BOOKED' END, " +
+            "booked = booked + 1, version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? " +
+            "AND booked < capacity AND state <> 'CLOSED'";
+
+    private static final String CLOSE_SLOT_SQL =
+            "UPDATE provider_slot SET state = 'CLOSED', version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? AND state <> 'CLOSED'";
+
+    private static final String OPEN_SLOT_SQL =
+            "UPDATE provider_slot " +
+            "SET state = CASE WHEN booked < capacity THEN 'AVAILABLE' ELSE 'BOOKED' END, version = version + 1 " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? AND state = 'CLOSED'";
+
+    private static final String DELETE_AVAILABLE_SLOT_SQL =
+            "DELETE FROM provider_slot " +
+            "WHERE provider_id = ? AND schedule_date = ? AND slot_minute = ? AND booked = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProviderSlotRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertSlots(Long providerId, LocalDate scheduleDate, Map<Integer, Boolean> slots, int capacity) {
+        insertSlots(providerId, List.of(scheduleDate), slots, capacity);
+    }
+
+    @Override
+    public void insertSlots(Long providerId, List<LocalDate> scheduleDates, Map<Integer, Boolean> slots,
+                            int capacity) {
+        if (scheduleDates.isEmpty() || slots.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, toRows(providerId, scheduleDates, slots, capacity));
+    }
+
+    @Override
+    public void mergeSlots(Long providerId, LocalDate scheduleDate, Map<Integer, Boolean> slots, int capacity) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_SLOT_SQL, toRows(providerId, List.of(scheduleDate), slots, capacity));
+    }
+
+    @Override
+    public int[] releaseSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        return updateSlots(RELEASE_SLOT_SQL, providerId, slotTimes);
+    }
+
+    @Override
+    public int[] reserveSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        return updateSlots(RESERVE_SLOT_SQL, providerId, slotTimes);
+    }
+
+    @Override
+    public int[] closeSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        return updateSlots(CLOSE_SLOT_SQL, providerId, slotTimes);
+    }
+
+    @Override
+    public int[] openSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        return updateSlots(OPEN_SLOT_SQL, providerId, slotTimes);
+    }
+
+    @Override
+    public int[] deleteAvailableSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        return updateSlots(DELETE_AVAILABLE_SLOT_SQL, providerId, slotTimes);
+    }
+
+    private int[] updateSlots(String sql, Long providerId, List<LocalDateTime> slotTimes) {
+        if (slotTimes.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> rows = new ArrayList<>(slotTimes.size());
+        for (LocalDateTime slotTime : slotTimes) {
+            rows.add(new Object[]{providerId, Date.valueOf(slotTime.toLocalDate()),
+                    SlotKeys.toMinuteOfDay(slotTime.toLocalTime())});
+        }
+        return jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    private static List<Object[]> toRows(Long providerId, List<LocalDate> scheduleDates, Map<Integer, Boolean> slots,
+                                         int capacity) {
+        List<Object[]> rows = new ArrayList<>(scheduleDates.size() * slots.size());
+        for (LocalDate scheduleDate : scheduleDates) {
+            Date date = Date.valueOf(scheduleDate);
+            for (Map.Entry<Integer, Boolean> entry : slots.entrySet()) {
+                boolean isAvailable = Boolean.TRUE.equals(entry.getValue());
+                SlotState state = isAvailable ? SlotState.AVAILABLE : SlotState.CLOSED;
+                rows.add(new Object[]{providerId, date, entry.getKey(), state.name(), capacity, 0});
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,18 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.constants.SlotState;
+
+import java.time.LocalDate;
+
+public interface ProviderSlotView {
+
+    LocalDate getScheduleDate();
+
+    Short getSlotMinute();
+
+    SlotState getState();
+
+    Integer getCapacity();
+
+    Integer getBooked();
+}
@@ -1,7 +1,13 @@
 package com.deloitte.Appointment_Service.repository;
 
+import com.deloitte.Appointment_Service.dto.DayAvailabilitySummaryDto;
 import com.deloitte.Appointment_Service.model.ProviderTimeSlots;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -9,11 +15,39 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProviderTimeSlotsRepository extends JpaRepository<ProviderTimeSlots, Long> {
+public interface ProviderTimeSlotsRepository extends JpaRepository<ProviderTimeSlots, Long>,
+        ProviderTimeSlotsRepositoryCustom {
 
     Optional<ProviderTimeSlots> findByProviderIdAndScheduleDate(Long providerId, LocalDate scheduleDate);
     
-    List<ProviderTimeSlots> findByProviderIdAndScheduleDateGreaterThanEqual(
-            Long providerId, LocalDate startDate);
+    // Serializes merges into the same provider day
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ProviderTimeSlots t WHERE t.providerId = :providerId AND t.scheduleDate = :scheduleDate")
+    Optional<ProviderTimeSlots> findForUpdate(@Param("providerId") Long providerId,
+                                              @Param("scheduleDate") LocalDate scheduleDate);
+
+    // toDate is exclusive
+    @Query("SELECT t.scheduleDate FROM ProviderTimeSlots t " +
+           "WHERE t.providerId = :providerId AND t.scheduleDate >= :fromDate AND t.scheduleDate < :toDate")
+    List<LocalDate> findScheduleDates(@Param("providerId") Long providerId,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT new com.deloitte.Appointment_Service.dto.DayAvailabilitySummaryDto(" +
+           "t.scheduleDate, t.openSlots, t.totalSlots) FROM ProviderTimeSlots t " +
+           "WHERE t.providerId = :providerId AND t.scheduleDate >= :fromDate AND t.scheduleDate < :toDate " +
+           "ORDER BY t.scheduleDate")
+    List<DayAvailabilitySummaryDto> findDaySummaries(@Param("providerId") Long providerId,
+                                                     @Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate);
+
+    // Keeps the open-slot counter in step with provider_slot; call in the same transaction as the slot change
+    @Modifying
+    @Query(value = "UPDATE provider_time_slots SET open_slots = open_slots + :delta " +
+                   "WHERE provider_id = :providerId AND schedule_date = :scheduleDate",
+           nativeQuery = true)
+    int adjustOpenSlots(@Param("providerId") Long providerId,
+                        @Param("scheduleDate") LocalDate scheduleDate,
+                        @Param("delta") int delta);
 }
 
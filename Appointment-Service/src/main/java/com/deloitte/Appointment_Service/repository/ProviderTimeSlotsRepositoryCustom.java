@@ -0,0 +1,18 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.index.SlotSchedule;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProviderTimeSlotsRepositoryCustom {
+
+    // Relies on the unique (provider_id, schedule_date) key; empty when the day already exists
+    Optional<Long> insertSchedule(Long providerId, LocalDate scheduleDate, SlotSchedule schedule);
+
+    // JDBC-batched insert of one provider day per date, all publishing the same schedule. Days that already
+    // exist are skipped row by row instead of failing the batch; returns the dates that were inserted.
+    // Must run inside a REPEATABLE READ transaction, which tells our own rows apart from concurrent ones
+    List<LocalDate> insertSchedules(Long providerId, List<LocalDate> scheduleDates, SlotSchedule schedule);
+}
@@ -0,0 +1,103 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.index.SlotSchedule;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class ProviderTimeSlotsRepositoryImpl implements ProviderTimeSlotsRepositoryCustom {
+
+    private static final String INSERT_SCHEDULE_SQL =
+            "INSERT INTO provider_time_slots " +
+            "(provider_id, schedule_date, slot_data, open_slots, total_slots, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // IGNORE skips a duplicate day instead of failing the batch; every other value is written by us and cannot truncate
+    private static final String INSERT_SCHEDULE_IF_ABSENT_SQL = INSERT_SCHEDULE_SQL.replaceFirst("INSERT", "INSERT IGNORE");
+
+    private static final String FIND_SCHEDULE_DATES_SQL =
+            "SELECT schedule_date FROM provider_time_slots WHERE provider_id = ? AND schedule_date IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProviderTimeSlotsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Long> insertSchedule(Long providerId, LocalDate scheduleDate, SlotSchedule schedule) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        INSERT_SCHEDULE_SQL, Statement.RETURN_GENERATED_KEYS);
+                statement.setLong(1, providerId);
+                statement.setDate(2, Date.valueOf(scheduleDate));
+                statement.setBytes(3, schedule.toBytes());
+                statement.setInt(4, schedule.availableCount());
+                statement.setInt(5, schedule.size());
+                statement.setTimestamp(6, now);
+                statement.setTimestamp(7, now);
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+        return Optional.of(keyHolder.getKey().longValue());
+    }
+
+    @Override
+    public List<LocalDate> insertSchedules(Long providerId, List<LocalDate> scheduleDates, SlotSchedule schedule) {
+        if (scheduleDates.isEmpty()) {
+            return List.of();
+        }
+        byte[] slotData = schedule.toBytes();
+        int openSlots = schedule.availableCount();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(scheduleDates.size());
+        for (LocalDate scheduleDate : scheduleDates) {
+            rows.add(new Object[]{providerId, Date.valueOf(scheduleDate), slotData,
+                    openSlots, schedule.size(), now, now});
+        }
+
+        // A rewritten multi-row INSERT reports SUCCESS_NO_INFO for every row, so the inserted days are read back.
+        // Both reads see the transaction's REPEATABLE READ snapshot plus its own writes: a day committed by
+        // someone else after the snapshot is in neither, and a day this batch inserted is only in the second
+        Set<LocalDate> existing = findScheduleDates(providerId, scheduleDates);
+        jdbcTemplate.batchUpdate(INSERT_SCHEDULE_IF_ABSENT_SQL, rows);
+        Set<LocalDate> present = findScheduleDates(providerId, scheduleDates);
+
+        List<LocalDate> insertedDates = new ArrayList<>(scheduleDates.size());
+        for (LocalDate scheduleDate : scheduleDates) {
+            if (present.contains(scheduleDate) && !existing.contains(scheduleDate)) {
+                insertedDates.add(scheduleDate);
+            }
+        }
+        return insertedDates;
+    }
+
+    private Set<LocalDate> findScheduleDates(Long providerId, List<LocalDate> scheduleDates) {
+        List<Object> args = new ArrayList<>(scheduleDates.size() + 1);
+        args.add(providerId);
+        scheduleDates.forEach(scheduleDate -> args.add(Date.valueOf(scheduleDate)));
+        String sql = String.format(FIND_SCHEDULE_DATES_SQL,
+                String.join(", ", Collections.nCopies(scheduleDates.size(), "?")));
+        return new HashSet<>(jdbcTemplate.query(sql,
+                (rs, rowNum) -> rs.getDate("schedule_date").toLocalDate(), args.toArray()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.deloitte.Appointment_Service.repository;
+
+import java.time.LocalDateTime;
+
+public interface SlotHoldDeadline {
+
+    String getId();
+
+    LocalDateTime getExpiresAt();
+}
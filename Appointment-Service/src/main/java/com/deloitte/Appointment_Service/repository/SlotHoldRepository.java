@@ -0,0 +1,33 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.model.SlotHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SlotHoldRepository extends JpaRepository<SlotHold, String>, SlotHoldRepositoryCustom {
+
+    // Commit wins only while the hold is unexpired; expiry deletes with the opposite condition
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.id = :holdId AND h.patientId = :patientId AND h.expiresAt > :now")
+    int deleteUnexpired(@Param("holdId") String holdId,
+                        @Param("patientId") Long patientId,
+                        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.id = :holdId AND h.patientId = :patientId")
+    int deleteByIdAndPatientId(@Param("holdId") String holdId, @Param("patientId") Long patientId);
+
+    long countByExpiresAtBefore(LocalDateTime cutoff);
+
+    // Keyset walk over outstanding holds, used to rebuild the timer wheel on startup
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SlotHold h WHERE h.id > :afterId ORDER BY h.id")
+    List<SlotHoldDeadline> findDeadlinesAfter(@Param("afterId") String afterId, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.deloitte.Appointment_Service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SlotHoldRepositoryCustom {
+
+    // JDBC-batched delete of holds that expired by the given time; counts are aligned with holdIds
+    int[] deleteExpired(List<String> holdIds, LocalDateTime now);
+
+    // Locks up to limit holds that expired before cutoff with FOR UPDATE SKIP LOCKED; call inside the expiring transaction
+    List<String> claimExpired(LocalDateTime cutoff, int limit);
+}
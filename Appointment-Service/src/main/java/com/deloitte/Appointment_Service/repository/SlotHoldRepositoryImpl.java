@@ -0,0 +1,41 @@
+package com.deloitte.Appointment_Service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlotHoldRepositoryImpl implements SlotHoldRepositoryCustom {
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM slot_hold WHERE id = ? AND expires_at <= ?";
+
+    private static final String CLAIM_EXPIRED_SQL =
+            "SELECT id FROM slot_hold WHERE expires_at < ? ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlotHoldRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] deleteExpired(List<String> holdIds, LocalDateTime now) {
+        if (holdIds.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp cutoff = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(holdIds.size());
+        for (String holdId : holdIds) {
+            rows.add(new Object[]{holdId, cutoff});
+        }
+        return jdbcTemplate.batchUpdate(DELETE_EXPIRED_SQL, rows);
+    }
+
+    @Override
+    public List<String> claimExpired(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(CLAIM_EXPIRED_SQL, String.class, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -0,0 +1,41 @@
+package com.deloitte.Appointment_Service.repository;
+
+import com.deloitte.Appointment_Service.constants.WaitlistStatus;
+import com.deloitte.Appointment_Service.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Everything a replica needs to index one provider's waitlist
+    List<WaitlistEntry> findByProviderIdAndStatusAndWindowEndAfter(Long providerId, WaitlistStatus status,
+                                                                   LocalDateTime now);
+
+    List<WaitlistEntry> findByPatientIdOrderByIdDesc(Long patientId, Pageable pageable);
+
+    // Only a WAITING entry can take an offer, so two replicas offering to the same patient cannot both win
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry w SET w.status = com.deloitte.Appointment_Service.constants.WaitlistStatus.OFFERED, " +
+           "w.holdId = :holdId, w.offeredSlotTime = :slotTime, w.offerExpiresAt = :expiresAt, w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.status = com.deloitte.Appointment_Service.constants.WaitlistStatus.WAITING")
+    int markOffered(@Param("id") Long id,
+                    @Param("holdId") String holdId,
+                    @Param("slotTime") LocalDateTime slotTime,
+                    @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry w SET w.status = com.deloitte.Appointment_Service.constants.WaitlistStatus.CANCELLED, " +
+           "w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.patientId = :patientId " +
+           "AND w.status = com.deloitte.Appointment_Service.constants.WaitlistStatus.WAITING")
+    int cancelWaiting(@Param("id") Long id, @Param("patientId") Long patientId, @Param("now") LocalDateTime now);
+}
@@ -1,37 +1,95 @@
 package com.deloitte.Appointment_Service.service;
 
 import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentDecisionDto;
+import com.deloitte.Appointment_Service.dto.AppointmentPageResponseDto;
 import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.dto.AppointmentSeriesResponseDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateRequestDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateResponseDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateResultDto;
 import com.deloitte.Appointment_Service.dto.CreateAppointmentRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateAppointmentSeriesRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateSlotHoldRequestDto;
+import com.deloitte.Appointment_Service.dto.SeriesOccurrenceResultDto;
+import com.deloitte.Appointment_Service.dto.SlotHoldResponseDto;
+import com.deloitte.Appointment_Service.engine.BookingEngine;
 import com.deloitte.Appointment_Service.exception.AppointmentNotFoundException;
 import com.deloitte.Appointment_Service.exception.InvalidAppointmentStateException;
+import com.deloitte.Appointment_Service.exception.PatientDoubleBookingException;
 import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.index.PatientAppointmentIndex;
+import com.deloitte.Appointment_Service.lock.BookingLockManager;
 import com.deloitte.Appointment_Service.model.Appointment;
+import com.deloitte.Appointment_Service.model.SlotHold;
 import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class AppointmentService {
 
     private static final Logger log = LoggerFactory.getLogger(AppointmentService.class);
 
+    // Open bounds used when no date range or cursor is given
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime KEYSET_END = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private static final int EXPORT_FLUSH_EVERY = 256;
+
     private final AppointmentRepository appointmentRepository;
     private final ProviderScheduleService scheduleService;
+    private final BookingLockManager bookingLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingEngine bookingEngine; // Only present in partitioned booking mode
+    private final ObjectMapper objectMapper;
+    private final SlotHoldService slotHoldService;
+    private final PatientAppointmentIndex patientAppointmentIndex;
+
+    @Value("${appointment.listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${appointment.listing.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${appointment.series.max-occurrences:52}")
+    private int maxSeriesOccurrences;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
-                            ProviderScheduleService scheduleService) {
+                            ProviderScheduleService scheduleService,
+                            BookingLockManager bookingLockManager,
+                            TransactionTemplate transactionTemplate,
+                            ObjectProvider<BookingEngine> bookingEngine,
+                            ObjectMapper objectMapper,
+                            SlotHoldService slotHoldService,
+                            PatientAppointmentIndex patientAppointmentIndex) {
         this.appointmentRepository = appointmentRepository;
         this.scheduleService = scheduleService;
+        this.bookingLockManager = bookingLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.bookingEngine = bookingEngine.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.slotHoldService = slotHoldService;
+        this.patientAppointmentIndex = patientAppointmentIndex;
     }
 
-    @Transactional
     public AppointmentResponseDto createAppointment(CreateAppointmentRequestDto request) {
         log.info("Creating appointment for patient ID: {} with provider ID: {} for time slot: {}", 
                 request.patientId(), request.providerId(), request.appointmentDateTime());
@@ -41,10 +99,49 @@ public class AppointmentService {
             throw new IllegalArgumentException("Cannot book appointments in the past");
         }
 
-        // Check if the slot is available
-        if (!scheduleService.isSlotAvailable(request.providerId(), request.appointmentDateTime())) {
-            throw new SlotNotAvailableException(
-                    "Time slot is not available for booking for time slot: " + request.appointmentDateTime());
+        // Partition workers own single slots only; a run may not even sit in one slot's partition
+        if (request.durationMinutes() != null && bookingEngine != null) {
+            throw new IllegalArgumentException("Appointment durations are not supported in partitioned booking mode");
+        }
+
+        return bookForPatient(request.patientId(), request.appointmentDateTime(), request.durationMinutes(), () -> {
+            if (bookingEngine != null) {
+                return bookingEngine.createAppointment(request);
+            }
+
+            boolean sharedSeats = scheduleService.hasSharedSeats(request.providerId(), request.appointmentDateTime());
+            return bookingLockManager.withSlotLock(request.providerId(), request.appointmentDateTime(), sharedSeats, () -> {
+                // The slot may have been taken while waiting for the lock; fail before opening a transaction
+                if (!scheduleService.isSlotAvailable(request.providerId(), request.appointmentDateTime())) {
+                    throw new SlotNotAvailableException(
+                            "Time slot is not available for booking for time slot: " + request.appointmentDateTime());
+                }
+                return transactionTemplate.execute(status -> doCreateAppointment(request));
+            });
+        });
+    }
+
+    // Holds the patient's time in the overlap index while booking, so two concurrent bookings cannot both pass
+    private AppointmentResponseDto bookForPatient(Long patientId, LocalDateTime appointmentDateTime,
+                                                  Integer durationMinutes, Supplier<AppointmentResponseDto> booking) {
+        long ticket = patientAppointmentIndex.reserve(patientId, appointmentDateTime, durationMinutes);
+        try {
+            AppointmentResponseDto response = booking.get();
+            patientAppointmentIndex.bind(patientId, ticket, response.id());
+            return response;
+        } catch (RuntimeException e) {
+            patientAppointmentIndex.cancel(patientId, ticket);
+            throw e;
+        }
+    }
+
+    private AppointmentResponseDto doCreateAppointment(CreateAppointmentRequestDto request) {
+        // Claim the slot, or every slot of the run, first with conditional updates; a concurrent booking loses here
+        if (request.durationMinutes() != null) {
+            scheduleService.reserveSlotRun(request.providerId(), request.appointmentDateTime(),
+                    request.durationMinutes());
+        } else {
+            scheduleService.reserveSlot(request.providerId(), request.appointmentDateTime());
         }
 
         // Create the appointment
@@ -53,160 +150,520 @@ public class AppointmentService {
                 .providerId(request.providerId())
                 .status(AppointmentStatus.REQUESTED)
                 .appointmentDateTime(request.appointmentDateTime())
+                .durationMinutes(request.durationMinutes())
                 .build();
 
         appointment = appointmentRepository.save(appointment);
 
-        // Mark the slot as unavailable
-        scheduleService.updateSlotAvailability(
-                request.providerId(), 
-                request.appointmentDateTime(), 
-                false);
-
         log.info("Appointment created with ID: {} in REQUESTED state", appointment.getId());
 
         return mapToAppointmentResponseDto(appointment, "Appointment requested successfully", null);
     }
 
-    @Transactional
-    public AppointmentResponseDto confirmAppointment(Long appointmentId, Long providerId) {
-        log.info("Provider ID: {} confirming appointment ID: {}", providerId, appointmentId);
+    // Phase one of two-phase booking: parks the slot for the patient's checkout without creating an appointment
+    public SlotHoldResponseDto holdSlot(CreateSlotHoldRequestDto request) {
+        log.info("Holding slot for patient ID: {} with provider ID: {} for time slot: {}",
+                request.patientId(), request.providerId(), request.appointmentDateTime());
 
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new AppointmentNotFoundException(
-                        "Appointment not found with ID: " + appointmentId));
+        if (request.appointmentDateTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot book appointments in the past");
+        }
+        // Holds take seats outside the partitions, which would then book slots they believe are free
+        if (bookingEngine != null) {
+            throw new IllegalArgumentException("Slot holds are not supported in partitioned booking mode");
+        }
+        // Fails fast on an overlap; the booking itself is checked again when the hold is committed
+        patientAppointmentIndex.cancel(request.patientId(),
+                patientAppointmentIndex.reserve(request.patientId(), request.appointmentDateTime()));
+        return slotHoldService.hold(request);
+    }
 
-        // Verify provider owns this appointment
-        if (!appointment.getProviderId().equals(providerId)) {
-            throw new InvalidAppointmentStateException(
-                    "Appointment does not belong to this provider");
+    public SlotHoldResponseDto releaseHold(String holdId, Long patientId) {
+        log.info("Patient ID: {} releasing slot hold ID: {}", patientId, holdId);
+        return slotHoldService.release(holdId, patientId);
+    }
+
+    public AppointmentResponseDto commitHold(String holdId, Long patientId) {
+        log.info("Patient ID: {} committing slot hold ID: {}", patientId, holdId);
+
+        SlotHold held = slotHoldService.getHold(holdId, patientId);
+        AppointmentResponseDto response = bookForPatient(patientId, held.getSlotTime(), null,
+                () -> transactionTemplate.execute(status -> doCommitHold(holdId, patientId)));
+        slotHoldService.forget(holdId);
+        return response;
+    }
+
+    private AppointmentResponseDto doCommitHold(String holdId, Long patientId) {
+        // The hold already took the slot's seat; claiming deletes its row so expiry cannot give the seat back
+        SlotHold hold = slotHoldService.claim(holdId, patientId);
+
+        Appointment appointment = appointmentRepository.save(Appointment.builder()
+                .patientId(hold.getPatientId())
+                .providerId(hold.getProviderId())
+                .status(AppointmentStatus.REQUESTED)
+                .appointmentDateTime(hold.getSlotTime())
+                .build());
+
+        log.info("Appointment created with ID: {} in REQUESTED state from slot hold ID: {}",
+                appointment.getId(), holdId);
+        return mapToAppointmentResponseDto(appointment, "Appointment requested successfully", null);
+    }
+
+    // Books every occurrence or none: one batched availability lookup, one batched slot claim and one
+    // JDBC insert batch, all in a single transaction that rolls the claimed slots back if any occurrence loses
+    public AppointmentSeriesResponseDto createAppointmentSeries(CreateAppointmentSeriesRequestDto request) {
+        log.info("Creating series of {} appointment(s) for patient ID: {} with provider ID: {} starting {}",
+                request.occurrences(), request.patientId(), request.providerId(), request.firstAppointmentDateTime());
+
+        if (request.occurrences() > maxSeriesOccurrences) {
+            throw new IllegalArgumentException("A series cannot have more than " + maxSeriesOccurrences + " occurrences");
+        }
+        if (request.firstAppointmentDateTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot book appointments in the past");
+        }
+        // The batched claim writes slots directly, and its occurrences span many partition days
+        if (bookingEngine != null) {
+            throw new IllegalArgumentException("Appointment series are not supported in partitioned booking mode");
+        }
+        Long patientId = request.patientId();
+        Long providerId = request.providerId();
+        int intervalWeeks = request.intervalWeeks() != null ? request.intervalWeeks() : 1;
+        List<LocalDateTime> appointmentTimes = new ArrayList<>(request.occurrences());
+        for (int i = 0; i < request.occurrences(); i++) {
+            appointmentTimes.add(request.firstAppointmentDateTime().plusWeeks((long) i * intervalWeeks));
         }
 
-        // Verify appointment is in REQUESTED state
-        if (appointment.getStatus() != AppointmentStatus.REQUESTED) {
-            throw new InvalidAppointmentStateException(
-                    "Only REQUESTED appointments can be confirmed. Current state: " + 
-                    appointment.getStatus());
+        Map<LocalDateTime, String> conflicts = new HashMap<>(
+                scheduleService.findUnbookableSlots(providerId, appointmentTimes));
+        List<Long> tickets = new ArrayList<>(appointmentTimes.size());
+        for (LocalDateTime appointmentTime : appointmentTimes) {
+            try {
+                tickets.add(patientAppointmentIndex.reserve(patientId, appointmentTime));
+            } catch (PatientDoubleBookingException e) {
+                conflicts.putIfAbsent(appointmentTime, e.getMessage());
+                tickets.add(PatientAppointmentIndex.NO_RESERVATION);
+            }
         }
 
-        appointment.setStatus(AppointmentStatus.CONFIRMED);
-        appointment = appointmentRepository.save(appointment);
+        List<Long> appointmentIds = null;
+        try {
+            if (conflicts.isEmpty()) {
+                appointmentIds = transactionTemplate.execute(status -> {
+                    List<LocalDateTime> lost = scheduleService.reserveSlots(providerId, appointmentTimes);
+                    if (!lost.isEmpty()) {
+                        lost.forEach(time -> conflicts.put(time, "Time slot was booked by someone else"));
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return appointmentRepository.insertAppointments(
+                            patientId, providerId, appointmentTimes, AppointmentStatus.REQUESTED);
+                });
+            }
+        } finally {
+            for (int i = 0; i < tickets.size(); i++) {
+                if (appointmentIds != null) {
+                    patientAppointmentIndex.bind(patientId, tickets.get(i), appointmentIds.get(i));
+                } else {
+                    patientAppointmentIndex.cancel(patientId, tickets.get(i));
+                }
+            }
+        }
 
-        log.info("Appointment ID: {} confirmed successfully", appointmentId);
+        List<SeriesOccurrenceResultDto> occurrences = new ArrayList<>(appointmentTimes.size());
+        for (int i = 0; i < appointmentTimes.size(); i++) {
+            LocalDateTime appointmentTime = appointmentTimes.get(i);
+            if (appointmentIds != null) {
+                occurrences.add(new SeriesOccurrenceResultDto(appointmentTime, appointmentIds.get(i), true, null));
+            } else {
+                occurrences.add(new SeriesOccurrenceResultDto(appointmentTime, null, false, conflicts.getOrDefault(
+                        appointmentTime, "Not booked because another occurrence conflicts")));
+            }
+        }
 
-        return mapToAppointmentResponseDto(appointment, "Appointment confirmed successfully", null);
+        if (appointmentIds == null) {
+            log.info("Series for patient ID: {} not booked, {} occurrence(s) conflict", patientId, conflicts.size());
+            return new AppointmentSeriesResponseDto(patientId, providerId, 0, conflicts.size(), occurrences,
+                    "Series not booked because some occurrences are unavailable");
+        }
+        log.info("Series of {} appointment(s) created for patient ID: {} in REQUESTED state",
+                appointmentIds.size(), patientId);
+        return new AppointmentSeriesResponseDto(patientId, providerId, appointmentIds.size(), 0, occurrences,
+                "Appointment series requested successfully");
     }
 
     @Transactional
-    public AppointmentResponseDto rejectAppointment(Long appointmentId, Long providerId) {
-        log.info("Provider ID: {} rejecting appointment ID: {}", providerId, appointmentId);
+    public AppointmentResponseDto confirmAppointment(Long appointmentId, Long providerId) {
+        log.info("Provider ID: {} confirming appointment ID: {}", providerId, appointmentId);
 
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        // Ownership and REQUESTED state are checked by the UPDATE itself
+        int updated = appointmentRepository.transitionAsProvider(
+                appointmentId, providerId, List.of(AppointmentStatus.REQUESTED),
+                AppointmentStatus.CONFIRMED, LocalDateTime.now());
+        if (updated == 0) {
+            throw providerTransitionFailure(appointmentId, providerId,
+                    "Only REQUESTED appointments can be confirmed. Current state: ");
+        }
+
+        // The status comes from the UPDATE; one projection read supplies the rest, without loading the entity
+        AppointmentResponseDto row = appointmentRepository.findResponseById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment not found with ID: " + appointmentId));
 
-        // Verify provider owns this appointment
-        if (!appointment.getProviderId().equals(providerId)) {
-            throw new InvalidAppointmentStateException(
-                    "Appointment does not belong to this provider");
-        }
+        log.info("Appointment ID: {} confirmed successfully", appointmentId);
+
+        return new AppointmentResponseDto(row.id(), row.patientId(), row.providerId(), AppointmentStatus.CONFIRMED,
+                row.appointmentDateTime(), row.durationMinutes(), row.createdAt(),
+                "Appointment confirmed successfully", null);
+    }
 
-        // Verify appointment is in REQUESTED state
-        if (appointment.getStatus() != AppointmentStatus.REQUESTED) {
-            throw new InvalidAppointmentStateException(
-                    "Only REQUESTED appointments can be rejected. Current state: " + 
-                    appointment.getStatus());
+    public AppointmentResponseDto rejectAppointment(Long appointmentId, Long providerId) {
+        log.info("Provider ID: {} rejecting appointment ID: {}", providerId, appointmentId);
+
+        Appointment existing = findAppointment(appointmentId);
+        if (bookingEngine != null) {
+            return bookingEngine.rejectAppointment(existing, providerId, bookedSlots(existing));
         }
+        return bookingLockManager.withLock(existing.getProviderId(),
+                existing.getAppointmentDateTime().toLocalDate(),
+                () -> transactionTemplate.execute(status -> doRejectAppointment(existing, providerId)));
+    }
 
+    private AppointmentResponseDto doRejectAppointment(Appointment appointment, Long providerId) {
+        Long appointmentId = appointment.getId();
+
+        // Ownership and REQUESTED state are checked by the UPDATE itself
+        int updated = appointmentRepository.transitionAsProvider(
+                appointmentId, providerId, List.of(AppointmentStatus.REQUESTED),
+                AppointmentStatus.REJECTED, LocalDateTime.now());
+        if (updated == 0) {
+            throw providerTransitionFailure(appointmentId, providerId,
+                    "Only REQUESTED appointments can be rejected. Current state: ");
+        }
         appointment.setStatus(AppointmentStatus.REJECTED);
-        appointment = appointmentRepository.save(appointment);
 
-        // Release the time slot
-        scheduleService.updateSlotAvailability(
-                appointment.getProviderId(),
-                appointment.getAppointmentDateTime(),
-                true);
+        releaseAppointmentSlots(appointment);
 
         log.info("Appointment ID: {} rejected and slot released", appointmentId);
 
         return mapToAppointmentResponseDto(appointment, "Appointment rejected successfully", null);
     }
 
-    @Transactional
     public AppointmentResponseDto cancelAppointment(Long appointmentId, Long patientId) {
         log.info("Patient ID: {} cancelling appointment ID: {}", patientId, appointmentId);
 
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new AppointmentNotFoundException(
-                        "Appointment not found with ID: " + appointmentId));
-
-        // Verify patient owns this appointment
-        if (!appointment.getPatientId().equals(patientId)) {
-            throw new InvalidAppointmentStateException(
-                    "Appointment does not belong to this patient");
+        Appointment existing = findAppointment(appointmentId);
+        if (bookingEngine != null) {
+            return bookingEngine.cancelAppointment(existing, patientId, bookedSlots(existing));
         }
+        return bookingLockManager.withLock(existing.getProviderId(),
+                existing.getAppointmentDateTime().toLocalDate(),
+                () -> transactionTemplate.execute(status -> doCancelAppointment(existing, patientId)));
+    }
 
-        // Verify appointment can be cancelled (REQUESTED or CONFIRMED state)
-        if (appointment.getStatus() != AppointmentStatus.REQUESTED && 
-            appointment.getStatus() != AppointmentStatus.CONFIRMED) {
-            throw new InvalidAppointmentStateException(
-                    "Only REQUESTED or CONFIRMED appointments can be cancelled. Current state: " + 
-                    appointment.getStatus());
-        }
+    private AppointmentResponseDto doCancelAppointment(Appointment appointment, Long patientId) {
+        Long appointmentId = appointment.getId();
 
+        // Ownership and REQUESTED/CONFIRMED state are checked by the UPDATE itself
+        int updated = appointmentRepository.transitionAsPatient(
+                appointmentId, patientId, List.of(AppointmentStatus.REQUESTED, AppointmentStatus.CONFIRMED),
+                AppointmentStatus.CANCELLED, LocalDateTime.now());
+        if (updated == 0) {
+            throw patientTransitionFailure(appointmentId, patientId,
+                    "Only REQUESTED or CONFIRMED appointments can be cancelled. Current state: ");
+        }
         appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointment = appointmentRepository.save(appointment);
 
-        // Release the time slot
-        scheduleService.updateSlotAvailability(
-                appointment.getProviderId(),
-                appointment.getAppointmentDateTime(),
-                true);
+        releaseAppointmentSlots(appointment);
 
         log.info("Appointment ID: {} cancelled by patient and slot released", appointmentId);
 
         return mapToAppointmentResponseDto(appointment, "Appointment cancelled successfully", null);
     }
 
-    public List<AppointmentResponseDto> getPatientAppointments(Long patientId) {
+    @Transactional
+    public BulkStatusUpdateResponseDto bulkUpdateAppointmentStatus(Long providerId,
+                                                                   BulkStatusUpdateRequestDto request) {
+        log.info("Provider ID: {} bulk updating {} appointment(s)", providerId, request.decisions().size());
+
+        List<Long> confirmIds = new ArrayList<>();
+        List<Long> rejectIds = new ArrayList<>();
+        Map<Long, String> errors = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (AppointmentDecisionDto decision : request.decisions()) {
+            Long appointmentId = decision.appointmentId();
+            if (!seen.add(appointmentId)) {
+                continue; // Reported as a duplicate below; only the first decision per ID is applied
+            }
+            if ("CONFIRM".equalsIgnoreCase(decision.action())) {
+                confirmIds.add(appointmentId);
+            } else if ("REJECT".equalsIgnoreCase(decision.action()) && bookingEngine != null) {
+                // Releasing the slot must go through the owning partition
+                errors.put(appointmentId, "Bulk rejection is not supported in partitioned booking mode; " +
+                        "reject the appointment on its own");
+            } else if ("REJECT".equalsIgnoreCase(decision.action())) {
+                rejectIds.add(appointmentId);
+            } else {
+                errors.put(appointmentId, "Invalid action. Use CONFIRM or REJECT");
+            }
+        }
+
+        // One JDBC batch of conditional updates per decision type
+        int[] confirmed = appointmentRepository.batchTransitionAsProvider(
+                providerId, confirmIds, List.of(AppointmentStatus.REQUESTED), AppointmentStatus.CONFIRMED);
+        int[] rejected = appointmentRepository.batchTransitionAsProvider(
+                providerId, rejectIds, List.of(AppointmentStatus.REQUESTED), AppointmentStatus.REJECTED);
+
+        Map<Long, AppointmentStatus> applied = new HashMap<>();
+        List<Long> lookupIds = new ArrayList<>();
+        collectBatchResults(confirmIds, confirmed, AppointmentStatus.CONFIRMED, applied, lookupIds);
+        collectBatchResults(rejectIds, rejected, AppointmentStatus.REJECTED, applied, lookupIds);
+
+        // Single read for the slot times of rejections and the failure reasons of unmatched rows
+        Map<Long, Appointment> rows = new HashMap<>();
+        appointmentRepository.findAllById(lookupIds).forEach(row -> rows.put(row.getId(), row));
+
+        List<LocalDateTime> releasedSlots = new ArrayList<>();
+        for (Long appointmentId : lookupIds) {
+            Appointment row = rows.get(appointmentId);
+            if (applied.get(appointmentId) == AppointmentStatus.REJECTED) {
+                releasedSlots.addAll(scheduleService.bookedSlots(
+                        providerId, row.getAppointmentDateTime(), row.getDurationMinutes()));
+            } else if (!applied.containsKey(appointmentId)) {
+                errors.put(appointmentId, bulkFailureReason(appointmentId, row, providerId,
+                        rejectIds.contains(appointmentId) ? "rejected" : "confirmed"));
+            }
+        }
+        scheduleService.releaseSlots(providerId, releasedSlots);
+
+        List<BulkStatusUpdateResultDto> results = new ArrayList<>(request.decisions().size());
+        Set<Long> reported = new HashSet<>();
+        for (AppointmentDecisionDto decision : request.decisions()) {
+            Long appointmentId = decision.appointmentId();
+            String error = reported.add(appointmentId)
+                    ? errors.get(appointmentId)
+                    : "Duplicate appointment ID in request";
+            AppointmentStatus status = error == null ? applied.get(appointmentId) : null;
+            results.add(new BulkStatusUpdateResultDto(appointmentId, decision.action(), status, error == null, error));
+        }
+
+        int succeeded = (int) results.stream().filter(BulkStatusUpdateResultDto::success).count();
+        log.info("Provider ID: {} bulk update finished: {} succeeded, {} failed",
+                providerId, succeeded, results.size() - succeeded);
+
+        return new BulkStatusUpdateResponseDto(providerId, succeeded, results.size() - succeeded, results);
+    }
+
+    private void collectBatchResults(List<Long> appointmentIds, int[] counts, AppointmentStatus newStatus,
+                                     Map<Long, AppointmentStatus> applied, List<Long> lookupIds) {
+        for (int i = 0; i < appointmentIds.size(); i++) {
+            Long appointmentId = appointmentIds.get(i);
+            if (counts[i] > 0) {
+                applied.put(appointmentId, newStatus);
+                if (newStatus == AppointmentStatus.REJECTED) {
+                    lookupIds.add(appointmentId);
+                }
+            } else {
+                lookupIds.add(appointmentId);
+            }
+        }
+    }
+
+    private String bulkFailureReason(Long appointmentId, Appointment row, Long providerId, String verb) {
+        if (row == null) {
+            return "Appointment not found with ID: " + appointmentId;
+        }
+        if (!row.getProviderId().equals(providerId)) {
+            return "Appointment does not belong to this provider";
+        }
+        return "Only REQUESTED appointments can be " + verb + ". Current state: " + row.getStatus();
+    }
+
+    // Only reached when a conditional transition matched no row; re-reads to report the precise reason
+    private RuntimeException providerTransitionFailure(Long appointmentId, Long providerId, String stateMessage) {
+        Appointment appointment = findAppointment(appointmentId);
+        if (!appointment.getProviderId().equals(providerId)) {
+            return new InvalidAppointmentStateException("Appointment does not belong to this provider");
+        }
+        return new InvalidAppointmentStateException(stateMessage + appointment.getStatus());
+    }
+
+    private RuntimeException patientTransitionFailure(Long appointmentId, Long patientId, String stateMessage) {
+        Appointment appointment = findAppointment(appointmentId);
+        if (!appointment.getPatientId().equals(patientId)) {
+            return new InvalidAppointmentStateException("Appointment does not belong to this patient");
+        }
+        return new InvalidAppointmentStateException(stateMessage + appointment.getStatus());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentResponseDto> getPatientAppointments(Long patientId, Integer size) {
         log.info("Fetching appointments for patient ID: {}", patientId);
-        
-        List<Appointment> appointments = appointmentRepository.findByPatientId(patientId);
-        
-        return appointments.stream()
-                .map(appointment -> mapToAppointmentResponseDto(appointment, null, null))
-                .collect(Collectors.toList());
+
+        // Bounded to the first page; use the paged endpoint to walk further
+        return getPatientAppointmentPage(patientId, null, size, null, null, null).items();
     }
 
-    public List<AppointmentResponseDto> getProviderAppointments(Long providerId) {
+    @Transactional(readOnly = true)
+    public List<AppointmentResponseDto> getProviderAppointments(Long providerId, Integer size) {
         log.info("Fetching appointments for provider ID: {}", providerId);
-        
-        List<Appointment> appointments = appointmentRepository.findByProviderId(providerId);
-        
-        return appointments.stream()
-                .map(appointment -> mapToAppointmentResponseDto(appointment, null, null))
-                .collect(Collectors.toList());
+
+        return getProviderAppointmentPage(providerId, null, size, null, null, null).items();
     }
 
-    public List<AppointmentResponseDto> getProviderRequestedAppointments(Long providerId) {
+    @Transactional(readOnly = true)
+    public List<AppointmentResponseDto> getProviderRequestedAppointments(Long providerId, Integer size) {
         log.info("Fetching REQUESTED appointments for provider ID: {}", providerId);
-        
-        List<Appointment> appointments = appointmentRepository
-                .findByProviderIdAndStatus(providerId, AppointmentStatus.REQUESTED);
-        
-        return appointments.stream()
-                .map(appointment -> mapToAppointmentResponseDto(appointment, null, null))
-                .collect(Collectors.toList());
+
+        return getProviderAppointmentPage(providerId, null, size, null, null, AppointmentStatus.REQUESTED).items();
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentPageResponseDto getPatientAppointmentPage(Long patientId, String cursor, Integer size,
+                                                                LocalDateTime from, LocalDateTime to,
+                                                                AppointmentStatus status) {
+        log.info("Fetching appointment page for patient ID: {} after cursor: {}", patientId, cursor);
+
+        int pageSize = resolvePageSize(size);
+        Keyset keyset = decodeCursor(cursor);
+        List<AppointmentResponseDto> rows = appointmentRepository.findPatientPage(
+                patientId,
+                from != null ? from : KEYSET_START,
+                to != null ? to : KEYSET_END,
+                status,
+                keyset.afterTime(),
+                keyset.afterId(),
+                PageRequest.of(0, pageSize + 1));
+
+        return toPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentPageResponseDto getProviderAppointmentPage(Long providerId, String cursor, Integer size,
+                                                                 LocalDateTime from, LocalDateTime to,
+                                                                 AppointmentStatus status) {
+        log.info("Fetching appointment page for provider ID: {} after cursor: {}", providerId, cursor);
+
+        int pageSize = resolvePageSize(size);
+        Keyset keyset = decodeCursor(cursor);
+        List<AppointmentResponseDto> rows = appointmentRepository.findProviderPage(
+                providerId,
+                from != null ? from : KEYSET_START,
+                to != null ? to : KEYSET_END,
+                status,
+                keyset.afterTime(),
+                keyset.afterId(),
+                PageRequest.of(0, pageSize + 1));
+
+        return toPage(rows, pageSize);
+    }
+
+    // Writes one JSON object per line as rows arrive from the cursor, so memory use does not grow with history size
+    @Transactional(readOnly = true)
+    public long exportProviderAppointments(Long providerId, OutputStream out) throws IOException {
+        log.info("Exporting appointment history for provider ID: {}", providerId);
+
+        long[] written = {0};
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            appointmentRepository.streamProviderAppointments(providerId, appointment -> {
+                try {
+                    writer.write(appointment);
+                    if (++written[0] % EXPORT_FLUSH_EVERY == 1) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            if (written[0] > 0) {
+                out.write('\n');
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Exported {} appointments for provider ID: {}", written[0], providerId);
+        return written[0];
+    }
+
+    // One extra row is fetched to tell whether another page follows
+    private AppointmentPageResponseDto toPage(List<AppointmentResponseDto> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<AppointmentResponseDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            AppointmentResponseDto last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.appointmentDateTime(), last.id());
+        }
+        return new AppointmentPageResponseDto(items, items.size(), nextCursor);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
     }
 
+    private static String encodeCursor(LocalDateTime appointmentDateTime, Long id) {
+        String raw = appointmentDateTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Keyset decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new Keyset(KEYSET_START, 0L);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Keyset(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    private record Keyset(LocalDateTime afterTime, Long afterId) {
+    }
+
+    @Transactional(readOnly = true)
     public AppointmentResponseDto getAppointmentById(Long appointmentId) {
         log.info("Fetching appointment with ID: {}", appointmentId);
         
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return appointmentRepository.findResponseById(appointmentId)
+                .orElseThrow(() -> new AppointmentNotFoundException(
+                        "Appointment not found with ID: " + appointmentId));
+    }
+
+    // Release the time slot, or every slot of a variable-length appointment's run
+    private void releaseAppointmentSlots(Appointment appointment) {
+        if (appointment.getDurationMinutes() == null) {
+            scheduleService.updateSlotAvailability(
+                    appointment.getProviderId(),
+                    appointment.getAppointmentDateTime(),
+                    true);
+            return;
+        }
+        scheduleService.releaseSlots(appointment.getProviderId(), bookedSlots(appointment));
+    }
+
+    private List<LocalDateTime> bookedSlots(Appointment appointment) {
+        return scheduleService.bookedSlots(
+                appointment.getProviderId(), appointment.getAppointmentDateTime(), appointment.getDurationMinutes());
+    }
+
+    private Appointment findAppointment(Long appointmentId) {
+        return appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment not found with ID: " + appointmentId));
-        
-        return mapToAppointmentResponseDto(appointment, null, null);
     }
 
     private AppointmentResponseDto mapToAppointmentResponseDto(Appointment appointment, String message, String errorMessage) {
@@ -216,6 +673,7 @@ public class AppointmentService {
                 appointment.getProviderId(),
                 appointment.getStatus(),
                 appointment.getAppointmentDateTime(),
+                appointment.getDurationMinutes(),
                 appointment.getCreatedAt(),
                 message,
                 errorMessage
@@ -1,20 +1,47 @@
 package com.deloitte.Appointment_Service.service;
 
+import com.deloitte.Appointment_Service.constants.ScheduleMergeMode;
+import com.deloitte.Appointment_Service.constants.SlotState;
+import com.deloitte.Appointment_Service.dto.AvailableSlotsWindowDto;
+import com.deloitte.Appointment_Service.dto.AvailableStartsDto;
 import com.deloitte.Appointment_Service.dto.CreateScheduleRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateScheduleTemplateRequestDto;
+import com.deloitte.Appointment_Service.dto.DayAvailabilitySummaryDto;
+import com.deloitte.Appointment_Service.dto.PatchScheduleSlotsRequestDto;
 import com.deloitte.Appointment_Service.dto.ScheduleResponseDto;
+import com.deloitte.Appointment_Service.dto.ScheduleTemplateResponseDto;
 import com.deloitte.Appointment_Service.dto.TimeSlotResponseDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
 import com.deloitte.Appointment_Service.exception.ProviderTimeSlotsNotFoundException;
+import com.deloitte.Appointment_Service.exception.ScheduleConflictException;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.index.SlotAvailabilityIndex;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.index.SlotSchedule;
 import com.deloitte.Appointment_Service.model.ProviderTimeSlots;
+import com.deloitte.Appointment_Service.repository.ProviderSlotRepository;
+import com.deloitte.Appointment_Service.repository.ProviderSlotView;
 import com.deloitte.Appointment_Service.repository.ProviderTimeSlotsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class ProviderScheduleService {
@@ -22,9 +49,45 @@ public class ProviderScheduleService {
     private static final Logger log = LoggerFactory.getLogger(ProviderScheduleService.class);
 
     private final ProviderTimeSlotsRepository timeSlotsRepository;
+    private final ProviderSlotRepository slotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProviderScheduleService(ProviderTimeSlotsRepository timeSlotsRepository) {
+    // Computed slot lists per provider; evicted only once a change has committed
+    private final Cache<Long, CachedSlots> availableSlotsCache;
+
+    @Value("${appointment.slot-query.default-days:7}")
+    private int defaultWindowDays;
+
+    @Value("${appointment.slot-query.max-days:31}")
+    private int maxWindowDays;
+
+    @Value("${appointment.schedule-template.max-weeks:52}")
+    private int maxTemplateWeeks;
+
+    @Value("${appointment.duration.max-minutes:480}")
+    private int maxDurationMinutes;
+
+    @Value("${appointment.slot-capacity.max:100}")
+    private int maxSlotCapacity;
+
+    public ProviderScheduleService(ProviderTimeSlotsRepository timeSlotsRepository,
+                                   ProviderSlotRepository slotRepository,
+                                   SlotAvailabilityIndex slotAvailabilityIndex,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${appointment.slot-cache.max-size:10000}") long cacheMaxSize,
+                                   @Value("${appointment.slot-cache.ttl-seconds:30}") long cacheTtlSeconds) {
         this.timeSlotsRepository = timeSlotsRepository;
+        this.slotRepository = slotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.availableSlotsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, availableSlotsCache, "availableSlots");
     }
 
     @Transactional
@@ -32,78 +95,423 @@ public class ProviderScheduleService {
         log.info("Creating schedule for provider ID: {} on date: {}", 
                 request.providerId(), request.scheduleDate());
 
-        // Check if schedule already exists for this provider and date
-        Optional<ProviderTimeSlots> existing = timeSlotsRepository
-                .findByProviderIdAndScheduleDate(request.providerId(), request.scheduleDate());
-        
-        if (existing.isPresent()) {
-            throw new IllegalArgumentException(
-                    "Schedule already exists for provider " + request.providerId() + 
-                    " on date " + request.scheduleDate());
-        }
-
-        // Create the provider time slots
-        ProviderTimeSlots timeSlots = ProviderTimeSlots.builder()
-                .providerId(request.providerId())
-                .scheduleDate(request.scheduleDate())
-                .slots(request.slots())
-                .build();
+        Long providerId = request.providerId();
+        LocalDate scheduleDate = request.scheduleDate();
+        int capacity = resolveCapacity(request.slotCapacity());
+        Map<Integer, Boolean> slotMinutes = SlotKeys.toMinuteMap(request.slots());
+        SlotSchedule schedule = SlotSchedule.of(slotMinutes);
+
+        // The unique (provider_id, schedule_date) key decides whether the day is new, so there is no SELECT first
+        Optional<Long> createdId = timeSlotsRepository.insertSchedule(providerId, scheduleDate, schedule);
+        if (createdId.isEmpty()) {
+            ScheduleMergeMode mergeMode = request.mergeMode() != null ? request.mergeMode() : ScheduleMergeMode.CREATE_ONLY;
+            return mergeIntoExistingSchedule(providerId, scheduleDate, slotMinutes, capacity, schedule, mergeMode);
+        }
 
-        timeSlots = timeSlotsRepository.save(timeSlots);
+        // Live availability is tracked per slot row; the compact schedule keeps what was published
+        slotRepository.insertSlots(providerId, scheduleDate, slotMinutes, capacity);
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.scheduleCreated(
+                providerId, scheduleDate, slotMinutes, seats(slotMinutes, capacity)));
         log.info("Schedule created with ID: {} containing {} time slots", 
-                timeSlots.getId(), request.slots().size());
+                createdId.get(), slotMinutes.size());
 
-        return mapToScheduleResponseDto(timeSlots, "Schedule created successfully");
+        return new ScheduleResponseDto(createdId.get(), providerId, scheduleDate,
+                schedule.toSlotKeyMap(), "Schedule created successfully", null, true);
     }
 
-    public List<TimeSlotResponseDto> getAvailableSlots(Long providerId) {
-        log.info("Fetching available slots for provider ID: {}", providerId);
-        
-        LocalDate today = LocalDate.now();
-        List<ProviderTimeSlots> providerSlots = timeSlotsRepository
-                .findByProviderIdAndScheduleDateGreaterThanEqual(providerId, today);
-        
-        if (providerSlots.isEmpty()) {
-            log.info("No schedules found for provider ID: {}", providerId);
-            return Collections.emptyList();
-        }
-
-        List<TimeSlotResponseDto> availableSlots = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+    private ScheduleResponseDto mergeIntoExistingSchedule(Long providerId, LocalDate scheduleDate,
+                                                          Map<Integer, Boolean> slotMinutes, int capacity,
+                                                          SlotSchedule schedule, ScheduleMergeMode mergeMode) {
+        ProviderTimeSlots existing = timeSlotsRepository.findForUpdate(providerId, scheduleDate)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Schedule for provider " + providerId + " on date " + scheduleDate + " was removed concurrently"));
+
+        // A retried request is answered with the day it already created
+        if (existing.getSlots().equals(schedule)) {
+            log.info("Schedule for provider ID: {} on date: {} already published, nothing to do", providerId, scheduleDate);
+            return mapToScheduleResponseDto(existing, "Schedule already exists");
+        }
+        if (mergeMode == ScheduleMergeMode.CREATE_ONLY) {
+            throw new ScheduleConflictException(
+                    "Schedule already exists for provider " + providerId + 
+                    " on date " + scheduleDate);
+        }
+
+        Map<Integer, Boolean> published = existing.getSlots().toMinuteMap();
+        Map<Integer, Boolean> added = new LinkedHashMap<>();
+        slotMinutes.forEach((minute, isAvailable) -> {
+            if (!published.containsKey(minute)) {
+                added.put(minute, isAvailable);
+            }
+        });
+        if (added.isEmpty()) {
+            return mapToScheduleResponseDto(existing, "Schedule already contains all requested slots");
+        }
+
+        slotRepository.mergeSlots(providerId, scheduleDate, added, capacity);
+        published.putAll(added);
+        int addedOpen = (int) added.values().stream().filter(Boolean::booleanValue).count();
+        // The day row is locked, so these absolute writes cannot lose a concurrent counter adjustment
+        existing.setSlots(SlotSchedule.of(published));
+        existing.setTotalSlots(existing.getTotalSlots() + added.size());
+        existing.setOpenSlots(existing.getOpenSlots() + addedOpen);
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.slotsUpdated(
+                providerId, scheduleDate, added, seats(added, capacity)));
+        log.info("Merged {} new slot(s) into schedule ID: {}", added.size(), existing.getId());
+
+        return mapToScheduleResponseDto(existing, "Schedule merged successfully");
+    }
+
+    // Touches only the listed provider_slot rows plus the day's small summary row, instead of rewriting the day
+    @Transactional
+    public ScheduleResponseDto patchScheduleSlots(Long providerId, LocalDate scheduleDate,
+                                                  PatchScheduleSlotsRequestDto request) {
+        List<Integer> add = toMinutes(request.add());
+        List<Integer> remove = toMinutes(request.remove());
+        List<Integer> open = toMinutes(request.open());
+        List<Integer> close = toMinutes(request.close());
+        log.info("Patching schedule for provider ID: {} on date: {} (add {}, remove {}, open {}, close {})",
+                providerId, scheduleDate, add.size(), remove.size(), open.size(), close.size());
+
+        Set<Integer> touched = new HashSet<>();
+        for (List<Integer> minutes : List.of(add, remove, open, close)) {
+            for (Integer minute : minutes) {
+                if (!touched.add(minute)) {
+                    throw new IllegalArgumentException(
+                            "Slot " + SlotKeys.toLocalTime(minute) + " appears more than once in the patch");
+                }
+            }
+        }
+        if (touched.isEmpty()) {
+            throw new IllegalArgumentException("Patch contains no slot changes");
+        }
+
+        ProviderTimeSlots day = timeSlotsRepository.findForUpdate(providerId, scheduleDate)
+                .orElseThrow(() -> new ProviderTimeSlotsNotFoundException(
+                        "No schedule found for provider " + providerId + " on date " + scheduleDate));
+        Map<Integer, Boolean> published = day.getSlots().toMinuteMap();
+        for (Integer minute : add) {
+            if (published.containsKey(minute)) {
+                throw new IllegalArgumentException("Slot " + SlotKeys.toLocalTime(minute) + " already exists");
+            }
+        }
+        for (Integer minute : touched) {
+            if (!add.contains(minute) && !published.containsKey(minute)) {
+                throw new IllegalArgumentException(
+                        "Slot time " + SlotKeys.toLocalTime(minute) + " does not exist in the schedule");
+            }
+        }
+
+        int addCapacity = resolveCapacity(request.addCapacity());
+        Map<Integer, Boolean> added = new LinkedHashMap<>();
+        add.forEach(minute -> added.put(minute, true));
+        slotRepository.insertSlots(providerId, scheduleDate, added, addCapacity);
+        int[] removed = slotRepository.deleteAvailableSlots(providerId, toSlotTimes(scheduleDate, remove));
+        for (int i = 0; i < removed.length; i++) {
+            if (removed[i] == 0) {
+                throw new SlotNotAvailableException(
+                        "Slot " + SlotKeys.toLocalTime(remove.get(i)) + " is booked and cannot be removed");
+            }
+        }
+        List<LocalDateTime> openTimes = toSlotTimes(scheduleDate, open);
+        List<LocalDateTime> closeTimes = toSlotTimes(scheduleDate, close);
+        // Only provider-closed slots reopen, so seats held by bookings are never given back here
+        List<SeatChange> opened = seatChanges(providerId, openTimes,
+                slotRepository.openSlots(providerId, openTimes), SeatMove.OPEN);
+        List<SeatChange> closed = seatChanges(providerId, closeTimes,
+                slotRepository.closeSlots(providerId, closeTimes), SeatMove.CLOSE);
 
-        for (ProviderTimeSlots pts : providerSlots) {
-            for (Map.Entry<String, Boolean> entry : pts.getSlots().entrySet()) {
-                try {
-                    LocalDateTime slotTime;
-                    String slotKey = entry.getKey();
-                    
-                    // Try to parse as full datetime first
-                    if (slotKey.contains("T")) {
-                        slotTime = LocalDateTime.parse(slotKey);
-                    } else {
-                        // If it's just time (HH:mm:ss), combine with schedule date
-                        slotTime = LocalDateTime.of(pts.getScheduleDate(), 
-                                java.time.LocalTime.parse(slotKey));
-                    }
-                    
-                    Boolean isAvailable = entry.getValue();
-                    
-                    // Only include future slots that are available
-                    if (slotTime.isAfter(now) && isAvailable) {
-                        availableSlots.add(new TimeSlotResponseDto(slotTime, isAvailable));
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to parse slot time: {}", entry.getKey(), e);
+        // In-memory consumers cannot undefine a slot, so removed slots are announced as unavailable
+        Map<Integer, Boolean> changes = new TreeMap<>(added);
+        Map<Integer, Integer> seats = new HashMap<>(seats(added, addCapacity));
+        int openDelta = added.size() - remove.size();
+        for (Integer minute : remove) {
+            published.remove(minute);
+            changes.put(minute, false);
+        }
+        open.forEach(minute -> published.put(minute, true));
+        close.forEach(minute -> published.put(minute, false));
+        for (List<SeatChange> seatChanges : List.of(opened, closed)) {
+            for (SeatChange change : seatChanges) {
+                int minute = SlotKeys.toMinuteOfDay(change.slotTime().toLocalTime());
+                published.put(minute, change.isAvailable());
+                changes.put(minute, change.isAvailable());
+                if (change.remainingSeats() != null) {
+                    seats.put(minute, change.remainingSeats());
+                }
+                if (change.flipped()) {
+                    openDelta += change.isAvailable() ? 1 : -1;
                 }
             }
         }
+        published.putAll(added);
+
+        // The day row is locked, so these absolute writes cannot lose a concurrent counter adjustment
+        day.setSlots(SlotSchedule.of(published));
+        day.setTotalSlots(day.getTotalSlots() + added.size() - remove.size());
+        day.setOpenSlots(day.getOpenSlots() + openDelta);
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.slotsUpdated(
+                    providerId, scheduleDate, changes, seats));
+        }
+        log.info("Patched {} slot(s) of schedule ID: {}", changes.size(), day.getId());
+
+        return mapToScheduleResponseDto(day, "Schedule slots updated successfully");
+    }
+
+    private static List<Integer> toMinutes(List<LocalTime> times) {
+        if (times == null) {
+            return List.of();
+        }
+        List<Integer> minutes = new ArrayList<>(times.size());
+        for (LocalTime time : times) {
+            minutes.add(SlotKeys.toMinuteOfDay(time));
+        }
+        return minutes;
+    }
+
+    private static List<LocalDateTime> toSlotTimes(LocalDate scheduleDate, List<Integer> minutes) {
+        List<LocalDateTime> slotTimes = new ArrayList<>(minutes.size());
+        for (Integer minute : minutes) {
+            slotTimes.add(LocalDateTime.of(scheduleDate, SlotKeys.toLocalTime(minute)));
+        }
+        return slotTimes;
+    }
+
+    // Expands a weekly pattern with one existence query and one JDBC batch per table, instead of
+    // a createSchedule round trip per day; days that already have a schedule are skipped.
+    // REPEATABLE READ is MySQL's default, pinned here because insertSchedules reads its own rows back
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ScheduleTemplateResponseDto createSchedulesFromTemplate(CreateScheduleTemplateRequestDto request) {
+        log.info("Creating schedules from template for provider ID: {} starting {} for {} week(s)",
+                request.providerId(), request.startDate(), request.weeks());
+
+        if (request.weeks() > maxTemplateWeeks) {
+            throw new IllegalArgumentException("Template cannot span more than " + maxTemplateWeeks + " weeks");
+        }
+        int capacity = resolveCapacity(request.slotCapacity());
+        Map<Integer, Boolean> slotMinutes = templateSlots(
+                request.startTime(), request.endTime(), request.slotDurationMinutes());
+        SlotSchedule schedule = SlotSchedule.of(slotMinutes);
+
+        Long providerId = request.providerId();
+        LocalDate endDate = request.startDate().plusWeeks(request.weeks());
+        Set<LocalDate> existingDates = new HashSet<>(
+                timeSlotsRepository.findScheduleDates(providerId, request.startDate(), endDate));
+
+        List<LocalDate> newDates = new ArrayList<>();
+        List<LocalDate> skippedDates = new ArrayList<>();
+        for (LocalDate date = request.startDate(); date.isBefore(endDate); date = date.plusDays(1)) {
+            if (!request.daysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            (existingDates.contains(date) ? skippedDates : newDates).add(date);
+        }
+
+        // A day created concurrently since the lookup is skipped too; only inserted days get slots and events
+        List<LocalDate> createdDates = timeSlotsRepository.insertSchedules(providerId, newDates, schedule);
+        if (createdDates.size() < newDates.size()) {
+            Set<LocalDate> created = new HashSet<>(createdDates);
+            newDates.stream().filter(date -> !created.contains(date)).forEach(skippedDates::add);
+            Collections.sort(skippedDates);
+        }
+        slotRepository.insertSlots(providerId, createdDates, slotMinutes, capacity);
+        Map<Integer, Integer> seats = seats(slotMinutes, capacity);
+        for (LocalDate date : createdDates) {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.scheduleCreated(
+                    providerId, date, slotMinutes, seats));
+        }
+        log.info("Created {} schedule(s) with {} slots each for provider ID: {}, skipped {} existing",
+                createdDates.size(), schedule.size(), providerId, skippedDates.size());
+
+        return new ScheduleTemplateResponseDto(providerId, request.startDate(), endDate.minusDays(1),
+                schedule.size(), createdDates, skippedDates, "Schedules created successfully");
+    }
+
+    private int resolveCapacity(Integer capacity) {
+        if (capacity == null) {
+            return 1;
+        }
+        if (capacity < 1 || capacity > maxSlotCapacity) {
+            throw new IllegalArgumentException("Slot capacity must be between 1 and " + maxSlotCapacity);
+        }
+        return capacity;
+    }
+
+    // Remaining seats of newly published multi-seat slots, for the index's seat mirror
+    private static Map<Integer, Integer> seats(Map<Integer, Boolean> slots, int capacity) {
+        if (capacity == 1) {
+            return Map.of();
+        }
+        Map<Integer, Integer> seats = new HashMap<>();
+        slots.forEach((minute, isAvailable) -> seats.put(minute, Boolean.TRUE.equals(isAvailable) ? capacity : 0));
+        return seats;
+    }
+
+    private static Map<Integer, Boolean> templateSlots(LocalTime startTime, LocalTime endTime, int durationMinutes) {
+        int start = SlotKeys.toMinuteOfDay(startTime);
+        int end = SlotKeys.toMinuteOfDay(endTime);
+        if (end <= start) {
+            throw new IllegalArgumentException("Template end time must be after its start time");
+        }
+        Map<Integer, Boolean> slots = new LinkedHashMap<>();
+        for (int minute = start; minute + durationMinutes <= end; minute += durationMinutes) {
+            slots.put(minute, true);
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Template produces no slots between " + startTime + " and " + endTime);
+        }
+        return slots;
+    }
+
+    public List<TimeSlotResponseDto> getAvailableSlots(Long providerId) {
+        return getAvailableSlots(providerId, null, null, null, null).slots();
+    }
+
+    public AvailableSlotsWindowDto getAvailableSlots(Long providerId, LocalDateTime from, LocalDateTime to,
+                                                     Integer days, String continuationToken) {
+        LocalDateTime now = LocalDateTime.now();
+        int windowDays = resolveWindowDays(days);
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            SlotWindow next = decodeContinuationToken(continuationToken);
+            from = next.from();
+            to = null;
+            windowDays = next.days();
+        }
+        LocalDateTime windowFrom = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowTo = to != null ? to : windowFrom.plusDays(windowDays);
+        if (!windowTo.isAfter(windowFrom)) {
+            throw new IllegalArgumentException("Window end must be after its start");
+        }
+        if (windowTo.isAfter(windowFrom.plusDays(maxWindowDays))) {
+            throw new IllegalArgumentException("Window cannot be longer than " + maxWindowDays + " days");
+        }
+
+        log.info("Fetching available slots for provider ID: {} between {} and {}", providerId, windowFrom, windowTo);
+
+        // Served from the bitset index, already sorted by slot time; cached lists are sliced with two binary searches
+        CachedSlots cached = availableSlotsCache.get(providerId, id -> loadCachedSlots(id, now));
+        List<TimeSlotResponseDto> availableSlots;
+        if (!windowTo.isAfter(cached.coversTo())) {
+            availableSlots = cached.slots().subList(
+                    firstSlotAtOrAfter(cached.slots(), windowFrom), firstSlotAtOrAfter(cached.slots(), windowTo));
+        } else {
+            availableSlots = slotAvailabilityIndex.getAvailableSlots(providerId, windowFrom, windowTo);
+        }
+
+        // Only hand out a token while the provider has published schedules beyond this window
+        String nextToken = cached.lastScheduleDate() != null && !cached.lastScheduleDate().isBefore(windowTo.toLocalDate())
+                ? encodeContinuationToken(new SlotWindow(windowTo, windowDays))
+                : null;
 
-        // Sort by time
-        availableSlots.sort(Comparator.comparing(TimeSlotResponseDto::slotTime));
-        
         log.info("Found {} available slots for provider ID: {}", availableSlots.size(), providerId);
-        
-        return availableSlots;
+
+        return new AvailableSlotsWindowDto(availableSlots, windowFrom, windowTo, nextToken);
+    }
+
+    // Start times whose run of consecutive slots covers the duration, straight from the index's per-day run bitmaps
+    public AvailableStartsDto getAvailableStarts(Long providerId, int durationMinutes,
+                                                 LocalDateTime from, LocalDateTime to) {
+        validateDuration(durationMinutes);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowFrom = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowTo = to != null ? to : windowFrom.plusDays(defaultWindowDays);
+        if (!windowTo.isAfter(windowFrom)) {
+            throw new IllegalArgumentException("Window end must be after its start");
+        }
+        if (windowTo.isAfter(windowFrom.plusDays(maxWindowDays))) {
+            throw new IllegalArgumentException("Window cannot be longer than " + maxWindowDays + " days");
+        }
+
+        log.info("Fetching {}-minute start times for provider ID: {} between {} and {}",
+                durationMinutes, providerId, windowFrom, windowTo);
+
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        slotAvailabilityIndex.availableStartIterator(providerId, windowFrom, windowTo, durationMinutes)
+                .forEachRemaining(startTimes::add);
+
+        log.info("Found {} start times for provider ID: {}", startTimes.size(), providerId);
+
+        return new AvailableStartsDto(providerId, durationMinutes, startTimes, windowFrom, windowTo);
+    }
+
+    // One row per published day, straight from the maintained counters
+    @Transactional(readOnly = true)
+    public List<DayAvailabilitySummaryDto> getMonthSummary(Long providerId, YearMonth month) {
+        log.info("Fetching availability summary for provider ID: {} for month: {}", providerId, month);
+        return timeSlotsRepository.findDaySummaries(
+                providerId, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    private CachedSlots loadCachedSlots(Long providerId, LocalDateTime now) {
+        LocalDateTime coversTo = now.toLocalDate().plusDays(maxWindowDays + 1L).atStartOfDay();
+        return new CachedSlots(
+                List.copyOf(slotAvailabilityIndex.getAvailableSlots(providerId, now, coversTo)),
+                coversTo,
+                slotRepository.findLastScheduleDate(providerId));
+    }
+
+    private int resolveWindowDays(Integer days) {
+        if (days == null) {
+            return defaultWindowDays;
+        }
+        if (days < 1 || days > maxWindowDays) {
+            throw new IllegalArgumentException("Days must be between 1 and " + maxWindowDays);
+        }
+        return days;
+    }
+
+    private static String encodeContinuationToken(SlotWindow window) {
+        String raw = window.from() + "|" + window.days();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SlotWindow decodeContinuationToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new SlotWindow(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+    }
+
+    private record SlotWindow(LocalDateTime from, int days) {
+    }
+
+    // Slots in [loadedAt, coversTo) plus the provider's last published date, for continuation tokens
+    private record CachedSlots(List<TimeSlotResponseDto> slots, LocalDateTime coversTo, LocalDate lastScheduleDate) {
+    }
+
+    // Runs after commit, and after the index has applied the change (see SlotAvailabilityIndex ordering),
+    // so a rolled-back transaction never evicts and a reload never sees pre-commit state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        availableSlotsCache.invalidate(event.providerId());
+    }
+
+    private static int firstSlotAtOrAfter(List<TimeSlotResponseDto> slots, LocalDateTime time) {
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slots.get(mid).slotTime().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Transactional
+    public void reserveSlot(Long providerId, LocalDateTime slotTime) {
+        log.info("Reserving slot for provider ID: {} at time: {}", providerId, slotTime);
+
+        takeSeat(providerId, slotTime);
+
+        log.info("Slot reserved successfully");
     }
 
     @Transactional
@@ -112,39 +520,255 @@ public class ProviderScheduleService {
                 providerId, slotTime, isAvailable);
 
         LocalDate scheduleDate = slotTime.toLocalDate();
-        ProviderTimeSlots timeSlots = timeSlotsRepository
-                .findByProviderIdAndScheduleDate(providerId, scheduleDate)
-                .orElseThrow(() -> new ProviderTimeSlotsNotFoundException(
-                        "No schedule found for provider " + providerId + " on date " + scheduleDate));
+        int slotMinute = SlotKeys.toMinuteOfDay(slotTime.toLocalTime());
 
-        // Extract just the time portion (HH:mm:ss) to match database format
-        String slotKey = slotTime.toLocalTime().toString();
-        if (!timeSlots.getSlots().containsKey(slotKey)) {
-            throw new IllegalArgumentException(
-                    "Slot time " + slotTime + " does not exist in the schedule");
+        int updated = Boolean.TRUE.equals(isAvailable)
+                ? slotRepository.releaseSlot(providerId, scheduleDate, slotMinute)
+                : slotRepository.reserveSlot(providerId, scheduleDate, slotMinute);
+
+        if (updated == 0) {
+            // Either the slot does not exist or it has no seat left to take or give back
+            verifySlotExists(providerId, slotTime);
+            log.info("Slot at time: {} already has availability: {}", slotTime, isAvailable);
+            return;
         }
+        applySlotChanges(providerId, List.of(slotTime), new int[] {updated},
+                Boolean.TRUE.equals(isAvailable) ? SeatMove.RELEASE : SeatMove.TAKE);
 
-        // Update the slot availability
-        timeSlots.getSlots().put(slotKey, isAvailable);
-        timeSlotsRepository.save(timeSlots);
-        
         log.info("Slot availability updated successfully");
     }
 
-    public boolean isSlotAvailable(Long providerId, LocalDateTime slotTime) {
-        LocalDate scheduleDate = slotTime.toLocalDate();
-        Optional<ProviderTimeSlots> timeSlotsOpt = timeSlotsRepository
-                .findByProviderIdAndScheduleDate(providerId, scheduleDate);
+    @Transactional
+    public void releaseSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        log.info("Releasing {} slot(s) for provider ID: {}", slotTimes.size(), providerId);
+
+        applySlotChanges(providerId, slotTimes, slotRepository.releaseSlots(providerId, slotTimes), SeatMove.RELEASE);
+    }
+
+    // All-or-nothing callers roll back when anything is returned, which also releases the slots that were taken
+    @Transactional
+    public List<LocalDateTime> reserveSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        log.info("Reserving {} slot(s) for provider ID: {}", slotTimes.size(), providerId);
+
+        int[] reserved = slotRepository.reserveSlots(providerId, slotTimes);
+        applySlotChanges(providerId, slotTimes, reserved, SeatMove.TAKE);
+        List<LocalDateTime> unavailable = new ArrayList<>();
+        for (int i = 0; i < reserved.length; i++) {
+            if (reserved[i] == 0) {
+                unavailable.add(slotTimes.get(i));
+            }
+        }
+        return unavailable;
+    }
+
+    /**
+     * Books the consecutive slots covering {@code durationMinutes} from
+     * {@code startTime} as one batch of conditional updates. Losing any of them
+     * throws, so the surrounding transaction rolls back the ones already taken.
+     */
+    @Transactional
+    public void reserveSlotRun(Long providerId, LocalDateTime startTime, int durationMinutes) {
+        validateDuration(durationMinutes);
+        List<LocalDateTime> run = slotRun(providerId, startTime, durationMinutes);
+        if (run == null) {
+            throw new SlotNotAvailableException("No " + durationMinutes +
+                    "-minute run of consecutive slots is published at: " + startTime);
+        }
+        if (!reserveSlots(providerId, run).isEmpty()) {
+            throw new SlotNotAvailableException("Time slots are not available for a " + durationMinutes +
+                    "-minute appointment at: " + startTime);
+        }
+    }
+
+    // Slots an appointment occupies, for releasing it; if the schedule changed since, only its start is released
+    @Transactional(readOnly = true)
+    public List<LocalDateTime> bookedSlots(Long providerId, LocalDateTime startTime, Integer durationMinutes) {
+        if (durationMinutes == null) {
+            return List.of(startTime);
+        }
+        List<LocalDateTime> run = slotRun(providerId, startTime, durationMinutes);
+        return run != null ? run : List.of(startTime);
+    }
+
+    // Slot times of the run, from the day's published schedule, or null when the run is not fully published there
+    private List<LocalDateTime> slotRun(Long providerId, LocalDateTime startTime, int durationMinutes) {
+        LocalDate scheduleDate = startTime.toLocalDate();
+        int[] minutes = timeSlotsRepository.findByProviderIdAndScheduleDate(providerId, scheduleDate)
+                .map(timeSlots -> timeSlots.getSlots().runFrom(
+                        SlotKeys.toMinuteOfDay(startTime.toLocalTime()), durationMinutes))
+                .orElse(null);
+        if (minutes == null) {
+            return null;
+        }
+        List<LocalDateTime> run = new ArrayList<>(minutes.length);
+        for (int minute : minutes) {
+            run.add(LocalDateTime.of(scheduleDate, SlotKeys.toLocalTime(minute)));
+        }
+        return run;
+    }
 
-        if (timeSlotsOpt.isEmpty()) {
-            return false;
+    private void validateDuration(int durationMinutes) {
+        if (durationMinutes < 1 || durationMinutes > maxDurationMinutes) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDurationMinutes + " minutes");
         }
+    }
+
+    // Why each slot that cannot be booked right now cannot be, from one batched lookup
+    @Transactional(readOnly = true)
+    public Map<LocalDateTime, String> findUnbookableSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        Map<LocalDateTime, ProviderSlotView> slots = findSlots(providerId, slotTimes);
+
+        Map<LocalDateTime, String> unbookable = new LinkedHashMap<>();
+        for (LocalDateTime slotTime : slotTimes) {
+            ProviderSlotView slot = slots.get(slotTime);
+            if (slot == null) {
+                unbookable.put(slotTime, "No slot is published at this time");
+            } else if (slot.getState() == SlotState.CLOSED) {
+                unbookable.put(slotTime, "Time slot is closed by the provider");
+            } else if (slot.getState() != SlotState.AVAILABLE) {
+                unbookable.put(slotTime, "Time slot is not available for booking");
+            }
+        }
+        return unbookable;
+    }
+
+    @Transactional
+    public void holdSlot(Long providerId, LocalDateTime slotTime) {
+        log.info("Holding slot for provider ID: {} at time: {}", providerId, slotTime);
+
+        // A hold takes a seat like a booking does; only its slot_hold row tells the two apart
+        takeSeat(providerId, slotTime);
+    }
+
+    // Single conditional UPDATE taking one seat; losing the race for the last seat shows up as zero affected rows
+    private void takeSeat(Long providerId, LocalDateTime slotTime) {
+        int slotMinute = SlotKeys.toMinuteOfDay(slotTime.toLocalTime());
+        if (slotRepository.reserveSlot(providerId, slotTime.toLocalDate(), slotMinute) == 0) {
+            throw new SlotNotAvailableException(
+                    "Time slot is not available for booking for time slot: " + slotTime);
+        }
+        applySlotChanges(providerId, List.of(slotTime), new int[] {1}, SeatMove.TAKE);
+    }
+
+    @Transactional
+    public void releaseHeldSlots(Long providerId, List<LocalDateTime> slotTimes) {
+        log.info("Releasing {} held slot(s) for provider ID: {}", slotTimes.size(), providerId);
+
+        applySlotChanges(providerId, slotTimes, slotRepository.releaseSlots(providerId, slotTimes), SeatMove.RELEASE);
+    }
+
+    private void applySlotChanges(Long providerId, List<LocalDateTime> slotTimes, int[] changed, SeatMove move) {
+        Map<LocalDate, Integer> flippedPerDay = new TreeMap<>();
+        for (SeatChange change : seatChanges(providerId, slotTimes, changed, move)) {
+            LocalDate scheduleDate = change.slotTime().toLocalDate();
+            int slotMinute = SlotKeys.toMinuteOfDay(change.slotTime().toLocalTime());
+            if (change.flipped()) {
+                flippedPerDay.merge(scheduleDate, change.isAvailable() ? 1 : -1, Integer::sum);
+            }
+            eventPublisher.publishEvent(change.remainingSeats() == null
+                    ? SlotAvailabilityChangedEvent.slotUpdated(providerId, scheduleDate, slotMinute, change.isAvailable())
+                    : SlotAvailabilityChangedEvent.seatsUpdated(providerId, scheduleDate, slotMinute,
+                            change.isAvailable(), change.remainingSeats()));
+        }
+        // open_slots counts slots with a free seat, so only seats that filled or freed a slot move it
+        flippedPerDay.forEach((date, delta) -> {
+            if (delta != 0) {
+                timeSlotsRepository.adjustOpenSlots(providerId, date, delta);
+            }
+        });
+    }
 
-        // Extract just the time portion (HH:mm:ss) to match database format
-        String slotKey = slotTime.toLocalTime().toString();
-        Map<String, Boolean> slots = timeSlotsOpt.get().getSlots();
-        
-        return slots.containsKey(slotKey) && slots.get(slotKey);
+    /**
+     * Outcome of the conditional updates, read back in one query from the rows
+     * this transaction has just updated, and so locked. A slot listed more than
+     * once moved one seat per update that hit it.
+     */
+    private List<SeatChange> seatChanges(Long providerId, List<LocalDateTime> slotTimes, int[] changed,
+                                         SeatMove move) {
+        Map<LocalDateTime, Integer> moved = new LinkedHashMap<>();
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] > 0) {
+                moved.merge(slotTimes.get(i), changed[i], Integer::sum);
+            }
+        }
+        if (moved.isEmpty()) {
+            return List.of();
+        }
+
+        Map<LocalDateTime, ProviderSlotView> rows = findSlots(providerId, moved.keySet());
+        List<SeatChange> seatChanges = new ArrayList<>(moved.size());
+        moved.forEach((slotTime, count) -> {
+            ProviderSlotView row = rows.get(slotTime);
+            int remaining = row.getCapacity() - row.getBooked();
+            boolean isAvailable = row.getState() == SlotState.AVAILABLE;
+            boolean wasAvailable = switch (move) {
+                case TAKE -> true;
+                case RELEASE -> row.getState() != SlotState.CLOSED && remaining - count > 0;
+                case OPEN -> false;
+                case CLOSE -> remaining > 0;
+            };
+            seatChanges.add(new SeatChange(slotTime, isAvailable, isAvailable != wasAvailable,
+                    row.getCapacity() > 1 ? remaining : null));
+        });
+        return seatChanges;
+    }
+
+    private Map<LocalDateTime, ProviderSlotView> findSlots(Long providerId, Collection<LocalDateTime> slotTimes) {
+        Set<LocalDate> dates = new HashSet<>();
+        Set<Short> minutes = new HashSet<>();
+        for (LocalDateTime slotTime : slotTimes) {
+            dates.add(slotTime.toLocalDate());
+            minutes.add((short) SlotKeys.toMinuteOfDay(slotTime.toLocalTime()));
+        }
+        // The query covers every date and minute pair, so it may return slots that were not asked for
+        Map<LocalDateTime, ProviderSlotView> slots = new HashMap<>();
+        for (ProviderSlotView slot : slotRepository.findSlotStatesAt(providerId, dates, minutes)) {
+            slots.put(LocalDateTime.of(slot.getScheduleDate(), SlotKeys.toLocalTime(slot.getSlotMinute())), slot);
+        }
+        return slots;
+    }
+
+    // What a batch of conditional updates did to each slot it hit
+    private enum SeatMove {
+        TAKE,
+        RELEASE,
+        OPEN,
+        CLOSE
+    }
+
+    // remainingSeats is null for single-seat slots, whose availability says it all
+    private record SeatChange(LocalDateTime slotTime, boolean isAvailable, boolean flipped, Integer remainingSeats) {
+    }
+
+    // Served from the index, which may load committed rows; callers must not be inside a write transaction
+    public boolean hasSharedSeats(Long providerId, LocalDateTime slotTime) {
+        return slotAvailabilityIndex.hasSharedSeats(providerId, slotTime);
+    }
+
+    public boolean isSlotAvailable(Long providerId, LocalDateTime slotTime) {
+        return getRemainingCapacity(providerId, slotTime) > 0;
+    }
+
+    // Zero when the slot does not exist
+    public int getRemainingCapacity(Long providerId, LocalDateTime slotTime) {
+        return slotRepository.findRemainingSeats(
+                providerId,
+                slotTime.toLocalDate(),
+                (short) SlotKeys.toMinuteOfDay(slotTime.toLocalTime())).orElse(0);
+    }
+
+    private void verifySlotExists(Long providerId, LocalDateTime slotTime) {
+        LocalDate scheduleDate = slotTime.toLocalDate();
+        short slotMinute = (short) SlotKeys.toMinuteOfDay(slotTime.toLocalTime());
+        if (slotRepository.existsByProviderIdAndScheduleDateAndSlotMinute(providerId, scheduleDate, slotMinute)) {
+            return;
+        }
+        if (timeSlotsRepository.findByProviderIdAndScheduleDate(providerId, scheduleDate).isEmpty()) {
+            throw new ProviderTimeSlotsNotFoundException(
+                    "No schedule found for provider " + providerId + " on date " + scheduleDate);
+        }
+        throw new IllegalArgumentException(
+                "Slot time " + slotTime + " does not exist in the schedule");
     }
 
     private ScheduleResponseDto mapToScheduleResponseDto(ProviderTimeSlots timeSlots, String message) {
@@ -152,9 +776,10 @@ public class ProviderScheduleService {
                 timeSlots.getId(),
                 timeSlots.getProviderId(),
                 timeSlots.getScheduleDate(),
-                timeSlots.getSlots(),
+                timeSlots.getSlots().toSlotKeyMap(),
                 message,
-                null
+                null,
+                false
         );
     }
 }
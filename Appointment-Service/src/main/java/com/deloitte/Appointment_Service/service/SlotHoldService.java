@@ -0,0 +1,226 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.dto.CreateSlotHoldRequestDto;
+import com.deloitte.Appointment_Service.dto.SlotHoldResponseDto;
+import com.deloitte.Appointment_Service.exception.SlotHoldNotFoundException;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.hold.HoldTimerWheel;
+import com.deloitte.Appointment_Service.model.SlotHold;
+import com.deloitte.Appointment_Service.repository.SlotHoldDeadline;
+import com.deloitte.Appointment_Service.repository.SlotHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Short-lived slot holds for two-phase booking. A hold takes one of the slot's
+ * seats and records a slot_hold row; its expiry is a single entry in a
+ * {@link HoldTimerWheel} rather than a scheduled task, and expired holds are
+ * released in batches. Outstanding holds are reloaded into the wheel on startup.
+ */
+@Service
+public class SlotHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotHoldService.class);
+
+    private static final int RECOVERY_PAGE_SIZE = 1000;
+
+    private final SlotHoldRepository holdRepository;
+    private final ProviderScheduleService scheduleService;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldTimerWheel timerWheel;
+    private final Counter expiredHolds;
+
+    @Value("${appointment.slot-hold.default-seconds:120}")
+    private int defaultHoldSeconds;
+
+    @Value("${appointment.slot-hold.max-seconds:900}")
+    private int maxHoldSeconds;
+
+    public SlotHoldService(SlotHoldRepository holdRepository,
+                           ProviderScheduleService scheduleService,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${appointment.slot-hold.timer.tick-millis:1000}") long tickMillis,
+                           @Value("${appointment.slot-hold.timer.wheel-size:512}") int wheelSize,
+                           @Value("${appointment.slot-hold.timer.expiry-batch-size:500}") int expiryBatchSize) {
+        this.holdRepository = holdRepository;
+        this.scheduleService = scheduleService;
+        this.transactionTemplate = transactionTemplate;
+        this.timerWheel = new HoldTimerWheel(tickMillis, wheelSize, expiryBatchSize, this::expireHolds);
+
+        Gauge.builder("appointment.slot.holds.pending", timerWheel, HoldTimerWheel::pendingCount)
+                .description("Slot holds waiting for expiry in the timer wheel")
+                .register(meterRegistry);
+        this.expiredHolds = Counter.builder("appointment.slot.holds.expired")
+                .description("Slot holds released because they expired")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        timerWheel.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        timerWheel.stop();
+    }
+
+    public SlotHoldResponseDto hold(CreateSlotHoldRequestDto request) {
+        int holdSeconds = resolveHoldSeconds(request.holdSeconds());
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdSeconds);
+
+        SlotHold hold = transactionTemplate.execute(status -> {
+            scheduleService.holdSlot(request.providerId(), request.appointmentDateTime());
+            return holdRepository.save(SlotHold.builder()
+                    .id(UUID.randomUUID().toString())
+                    .patientId(request.patientId())
+                    .providerId(request.providerId())
+                    .slotTime(request.appointmentDateTime())
+                    .expiresAt(expiresAt)
+                    .build());
+        });
+        scheduleExpiry(hold.getId(), expiresAt);
+
+        log.info("Slot hold ID: {} created for patient ID: {} until {}", hold.getId(), hold.getPatientId(), expiresAt);
+        return mapToSlotHoldResponseDto(hold, "Slot held successfully");
+    }
+
+    public SlotHoldResponseDto release(String holdId, Long patientId) {
+        SlotHold hold = transactionTemplate.execute(status -> {
+            SlotHold existing = getHold(holdId, patientId);
+            if (holdRepository.deleteByIdAndPatientId(holdId, patientId) == 0) {
+                throw new SlotHoldNotFoundException("No active slot hold found with ID: " + holdId);
+            }
+            scheduleService.releaseHeldSlots(existing.getProviderId(), List.of(existing.getSlotTime()));
+            return existing;
+        });
+        timerWheel.cancel(holdId);
+
+        log.info("Slot hold ID: {} released by patient ID: {}", holdId, patientId);
+        return mapToSlotHoldResponseDto(hold, "Slot hold released successfully");
+    }
+
+    // Call inside the booking transaction; deleting the row first means expiry and release find nothing left to free
+    public SlotHold claim(String holdId, Long patientId) {
+        SlotHold hold = getHold(holdId, patientId);
+        if (holdRepository.deleteUnexpired(holdId, patientId, LocalDateTime.now()) == 0) {
+            throw new SlotNotAvailableException("Slot hold " + holdId + " has expired");
+        }
+        return hold;
+    }
+
+    // Drops the expiry timer once a claimed hold's transaction has committed
+    public void forget(String holdId) {
+        timerWheel.cancel(holdId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        String afterId = "";
+        int recovered = 0;
+        List<SlotHoldDeadline> page;
+        do {
+            page = holdRepository.findDeadlinesAfter(afterId, PageRequest.of(0, RECOVERY_PAGE_SIZE));
+            for (SlotHoldDeadline deadline : page) {
+                // Holds that expired while the service was down fire on the first tick
+                timerWheel.schedule(deadline.getId(), Duration.between(now, deadline.getExpiresAt()).toMillis());
+            }
+            recovered += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == RECOVERY_PAGE_SIZE);
+
+        log.info("Recovered {} outstanding slot hold(s) into the expiry timer", recovered);
+    }
+
+    // Runs on the timer thread with one batch of due holds, or inside the reaper's claiming transaction
+    public int expireHolds(List<String> holdIds) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<SlotHold> holds = holdRepository.findAllById(holdIds);
+            List<String> ids = new ArrayList<>(holds.size());
+            holds.forEach(hold -> ids.add(hold.getId()));
+
+            // Only rows this batch actually deleted are released, so a concurrent commit keeps its slot
+            int[] deleted = holdRepository.deleteExpired(ids, LocalDateTime.now());
+            Map<Long, List<LocalDateTime>> slotsByProvider = new HashMap<>();
+            int count = 0;
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] > 0) {
+                    SlotHold hold = holds.get(i);
+                    slotsByProvider.computeIfAbsent(hold.getProviderId(), id -> new ArrayList<>()).add(hold.getSlotTime());
+                    count++;
+                }
+            }
+            slotsByProvider.forEach(scheduleService::releaseHeldSlots);
+            return count;
+        });
+        if (expired == null || expired == 0) {
+            return 0;
+        }
+        expiredHolds.increment(expired);
+        log.debug("Expired {} slot hold(s)", expired);
+        return expired;
+    }
+
+    public SlotHold getHold(String holdId, Long patientId) {
+        return holdRepository.findById(holdId)
+                .filter(hold -> hold.getPatientId().equals(patientId))
+                .orElseThrow(() -> new SlotHoldNotFoundException("No active slot hold found with ID: " + holdId));
+    }
+
+    // Waits for an enclosing transaction, such as a waitlist offer, so a hold that rolls back is never timed
+    private void scheduleExpiry(String holdId, LocalDateTime expiresAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timerWheel.schedule(holdId, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The wheel never fires before expiresAt, however late the commit lands
+                timerWheel.schedule(holdId, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+            }
+        });
+    }
+
+    private int resolveHoldSeconds(Integer holdSeconds) {
+        if (holdSeconds == null) {
+            return defaultHoldSeconds;
+        }
+        if (holdSeconds > maxHoldSeconds) {
+            throw new IllegalArgumentException("Slot holds cannot last longer than " + maxHoldSeconds + " seconds");
+        }
+        return holdSeconds;
+    }
+
+    private SlotHoldResponseDto mapToSlotHoldResponseDto(SlotHold hold, String message) {
+        return new SlotHoldResponseDto(
+                hold.getId(),
+                hold.getPatientId(),
+                hold.getProviderId(),
+                hold.getSlotTime(),
+                hold.getExpiresAt(),
+                message
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.dto.ProviderSlotDto;
+import com.deloitte.Appointment_Service.dto.ProviderSummaryDto;
+import com.deloitte.Appointment_Service.gateway.UserServiceGateway;
+import com.deloitte.Appointment_Service.index.SlotAvailabilityIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Finds the earliest available slots across many providers. Each provider
+ * contributes a lazy, time-ordered slot iterator from the availability index;
+ * a priority queue merges their heads, so only about limit + providers slots
+ * are ever produced, however long the providers' schedules are.
+ */
+@Service
+public class SlotSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotSearchService.class);
+
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final UserServiceGateway userServiceGateway;
+
+    @Value("${appointment.slot-search.default-window-days:14}")
+    private int defaultWindowDays;
+
+    @Value("${appointment.slot-query.max-days:31}")
+    private int maxWindowDays;
+
+    @Value("${appointment.slot-search.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${appointment.slot-search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${appointment.slot-search.max-providers:500}")
+    private int maxProviders;
+
+    public SlotSearchService(SlotAvailabilityIndex slotAvailabilityIndex, UserServiceGateway userServiceGateway) {
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.userServiceGateway = userServiceGateway;
+    }
+
+    public List<ProviderSlotDto> findEarliestSlots(Collection<Long> providerIds, String speciality,
+                                                   LocalDateTime from, LocalDateTime to, Integer limit) {
+        Set<Long> providers = resolveProviders(providerIds, speciality);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(defaultWindowDays);
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("Search window end must be after its start");
+        }
+        // Each provider's iterator loads the whole window into the index, so the window is bounded like slot queries
+        if (windowEnd.isAfter(windowStart.plusDays(maxWindowDays))) {
+            throw new IllegalArgumentException("Search window cannot be longer than " + maxWindowDays + " days");
+        }
+        int resultLimit = resolveLimit(limit);
+
+        log.info("Searching earliest {} slots across {} providers between {} and {}",
+                resultLimit, providers.size(), windowStart, windowEnd);
+
+        PriorityQueue<ProviderCursor> heads = new PriorityQueue<>(Math.max(1, providers.size()));
+        for (Long providerId : providers) {
+            Iterator<LocalDateTime> slots = slotAvailabilityIndex.availableSlotIterator(providerId, windowStart, windowEnd);
+            if (slots.hasNext()) {
+                heads.add(new ProviderCursor(providerId, slots, slots.next()));
+            }
+        }
+
+        List<ProviderSlotDto> results = new ArrayList<>(resultLimit);
+        while (results.size() < resultLimit && !heads.isEmpty()) {
+            ProviderCursor cursor = heads.poll();
+            results.add(new ProviderSlotDto(cursor.providerId, cursor.head));
+            if (cursor.slots.hasNext()) {
+                cursor.head = cursor.slots.next();
+                heads.add(cursor);
+            }
+        }
+        return results;
+    }
+
+    private Set<Long> resolveProviders(Collection<Long> providerIds, String speciality) {
+        Set<Long> providers = new LinkedHashSet<>();
+        if (providerIds != null) {
+            providers.addAll(providerIds);
+        }
+        if (speciality != null && !speciality.isBlank()) {
+            // Appointment-Service identifies providers by their user ID
+            for (ProviderSummaryDto provider : userServiceGateway.getProvidersBySpeciality(speciality)) {
+                providers.add(provider.userId());
+            }
+        }
+        providers.remove(null);
+        if (providerIds == null && (speciality == null || speciality.isBlank())) {
+            throw new IllegalArgumentException("Either providerIds or speciality must be given");
+        }
+        if (providers.size() > maxProviders) {
+            throw new IllegalArgumentException("Cannot search more than " + maxProviders + " providers at once");
+        }
+        return providers;
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private static final class ProviderCursor implements Comparable<ProviderCursor> {
+
+        private final Long providerId;
+        private final Iterator<LocalDateTime> slots;
+        private LocalDateTime head;
+
+        private ProviderCursor(Long providerId, Iterator<LocalDateTime> slots, LocalDateTime head) {
+            this.providerId = providerId;
+            this.slots = slots;
+            this.head = head;
+        }
+
+        // Ties on time go to the lower provider ID so results are stable
+        @Override
+        public int compareTo(ProviderCursor other) {
+            int byTime = head.compareTo(other.head);
+            return byTime != 0 ? byTime : providerId.compareTo(other.providerId);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.dto.CreateSlotHoldRequestDto;
+import com.deloitte.Appointment_Service.dto.CreateWaitlistEntryRequestDto;
+import com.deloitte.Appointment_Service.dto.SlotHoldResponseDto;
+import com.deloitte.Appointment_Service.dto.WaitlistEntryResponseDto;
+import com.deloitte.Appointment_Service.engine.BookingEngine;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.exception.WaitlistEntryNotFoundException;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.model.WaitlistEntry;
+import com.deloitte.Appointment_Service.repository.WaitlistEntryRepository;
+import com.deloitte.Appointment_Service.waitlist.Waiter;
+import com.deloitte.Appointment_Service.waitlist.WaitlistIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-provider waitlist. When a slot is released, the best matching waiter is
+ * found in the {@link WaitlistIndex} and the slot is offered to them as a slot
+ * hold, right in the post-commit hook of the release. An offer that lapses or
+ * is released frees the slot again, which offers it to the next waiter.
+ * Offers are holds, which write slots outside the booking engine, so the
+ * waitlist is off in partitioned booking mode: joins are refused and released
+ * slots are not offered to entries left from before the switch.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final WaitlistIndex waitlistIndex;
+    private final SlotHoldService slotHoldService;
+    private final TransactionTemplate transactionTemplate;
+    // Offers run after the releasing transaction has committed, so they need a transaction of their own
+    private final TransactionTemplate offerTransactionTemplate;
+    private final Counter offersMade;
+    private final boolean partitionedBooking;
+
+    @Value("${appointment.waitlist.offer-seconds:600}")
+    private int offerSeconds;
+
+    @Value("${appointment.waitlist.max-window-days:14}")
+    private int maxWindowDays;
+
+    @Value("${appointment.waitlist.max-entries-per-patient:100}")
+    private int maxEntriesPerPatient;
+
+    public WaitlistService(WaitlistEntryRepository waitlistRepository,
+                           WaitlistIndex waitlistIndex,
+                           SlotHoldService slotHoldService,
+                           TransactionTemplate transactionTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           ObjectProvider<BookingEngine> bookingEngine) {
+        this.waitlistRepository = waitlistRepository;
+        this.waitlistIndex = waitlistIndex;
+        this.slotHoldService = slotHoldService;
+        this.transactionTemplate = transactionTemplate;
+        this.offerTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.offerTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.offersMade = Counter.builder("appointment.waitlist.offers")
+                .description("Released slots offered to waitlisted patients")
+                .register(meterRegistry);
+        this.partitionedBooking = bookingEngine.getIfAvailable() != null;
+    }
+
+    public WaitlistEntryResponseDto join(CreateWaitlistEntryRequestDto request) {
+        log.info("Adding patient ID: {} to waitlist of provider ID: {} for {} to {}",
+                request.patientId(), request.providerId(), request.windowStart(), request.windowEnd());
+
+        if (partitionedBooking) {
+            throw new IllegalArgumentException("The waitlist is not supported in partitioned booking mode");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!request.windowEnd().isAfter(request.windowStart())) {
+            throw new IllegalArgumentException("Waitlist window end must be after its start");
+        }
+        if (!request.windowEnd().isAfter(now)) {
+            throw new IllegalArgumentException("Waitlist window has already passed");
+        }
+        if (request.windowEnd().isAfter(request.windowStart().plusDays(maxWindowDays))) {
+            throw new IllegalArgumentException("Waitlist window cannot be longer than " + maxWindowDays + " days");
+        }
+
+        WaitlistEntry entry = transactionTemplate.execute(status -> waitlistRepository.save(WaitlistEntry.builder()
+                .patientId(request.patientId())
+                .providerId(request.providerId())
+                .windowStart(request.windowStart())
+                .windowEnd(request.windowEnd())
+                .priority(request.priority() != null ? request.priority() : 0)
+                .build()));
+        // Indexed only once committed, so a concurrent release cannot offer to a row that may roll back
+        waitlistIndex.add(entry.getProviderId(), Waiter.of(entry));
+
+        log.info("Waitlist entry ID: {} created for patient ID: {}", entry.getId(), entry.getPatientId());
+        return mapToWaitlistEntryResponseDto(entry, "Added to waitlist successfully");
+    }
+
+    public WaitlistEntryResponseDto cancel(Long entryId, Long patientId) {
+        log.info("Patient ID: {} leaving waitlist entry ID: {}", patientId, entryId);
+
+        WaitlistEntry entry = transactionTemplate.execute(status -> {
+            if (waitlistRepository.cancelWaiting(entryId, patientId, LocalDateTime.now()) == 0) {
+                throw new WaitlistEntryNotFoundException("No waiting waitlist entry found with ID: " + entryId);
+            }
+            return waitlistRepository.findById(entryId).orElseThrow();
+        });
+        waitlistIndex.remove(entry.getProviderId(), entryId);
+
+        return mapToWaitlistEntryResponseDto(entry, "Removed from waitlist successfully");
+    }
+
+    public List<WaitlistEntryResponseDto> getPatientEntries(Long patientId) {
+        log.info("Fetching waitlist entries for patient ID: {}", patientId);
+        return waitlistRepository.findByPatientIdOrderByIdDesc(patientId, PageRequest.of(0, maxEntriesPerPatient))
+                .stream()
+                .map(entry -> mapToWaitlistEntryResponseDto(entry, null))
+                .toList();
+    }
+
+    // Default order, so it runs after the availability index has seen the release
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        if (partitionedBooking) {
+            return; // Entries left from before the switch wait until they lapse
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Integer, Boolean> change : event.changes().entrySet()) {
+            if (!change.getValue()) {
+                continue;
+            }
+            LocalDateTime slotTime = LocalDateTime.of(event.scheduleDate(), SlotKeys.toLocalTime(change.getKey()));
+            if (slotTime.isAfter(now)) {
+                try {
+                    offerSlot(event.providerId(), slotTime);
+                } catch (RuntimeException e) {
+                    // The release itself has committed; the slot simply stays open for anyone to book
+                    log.error("Failed to offer slot at {} for provider ID: {} to waitlist",
+                            slotTime, event.providerId(), e);
+                }
+            }
+        }
+    }
+
+    private void offerSlot(Long providerId, LocalDateTime slotTime) {
+        while (true) {
+            Optional<Waiter> best = waitlistIndex.bestMatch(providerId, slotTime);
+            if (best.isEmpty()) {
+                return;
+            }
+            Waiter waiter = best.get();
+            SlotHoldResponseDto hold;
+            try {
+                hold = offerTransactionTemplate.execute(status -> offerTo(waiter, providerId, slotTime, status));
+            } catch (SlotNotAvailableException e) {
+                // Someone booked the slot between its release and this offer
+                return;
+            }
+            // Offered here, or cancelled / offered by another replica; either way it is no longer waiting
+            waitlistIndex.remove(providerId, waiter.id());
+            if (hold != null) {
+                offersMade.increment();
+                log.info("Offered slot at {} for provider ID: {} to patient ID: {} as hold ID: {}",
+                        slotTime, providerId, waiter.patientId(), hold.holdId());
+                return;
+            }
+        }
+    }
+
+    private SlotHoldResponseDto offerTo(Waiter waiter, Long providerId, LocalDateTime slotTime,
+                                        TransactionStatus status) {
+        SlotHoldResponseDto hold = slotHoldService.hold(
+                new CreateSlotHoldRequestDto(waiter.patientId(), providerId, slotTime, offerSeconds));
+        if (waitlistRepository.markOffered(waiter.id(), hold.holdId(), slotTime, hold.expiresAt(),
+                LocalDateTime.now()) == 0) {
+            status.setRollbackOnly();
+            return null;
+        }
+        return hold;
+    }
+
+    private WaitlistEntryResponseDto mapToWaitlistEntryResponseDto(WaitlistEntry entry, String message) {
+        return new WaitlistEntryResponseDto(
+                entry.getId(),
+                entry.getPatientId(),
+                entry.getProviderId(),
+                entry.getWindowStart(),
+                entry.getWindowEnd(),
+                entry.getPriority(),
+                entry.getStatus(),
+                entry.getHoldId(),
+                entry.getOfferedSlotTime(),
+                entry.getOfferExpiresAt(),
+                entry.getCreatedAt(),
+                message
+        );
+    }
+}
@@ -0,0 +1,239 @@
+package com.deloitte.Appointment_Service.stream;
+
+import com.deloitte.Appointment_Service.dto.AvailableSlotsWindowDto;
+import com.deloitte.Appointment_Service.dto.SlotAvailabilityDeltaDto;
+import com.deloitte.Appointment_Service.dto.TimeSlotResponseDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.exception.SubscriberLimitExceededException;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.service.ProviderScheduleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans slot availability changes out to Server-Sent Events subscribers. Each
+ * subscriber has a bounded queue drained by a small dispatcher pool, so the
+ * committing booking thread only enqueues; a subscriber whose queue fills up
+ * is disconnected instead of being waited on. A subscriber only receives
+ * changes inside the window of its snapshot, which is fixed when it subscribes.
+ */
+@Component
+public class SlotUpdateBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotUpdateBroadcaster.class);
+
+    private final ProviderScheduleService scheduleService;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final Counter slowSubscriberDisconnects;
+
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    public SlotUpdateBroadcaster(ProviderScheduleService scheduleService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${appointment.slot-stream.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${appointment.slot-stream.queue-capacity:64}") int queueCapacity,
+                                 @Value("${appointment.slot-stream.dispatch-threads:4}") int dispatchThreads,
+                                 @Value("${appointment.slot-stream.timeout-millis:1800000}") long timeoutMillis) {
+        this.scheduleService = scheduleService;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "slot-stream-dispatch-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("appointment.slot.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open slot availability SSE subscriptions")
+                .register(meterRegistry);
+        this.slowSubscriberDisconnects = Counter.builder("appointment.slot.stream.disconnected")
+                .description("SSE subscribers disconnected because their queue was full")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long providerId, LocalDateTime from, LocalDateTime to, Integer days) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException(
+                    "Too many slot availability subscribers, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(providerId, emitter, queueCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Registered before the snapshot is read, so no change committed after that point is missed
+        subscribers.computeIfAbsent(providerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        try {
+            AvailableSlotsWindowDto snapshot = scheduleService.getAvailableSlots(providerId, from, to, days, null);
+            subscriber.window = new SlotWindow(snapshot.from(), snapshot.to());
+            if (!subscriber.queue.offerFirst(new Message("snapshot", snapshot.slots()))) {
+                throw new SubscriberLimitExceededException(
+                        "Slot availability is changing too quickly to subscribe, please retry");
+            }
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        schedule(subscriber);
+
+        log.debug("Opened slot stream for provider ID: {}", providerId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        Set<Subscriber> providerSubscribers = subscribers.get(event.providerId());
+        if (providerSubscribers == null || providerSubscribers.isEmpty()) {
+            return;
+        }
+
+        Message delta = new Message("slots", toDelta(event));
+        for (Subscriber subscriber : providerSubscribers) {
+            SlotWindow window = subscriber.window;
+            if (window != null && !window.coversDate(event.scheduleDate())) {
+                continue;
+            }
+            if (subscriber.queue.offerLast(delta)) {
+                schedule(subscriber);
+            } else {
+                slowSubscriberDisconnects.increment();
+                log.debug("Disconnecting slow slot stream subscriber for provider ID: {}", event.providerId());
+                remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(providerSubscribers ->
+                providerSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // Nothing is sent before the snapshot is queued, so deltas are never filtered against an unknown window
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.window == null) {
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // At most one dispatcher thread drains a subscriber at a time, which keeps its events in order
+    private void drain(Subscriber subscriber) {
+        do {
+            Message message;
+            while ((message = subscriber.queue.pollFirst()) != null) {
+                Object data = message.data();
+                if (data instanceof SlotAvailabilityDeltaDto delta) {
+                    data = subscriber.window.slice(delta);
+                    if (data == null) {
+                        continue;
+                    }
+                }
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(message.name()).data(data));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Slot stream subscriber for provider ID: {} went away", subscriber.providerId);
+                    remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.providerId, (id, providerSubscribers) -> {
+            providerSubscribers.remove(subscriber);
+            return providerSubscribers.isEmpty() ? null : providerSubscribers;
+        });
+    }
+
+    private static SlotAvailabilityDeltaDto toDelta(SlotAvailabilityChangedEvent event) {
+        List<TimeSlotResponseDto> slots = new ArrayList<>(event.changes().size());
+        new TreeMap<>(event.changes()).forEach((minute, isAvailable) -> slots.add(new TimeSlotResponseDto(
+                LocalDateTime.of(event.scheduleDate(), SlotKeys.toLocalTime(minute)), isAvailable,
+                event.seats().getOrDefault(minute, isAvailable ? 1 : 0))));
+        return new SlotAvailabilityDeltaDto(event.providerId(), event.scheduleDate(), event.scheduleCreated(), slots);
+    }
+
+    private record Message(String name, Object data) {
+    }
+
+    record SlotWindow(LocalDateTime from, LocalDateTime to) {
+
+        boolean coversDate(LocalDate date) {
+            return !date.isBefore(from.toLocalDate()) && !date.isAfter(to.toLocalDate());
+        }
+
+        // Only the slots in [from, to), or null when none of the delta's slots are in the window
+        SlotAvailabilityDeltaDto slice(SlotAvailabilityDeltaDto delta) {
+            List<TimeSlotResponseDto> slots = new ArrayList<>(delta.slots().size());
+            for (TimeSlotResponseDto slot : delta.slots()) {
+                if (!slot.slotTime().isBefore(from) && slot.slotTime().isBefore(to)) {
+                    slots.add(slot);
+                }
+            }
+            if (slots.isEmpty()) {
+                return null;
+            }
+            return slots.size() == delta.slots().size() ? delta : new SlotAvailabilityDeltaDto(
+                    delta.providerId(), delta.scheduleDate(), delta.scheduleCreated(), slots);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final Long providerId;
+        private final SseEmitter emitter;
+        private final BlockingDeque<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private volatile SlotWindow window;
+
+        private Subscriber(Long providerId, SseEmitter emitter, int queueCapacity) {
+            this.providerId = providerId;
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingDeque<>(queueCapacity);
+        }
+    }
+}
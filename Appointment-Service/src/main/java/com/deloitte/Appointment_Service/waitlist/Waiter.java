@@ -0,0 +1,31 @@
+package com.deloitte.Appointment_Service.waitlist;
+
+import com.deloitte.Appointment_Service.model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * The part of a WAITING waitlist entry the in-memory index needs to match it
+ * against released slots.
+ */
+public record Waiter(
+        Long id,
+        Long patientId,
+        int priority,
+        LocalDateTime enqueuedAt,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd
+) {
+
+    // Highest priority first, then first come first served; the ID makes the order total
+    public static final Comparator<Waiter> OFFER_ORDER = Comparator
+            .comparingInt(Waiter::priority).reversed()
+            .thenComparing(Waiter::enqueuedAt)
+            .thenComparing(Waiter::id);
+
+    public static Waiter of(WaitlistEntry entry) {
+        return new Waiter(entry.getId(), entry.getPatientId(), entry.getPriority(), entry.getCreatedAt(),
+                entry.getWindowStart(), entry.getWindowEnd());
+    }
+}
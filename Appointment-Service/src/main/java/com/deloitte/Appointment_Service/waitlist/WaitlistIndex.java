@@ -0,0 +1,142 @@
+package com.deloitte.Appointment_Service.waitlist;
+
+import com.deloitte.Appointment_Service.constants.WaitlistStatus;
+import com.deloitte.Appointment_Service.index.DaySlotBitmap;
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.repository.WaitlistEntryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory waitlist index keyed by (providerId, date). Each day with waiters
+ * is a {@link WaitlistTree}, so finding who gets a released slot never scans
+ * the waitlist. A provider's WAITING entries are loaded in one indexed query
+ * the first time one of its slots is released, and reloaded periodically to
+ * pick up entries added or offered on other replicas.
+ */
+@Component
+public class WaitlistIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistIndex.class);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    // Bounded by Caffeine's frequency-aware eviction; a dropped provider is reloaded on its next match
+    private final Map<Long, ProviderWaitlist> providers;
+
+    @Value("${appointment.waitlist.index.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    public WaitlistIndex(WaitlistEntryRepository waitlistRepository,
+                         @Value("${appointment.waitlist.index.max-providers:10000}") long maxProviders) {
+        this.waitlistRepository = waitlistRepository;
+        this.providers = Caffeine.newBuilder()
+                .maximumSize(maxProviders)
+                .<Long, ProviderWaitlist>build()
+                .asMap();
+    }
+
+    public Optional<Waiter> bestMatch(Long providerId, LocalDateTime slotTime) {
+        ProviderWaitlist entry = providers.computeIfAbsent(providerId, id -> new ProviderWaitlist());
+        return Optional.ofNullable(entry.bestMatch(providerId, slotTime, TimeUnit.SECONDS.toNanos(refreshSeconds)));
+    }
+
+    // A provider that is not loaded yet picks the waiter up from the database on its first match
+    public void add(Long providerId, Waiter waiter) {
+        ProviderWaitlist entry = providers.get(providerId);
+        if (entry != null) {
+            entry.add(waiter);
+        }
+    }
+
+    public void remove(Long providerId, Long waiterId) {
+        ProviderWaitlist entry = providers.get(providerId);
+        if (entry != null) {
+            entry.remove(waiterId);
+        }
+    }
+
+    // Slot minute m matches a window when start <= m < end, so both bounds round up to whole minutes
+    private static int ceilMinute(LocalTime time) {
+        return SlotKeys.toMinuteOfDay(time) + (time.truncatedTo(ChronoUnit.MINUTES).equals(time) ? 0 : 1);
+    }
+
+    private interface DayWindowConsumer {
+        void accept(LocalDate date, int fromMinute, int toMinute);
+    }
+
+    private static void forEachDay(Waiter waiter, DayWindowConsumer action) {
+        LocalDate firstDate = waiter.windowStart().toLocalDate();
+        LocalDate lastDate = waiter.windowEnd().toLocalDate();
+        for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            int fromMinute = date.equals(firstDate) ? ceilMinute(waiter.windowStart().toLocalTime()) : 0;
+            int toMinute = date.equals(lastDate)
+                    ? ceilMinute(waiter.windowEnd().toLocalTime())
+                    : DaySlotBitmap.MINUTES_PER_DAY;
+            if (fromMinute < toMinute) {
+                action.accept(date, fromMinute, toMinute);
+            }
+        }
+    }
+
+    private final class ProviderWaitlist {
+
+        private final Map<LocalDate, WaitlistTree> days = new HashMap<>();
+        private final Map<Long, Waiter> waiters = new HashMap<>();
+        private long loadedAtNanos;
+        private boolean loaded;
+
+        // Loading under the same lock as add and remove means a local change can never be lost to a racing load
+        synchronized Waiter bestMatch(Long providerId, LocalDateTime slotTime, long maxAgeNanos) {
+            if (!loaded || System.nanoTime() - loadedAtNanos > maxAgeNanos) {
+                load(providerId);
+            }
+            WaitlistTree tree = days.get(slotTime.toLocalDate());
+            return tree == null ? null : tree.best(SlotKeys.toMinuteOfDay(slotTime.toLocalTime()));
+        }
+
+        synchronized void add(Waiter waiter) {
+            if (waiters.putIfAbsent(waiter.id(), waiter) != null) {
+                return;
+            }
+            forEachDay(waiter, (date, fromMinute, toMinute) ->
+                    days.computeIfAbsent(date, d -> new WaitlistTree()).add(waiter, fromMinute, toMinute));
+        }
+
+        synchronized void remove(Long waiterId) {
+            Waiter waiter = waiters.remove(waiterId);
+            if (waiter == null) {
+                return;
+            }
+            forEachDay(waiter, (date, fromMinute, toMinute) -> {
+                WaitlistTree tree = days.get(date);
+                if (tree != null) {
+                    tree.remove(waiter, fromMinute, toMinute);
+                    if (tree.isEmpty()) {
+                        days.remove(date);
+                    }
+                }
+            });
+        }
+
+        private void load(Long providerId) {
+            days.clear();
+            waiters.clear();
+            waitlistRepository.findByProviderIdAndStatusAndWindowEndAfter(
+                    providerId, WaitlistStatus.WAITING, LocalDateTime.now())
+                    .forEach(entry -> add(Waiter.of(entry)));
+            loaded = true;
+            loadedAtNanos = System.nanoTime();
+            log.debug("Loaded {} waiter(s) into waitlist index for provider ID: {}", waiters.size(), providerId);
+        }
+    }
+}
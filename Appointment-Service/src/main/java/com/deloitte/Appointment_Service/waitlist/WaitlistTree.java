@@ -0,0 +1,72 @@
+package com.deloitte.Appointment_Service.waitlist;
+
+import com.deloitte.Appointment_Service.index.DaySlotBitmap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Segment tree over the minutes of one provider day. A waiter's window is
+ * stored on the O(log M) nodes that exactly cover it, each keeping its waiters
+ * in offer order, so the best waiter for a minute is the best head along a
+ * single leaf-to-root path. Matching a released slot costs O(log M) node visits
+ * of O(log n) each, however many waiters the day has. Not thread-safe.
+ */
+final class WaitlistTree {
+
+    // Smallest power of two holding every minute of a day
+    private static final int LEAVES = Integer.highestOneBit(DaySlotBitmap.MINUTES_PER_DAY - 1) << 1;
+
+    // Sparse: most nodes never see a window, so only occupied ones are allocated
+    private final Map<Integer, TreeSet<Waiter>> nodes = new HashMap<>();
+    private int size;
+
+    // Window is [fromMinute, toMinute)
+    void add(Waiter waiter, int fromMinute, int toMinute) {
+        forEachCoveringNode(fromMinute, toMinute,
+                node -> nodes.computeIfAbsent(node, n -> new TreeSet<>(Waiter.OFFER_ORDER)).add(waiter));
+        size++;
+    }
+
+    void remove(Waiter waiter, int fromMinute, int toMinute) {
+        forEachCoveringNode(fromMinute, toMinute, node -> {
+            TreeSet<Waiter> waiters = nodes.get(node);
+            if (waiters != null && waiters.remove(waiter) && waiters.isEmpty()) {
+                nodes.remove(node);
+            }
+        });
+        size--;
+    }
+
+    Waiter best(int minute) {
+        Waiter best = null;
+        for (int node = LEAVES + minute; node > 0; node >>>= 1) {
+            TreeSet<Waiter> waiters = nodes.get(node);
+            if (waiters != null) {
+                Waiter head = waiters.first();
+                if (best == null || Waiter.OFFER_ORDER.compare(head, best) < 0) {
+                    best = head;
+                }
+            }
+        }
+        return best;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Canonical bottom-up decomposition of [fromMinute, toMinute) into at most 2 log M nodes
+    private static void forEachCoveringNode(int fromMinute, int toMinute, IntConsumer action) {
+        for (int left = fromMinute + LEAVES, right = toMinute + LEAVES; left < right; left >>>= 1, right >>>= 1) {
+            if ((left & 1) == 1) {
+                action.accept(left++);
+            }
+            if ((right & 1) == 1) {
+                action.accept(--right);
+            }
+        }
+    }
+}
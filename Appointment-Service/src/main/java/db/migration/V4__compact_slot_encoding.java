@@ -0,0 +1,139 @@
+package db.migration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Re-encodes provider_time_slots.slots (String-keyed JSON) into the compact
+ * slot_data column, then drops the JSON column. Rows are converted in
+ * id-ordered chunks so large tables are never loaded at once. The key parsing
+ * and the version 1 encoding are frozen copies of what SlotKeys and
+ * SlotSchedule did when this migration was written, so later changes to those
+ * classes cannot change what it writes.
+ */
+public class V4__compact_slot_encoding extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final TypeReference<Map<String, Boolean>> SLOTS_TYPE = new TypeReference<>() {};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement statement = connection.createStatement()) {
+            if (!columnExists(connection, "slot_data")) {
+                statement.execute("ALTER TABLE provider_time_slots ADD COLUMN slot_data VARBINARY(3072) NULL");
+            }
+            if (columnExists(connection, "slots")) {
+                convertRows(connection);
+                statement.execute("ALTER TABLE provider_time_slots DROP COLUMN slots");
+            }
+            statement.execute("ALTER TABLE provider_time_slots MODIFY slot_data VARBINARY(3072) NOT NULL");
+        }
+    }
+
+    private void convertRows(Connection connection) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long lastId = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, slots FROM provider_time_slots WHERE id > ? ORDER BY id LIMIT " + CHUNK_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE provider_time_slots SET slot_data = ? WHERE id = ?")) {
+            while (true) {
+                select.setLong(1, lastId);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong("id");
+                        Map<String, Boolean> slots = objectMapper.readValue(rs.getString("slots"), SLOTS_TYPE);
+                        update.setBytes(1, encode(slots));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows == 0) {
+                    return;
+                }
+                update.executeBatch();
+            }
+        }
+    }
+
+    // Version byte, slot count, sorted minute-of-day shorts, then one availability bit per slot
+    static byte[] encode(Map<String, Boolean> slots) {
+        TreeMap<Integer, Boolean> sorted = new TreeMap<>();
+        slots.forEach((slotKey, isAvailable) -> {
+            int minute = toMinuteOfDay(slotKey);
+            if (minute >= 0) {
+                sorted.put(minute, Boolean.TRUE.equals(isAvailable));
+            }
+        });
+
+        int count = sorted.size();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + 2 * count + (count + 7) / 8);
+        buffer.put((byte) 1);
+        buffer.putShort((short) count);
+        for (Integer minute : sorted.keySet()) {
+            buffer.putShort(minute.shortValue());
+        }
+        int bits = 0;
+        int i = 0;
+        for (boolean isAvailable : sorted.values()) {
+            if (isAvailable) {
+                bits |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7) {
+                buffer.put((byte) bits);
+                bits = 0;
+            }
+            i++;
+        }
+        if ((count & 7) != 0) {
+            buffer.put((byte) bits);
+        }
+        return buffer.array();
+    }
+
+    // Legacy keys were "HH:mm:ss" or a full ISO datetime; unparseable keys were skipped and seconds ignored
+    private static int toMinuteOfDay(String slotKey) {
+        if (slotKey == null) {
+            return -1;
+        }
+        try {
+            LocalTime time = slotKey.contains("T")
+                    ? LocalDateTime.parse(slotKey).toLocalTime()
+                    : LocalTime.parse(slotKey);
+            return time.getHour() * 60 + time.getMinute();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static boolean columnExists(Connection connection, String column) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'provider_time_slots' AND COLUMN_NAME = ?")) {
+            ps.setString(1, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+}
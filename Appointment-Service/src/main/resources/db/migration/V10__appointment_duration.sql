@@ -0,0 +1,3 @@
+-- Length of variable-length appointments; NULL keeps the original one-slot booking
+ALTER TABLE appointments
+    ADD COLUMN duration_minutes INT NULL;
@@ -0,0 +1,11 @@
+-- Seats per slot for group sessions and controlled overbooking. A slot stays
+-- AVAILABLE while booked < capacity; every seat change is one conditional UPDATE.
+ALTER TABLE provider_slot
+    ADD COLUMN capacity INT NOT NULL DEFAULT 1,
+    ADD COLUMN booked   INT NOT NULL DEFAULT 0;
+
+-- Holds now take a seat like bookings do; the slot_hold row is what tells them apart
+UPDATE provider_slot SET booked = 1, state = 'BOOKED' WHERE state IN ('BOOKED', 'HELD');
+
+ALTER TABLE provider_slot
+    ADD CONSTRAINT chk_provider_slot_seats CHECK (booked >= 0 AND booked <= capacity);
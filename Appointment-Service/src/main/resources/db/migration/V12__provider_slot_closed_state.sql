@@ -0,0 +1,17 @@
+-- Slots a provider closed were stored as fully booked, so reopening one could free
+-- the seats of real bookings. Closing is now a state of its own that takes no seat.
+-- A BOOKED slot that no live appointment covers and no hold sits on was closed.
+UPDATE provider_slot s
+SET s.state = 'CLOSED', s.booked = 0
+WHERE s.state = 'BOOKED'
+  AND NOT EXISTS (
+        SELECT 1 FROM appointments a
+        WHERE a.provider_id = s.provider_id
+          AND a.status NOT IN ('CANCELLED', 'REJECTED')
+          AND a.appointment_date_time <= TIMESTAMPADD(MINUTE, s.slot_minute, s.schedule_date)
+          AND TIMESTAMPADD(MINUTE, s.slot_minute, s.schedule_date)
+              < TIMESTAMPADD(MINUTE, COALESCE(a.duration_minutes, 1), a.appointment_date_time))
+  AND NOT EXISTS (
+        SELECT 1 FROM slot_hold h
+        WHERE h.provider_id = s.provider_id
+          AND h.slot_time = TIMESTAMPADD(MINUTE, s.slot_minute, s.schedule_date));
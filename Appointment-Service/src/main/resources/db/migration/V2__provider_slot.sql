@@ -0,0 +1,36 @@
+-- Hibernate creates tables after Flyway has run, so make sure the schedule table
+-- exists before it is backfilled on a fresh database.
+CREATE TABLE IF NOT EXISTS provider_time_slots (
+    id            BIGINT      NOT NULL AUTO_INCREMENT,
+    provider_id   BIGINT      NOT NULL,
+    schedule_date DATE        NOT NULL,
+    slots         JSON        NOT NULL,
+    created_at    DATETIME(6) NOT NULL,
+    updated_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- One row per slot so a booking is a single conditional UPDATE on that row
+CREATE TABLE IF NOT EXISTS provider_slot (
+    id            BIGINT      NOT NULL AUTO_INCREMENT,
+    provider_id   BIGINT      NOT NULL,
+    schedule_date DATE        NOT NULL,
+    slot_minute   SMALLINT    NOT NULL,
+    state         VARCHAR(16) NOT NULL,
+    version       BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_provider_slot (provider_id, schedule_date, slot_minute)
+);
+
+-- Backfill from the JSON documents. Keys are either "HH:mm:ss" or a full ISO datetime.
+INSERT IGNORE INTO provider_slot (provider_id, schedule_date, slot_minute, state, version)
+SELECT pts.provider_id,
+       pts.schedule_date,
+       HOUR(TIME(REPLACE(k.slot_key, 'T', ' '))) * 60 + MINUTE(TIME(REPLACE(k.slot_key, 'T', ' '))),
+       CASE
+           WHEN JSON_UNQUOTE(JSON_EXTRACT(pts.slots, CONCAT('$."', k.slot_key, '"'))) = 'true' THEN 'AVAILABLE'
+           ELSE 'BOOKED'
+       END,
+       0
+FROM provider_time_slots pts
+JOIN JSON_TABLE(JSON_KEYS(pts.slots), '$[*]' COLUMNS (slot_key VARCHAR(32) PATH '$')) k;
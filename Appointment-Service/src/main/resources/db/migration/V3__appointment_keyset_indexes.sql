@@ -0,0 +1,19 @@
+-- Hibernate creates tables after Flyway has run, so make sure the table exists on a fresh database
+CREATE TABLE IF NOT EXISTS appointments (
+    id                    BIGINT      NOT NULL AUTO_INCREMENT,
+    patient_id            BIGINT      NOT NULL,
+    provider_id           BIGINT      NOT NULL,
+    status                VARCHAR(255) NOT NULL,
+    appointment_date_time DATETIME(6) NOT NULL,
+    created_at            DATETIME(6) NOT NULL,
+    updated_at            DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_patient_id (patient_id),
+    INDEX idx_provider_id (provider_id),
+    INDEX idx_appointment_date_time (appointment_date_time),
+    INDEX idx_status (status)
+);
+
+-- Keyset pagination on (appointment_date_time, id) per patient and per provider
+CREATE INDEX idx_patient_date_id ON appointments (patient_id, appointment_date_time, id);
+CREATE INDEX idx_provider_date_id ON appointments (provider_id, appointment_date_time, id);
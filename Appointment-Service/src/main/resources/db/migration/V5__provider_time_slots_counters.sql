@@ -0,0 +1,18 @@
+-- Per-day counters for the calendar view, maintained alongside provider_slot state changes
+ALTER TABLE provider_time_slots
+    ADD COLUMN open_slots  INT NOT NULL DEFAULT 0,
+    ADD COLUMN total_slots INT NOT NULL DEFAULT 0;
+
+UPDATE provider_time_slots pts
+JOIN (SELECT provider_id,
+             schedule_date,
+             COUNT(*)                 AS total_slots,
+             SUM(state = 'AVAILABLE') AS open_slots
+      FROM provider_slot
+      GROUP BY provider_id, schedule_date) s
+  ON s.provider_id = pts.provider_id AND s.schedule_date = pts.schedule_date
+SET pts.open_slots  = s.open_slots,
+    pts.total_slots = s.total_slots;
+
+-- Counter updates and calendar reads both look days up by (provider_id, schedule_date)
+CREATE INDEX idx_provider_time_slots_provider_date ON provider_time_slots (provider_id, schedule_date);
@@ -0,0 +1,24 @@
+-- Concurrent find-then-insert calls could publish the same provider day twice.
+-- Keep the oldest row per day; provider_slot already holds one row per slot, so no slots are lost.
+DELETE dup
+FROM provider_time_slots dup
+JOIN provider_time_slots keep
+  ON keep.provider_id = dup.provider_id
+ AND keep.schedule_date = dup.schedule_date
+ AND keep.id < dup.id;
+
+-- The surviving rows may have counted only their own slots; recount from provider_slot
+UPDATE provider_time_slots pts
+JOIN (SELECT provider_id,
+             schedule_date,
+             COUNT(*)                 AS total_slots,
+             SUM(state = 'AVAILABLE') AS open_slots
+      FROM provider_slot
+      GROUP BY provider_id, schedule_date) s
+  ON s.provider_id = pts.provider_id AND s.schedule_date = pts.schedule_date
+SET pts.open_slots  = s.open_slots,
+    pts.total_slots = s.total_slots;
+
+-- One schedule per provider day; createSchedule inserts first and relies on this key to detect an existing day
+DROP INDEX idx_provider_time_slots_provider_date ON provider_time_slots;
+CREATE UNIQUE INDEX uk_provider_time_slots_provider_date ON provider_time_slots (provider_id, schedule_date);
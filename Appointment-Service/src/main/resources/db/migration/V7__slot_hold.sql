@@ -0,0 +1,11 @@
+-- Short-lived checkout holds; the held slot itself takes a seat in provider_slot like a booking does
+CREATE TABLE IF NOT EXISTS slot_hold (
+    id          VARCHAR(36) NOT NULL,
+    patient_id  BIGINT      NOT NULL,
+    provider_id BIGINT      NOT NULL,
+    slot_time   DATETIME(6) NOT NULL,
+    expires_at  DATETIME(6) NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_slot_hold_expires_at (expires_at)
+);
@@ -0,0 +1,3 @@
+-- The reaper claims overdue REQUESTED/CONFIRMED appointments in time order per status
+CREATE INDEX idx_status_date ON appointments (status, appointment_date_time);
+CREATE INDEX idx_status_created_at ON appointments (status, created_at);
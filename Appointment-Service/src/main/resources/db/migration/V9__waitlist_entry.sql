@@ -0,0 +1,18 @@
+-- Patients waiting for a slot with a provider; released slots are offered to them as slot holds
+CREATE TABLE IF NOT EXISTS waitlist_entry (
+    id                BIGINT      NOT NULL AUTO_INCREMENT,
+    patient_id        BIGINT      NOT NULL,
+    provider_id       BIGINT      NOT NULL,
+    window_start      DATETIME(6) NOT NULL,
+    window_end        DATETIME(6) NOT NULL,
+    priority          INT         NOT NULL,
+    status            VARCHAR(16) NOT NULL,
+    hold_id           VARCHAR(36) NULL,
+    offered_slot_time DATETIME(6) NULL,
+    offer_expires_at  DATETIME(6) NULL,
+    created_at        DATETIME(6) NOT NULL,
+    updated_at        DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_waitlist_provider_status_end (provider_id, status, window_end),
+    KEY idx_waitlist_patient_id (patient_id, id)
+);
@@ -0,0 +1,128 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.model.Appointment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBatchWriterTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime NINE = DATE.atTime(9, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = new BookingBatchWriter(jdbcTemplate, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("UPDATE provider_time_slots"), anyList()))
+                .thenReturn(new int[] {1});
+    }
+
+    @Test
+    void lostClaimFailsWithoutInsertingTheAppointment() {
+        when(jdbcTemplate.batchUpdate(contains("booked + 1"), anyList())).thenReturn(new int[] {0});
+
+        List<BookingBatchWriter.CommandOutcome> outcomes =
+                batchWriter.persist(List.of(BookingCommand.create(PATIENT_ID, PROVIDER_ID, NINE, 540)));
+
+        assertThat(outcomes.get(0).failure()).isInstanceOf(SlotNotAvailableException.class);
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE provider_time_slots"), anyList());
+    }
+
+    @Test
+    void cancelReleasesItsSlotAndReopensTheDay() throws Exception {
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE appointments"), anyList())).thenReturn(new int[] {1});
+        when(jdbcTemplate.batchUpdate(contains("booked - 1"), anyList())).thenReturn(new int[] {1});
+        ResultSet row = mock(ResultSet.class);
+        when(row.getInt("slot_minute")).thenReturn(540);
+        when(row.getString("state")).thenReturn("AVAILABLE");
+        when(row.getInt("capacity")).thenReturn(1);
+        when(row.getInt("booked")).thenReturn(0);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT slot_minute"), any(RowCallbackHandler.class), any(Object[].class));
+
+        List<BookingBatchWriter.CommandOutcome> outcomes = batchWriter.persist(
+                List.of(BookingCommand.cancel(appointment(10L), PATIENT_ID, new int[] {540})));
+
+        assertThat(outcomes.get(0).succeeded()).isTrue();
+        assertThat(outcomes.get(0).appointmentId()).isEqualTo(10L);
+        assertThat(outcomes.get(0).slotChanges()).containsOnly(Map.entry(540, true));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE provider_time_slots"), argThat((List<Object[]> args) ->
+                args.size() == 1 && args.get(0)[0].equals(1) && args.get(0)[2].equals(Date.valueOf(DATE))));
+    }
+
+    @Test
+    void failedBatchIsRetriedOneCommandAtATime() {
+        doThrow(new IllegalStateException("Deadlock found"))
+                .doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.batchUpdate(contains("booked + 1"), anyList()))
+                .thenReturn(new int[] {0})
+                .thenReturn(new int[] {1});
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(7L));
+
+        List<BookingBatchWriter.CommandOutcome> outcomes = batchWriter.persist(List.of(
+                BookingCommand.create(PATIENT_ID, PROVIDER_ID, NINE, 540),
+                BookingCommand.create(3L, PROVIDER_ID, DATE.atTime(9, 30), 570)));
+
+        assertThat(outcomes.get(0).failure()).isInstanceOf(SlotNotAvailableException.class);
+        assertThat(outcomes.get(1).appointmentId()).isEqualTo(7L);
+        assertThat(outcomes.get(1).slotChanges()).containsOnly(Map.entry(570, false));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    private static Appointment appointment(Long id) {
+        return Appointment.builder()
+                .id(id)
+                .patientId(PATIENT_ID)
+                .providerId(PROVIDER_ID)
+                .status(AppointmentStatus.REQUESTED)
+                .appointmentDateTime(NINE)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.deloitte.Appointment_Service.engine;
+
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionTest {
+
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime NINE = DATE.atTime(9, 0);
+
+    @Mock
+    private BookingBatchWriter batchWriter;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingPartition partition;
+
+    @BeforeEach
+    void setUp() {
+        partition = new BookingPartition(0, 64, 16, TimeUnit.MINUTES.toNanos(5), batchWriter, eventPublisher);
+        partition.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        partition.stop();
+    }
+
+    @Test
+    void committedBookingIsAnsweredEvenWhenASlotListenerFails() throws Exception {
+        when(batchWriter.loadDay(PROVIDER_ID, DATE))
+                .thenReturn(new BookingBatchWriter.LoadedDay(Map.of(540, true), Set.of()));
+        when(batchWriter.persist(anyList())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        doThrow(new IllegalStateException("listener failed")).when(eventPublisher).publishEvent(any(Object.class));
+
+        AppointmentResponseDto response = submit(BookingCommand.create(1L, PROVIDER_ID, NINE, 540));
+
+        assertThat(response.id()).isEqualTo(100L);
+        // Listeners run after the caller has been answered
+        verify(eventPublisher, timeout(1000)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void secondBookingForATakenSlotFailsWithoutReachingTheDatabase() throws Exception {
+        when(batchWriter.loadDay(PROVIDER_ID, DATE))
+                .thenReturn(new BookingBatchWriter.LoadedDay(Map.of(540, true), Set.of()));
+        when(batchWriter.persist(anyList())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        submit(BookingCommand.create(1L, PROVIDER_ID, NINE, 540));
+
+        assertThatThrownBy(() -> submit(BookingCommand.create(3L, PROVIDER_ID, NINE, 540)))
+                .hasCauseInstanceOf(SlotNotAvailableException.class);
+        verify(batchWriter, times(1)).persist(anyList());
+    }
+
+    @Test
+    void sharedSeatSlotsAreRefused() {
+        when(batchWriter.loadDay(PROVIDER_ID, DATE))
+                .thenReturn(new BookingBatchWriter.LoadedDay(Map.of(540, true), Set.of(540)));
+
+        assertThatThrownBy(() -> submit(BookingCommand.create(1L, PROVIDER_ID, NINE, 540)))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(batchWriter, never()).persist(anyList());
+    }
+
+    @Test
+    void invalidatedDayIsReloadedBeforeTheNextBooking() throws Exception {
+        when(batchWriter.loadDay(PROVIDER_ID, DATE))
+                .thenReturn(new BookingBatchWriter.LoadedDay(Map.of(540, false, 570, true), Set.of()))
+                .thenReturn(new BookingBatchWriter.LoadedDay(Map.of(540, true, 570, true), Set.of()));
+        when(batchWriter.persist(anyList())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        submit(BookingCommand.create(1L, PROVIDER_ID, DATE.atTime(9, 30), 570));
+
+        partition.invalidate(PROVIDER_ID, DATE);
+
+        assertThat(submit(BookingCommand.create(3L, PROVIDER_ID, NINE, 540)).id()).isEqualTo(100L);
+        verify(batchWriter, times(2)).loadDay(PROVIDER_ID, DATE);
+    }
+
+    private AppointmentResponseDto submit(BookingCommand command) throws Exception {
+        assertThat(partition.submit(command)).isTrue();
+        return command.result.get(5, TimeUnit.SECONDS);
+    }
+
+    private static List<BookingBatchWriter.CommandOutcome> succeeded(List<BookingCommand> commands) {
+        List<BookingBatchWriter.CommandOutcome> outcomes = new ArrayList<>();
+        for (BookingCommand command : commands) {
+            outcomes.add(new BookingBatchWriter.CommandOutcome(100L, LocalDateTime.now(), null,
+                    Map.of(command.slotMinute, false), Map.of()));
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,100 @@
+package com.deloitte.Appointment_Service.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new RingBuffer<Integer>(12)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesOffersWhenFullAndKeepsFifoOrderAcrossWraps() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 5; round++) {
+            while (buffer.offer(next)) {
+                next++;
+            }
+            assertThat(buffer.size()).isEqualTo(4);
+            assertThat(buffer.poll()).isEqualTo(expected++);
+            assertThat(buffer.poll()).isEqualTo(expected++);
+            assertThat(buffer.size()).isEqualTo(2);
+        }
+        List<Integer> rest = new ArrayList<>();
+        assertThat(buffer.drainTo(rest, 10)).isEqualTo(2);
+        assertThat(rest).containsExactly(expected, expected + 1);
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void drainToStopsAtMaxElements() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> sink = new ArrayList<>();
+        assertThat(buffer.drainTo(sink, 3)).isEqualTo(3);
+        assertThat(sink).containsExactly(0, 1, 2);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void deliversEveryElementOnceInPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        RingBuffer<long[]> buffer = new RingBuffer<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long[] nextPerProducer = new long[producers];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        int received = 0;
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertThat(element[1]).isEqualTo(nextPerProducer[(int) element[0]]++);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
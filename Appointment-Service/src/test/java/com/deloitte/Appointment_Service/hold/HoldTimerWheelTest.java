@@ -0,0 +1,88 @@
+package com.deloitte.Appointment_Service.hold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldTimerWheelTest {
+
+    private final Map<String, Long> expiredAtNanos = new ConcurrentHashMap<>();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private HoldTimerWheel wheel;
+
+    @AfterEach
+    void stopWheel() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void neverExpiresAHoldBeforeItsDeadline() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(3);
+        startWheel(20, 8, 100, expired);
+
+        // 25 ms is not a whole tick and 300 ms is more than one turn of an 8-bucket wheel
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 70);
+        wheel.schedule("c", 300);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAtNanos.get("a") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(25));
+        assertThat(expiredAtNanos.get("b") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(70));
+        assertThat(expiredAtNanos.get("c") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void cancelledAndRescheduledHoldsDoNotFireEarly() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        startWheel(10, 16, 100, expired);
+
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("cancelled", 20);
+        wheel.cancel("cancelled");
+        wheel.schedule("moved", 20);
+        wheel.schedule("moved", 150);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(expiredAtNanos).containsOnlyKeys("moved");
+        assertThat(expiredAtNanos.get("moved") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void handsExpiredHoldsOverInBatches() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(5);
+        startWheel(10, 16, 2, expired);
+
+        for (int i = 0; i < 5; i++) {
+            wheel.schedule("hold-" + i, 0);
+        }
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    private void startWheel(long tickMillis, int wheelSize, int batchSize, CountDownLatch expired) {
+        wheel = new HoldTimerWheel(tickMillis, wheelSize, batchSize, holdIds -> {
+            long now = System.nanoTime();
+            batches.add(List.copyOf(holdIds));
+            for (String holdId : holdIds) {
+                expiredAtNanos.put(holdId, now);
+                expired.countDown();
+            }
+        });
+        wheel.start();
+    }
+}
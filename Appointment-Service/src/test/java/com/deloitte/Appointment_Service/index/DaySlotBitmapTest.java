@@ -0,0 +1,111 @@
+package com.deloitte.Appointment_Service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DaySlotBitmapTest {
+
+    @Test
+    void runStartsKeepsOnlyStartsOfFullyAvailableRuns() {
+        // 09:00 to 11:30 every 30 minutes, with 10:30 taken
+        Map<Integer, Boolean> slots = new HashMap<>();
+        for (int minute = 540; minute <= 690; minute += 30) {
+            slots.put(minute, minute != 630);
+        }
+        DaySlotBitmap bitmap = DaySlotBitmap.of(slots);
+
+        assertThat(availableMinutes(bitmap.runStarts(2))).containsExactly(540, 570, 660);
+        assertThat(availableMinutes(bitmap.runStarts(3))).containsExactly(540);
+        assertThat(availableMinutes(bitmap.runStarts(5))).isEmpty();
+        assertThat(bitmap.runStarts(1)).isSameAs(bitmap);
+    }
+
+    @Test
+    void runStartsCrossesWordBoundaries() {
+        Map<Integer, Boolean> slots = new HashMap<>();
+        for (int minute = 0; minute < DaySlotBitmap.MINUTES_PER_DAY; minute += 15) {
+            slots.put(minute, true);
+        }
+        DaySlotBitmap starts = DaySlotBitmap.of(slots).runStarts(4);
+
+        // Every slot but the last three starts an hour-long run
+        assertThat(starts.availableCount()).isEqualTo(96 - 3);
+        assertThat(starts.isAvailable(1380)).isTrue();
+        assertThat(starts.isAvailable(1395)).isFalse();
+    }
+
+    @Test
+    void runStartsMatchesProbingEverySlot() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            int length = 5 + random.nextInt(60);
+            int offset = random.nextInt(length);
+            Map<Integer, Boolean> slots = new HashMap<>();
+            for (int minute = offset; minute < DaySlotBitmap.MINUTES_PER_DAY; minute += length) {
+                slots.put(minute, random.nextInt(5) != 0);
+            }
+            DaySlotBitmap bitmap = DaySlotBitmap.of(slots);
+            int slotCount = 1 + random.nextInt(12);
+
+            DaySlotBitmap starts = bitmap.runStarts(slotCount);
+            for (int minute = 0; minute < DaySlotBitmap.MINUTES_PER_DAY; minute++) {
+                boolean expected = true;
+                for (int k = 0; k < slotCount && expected; k++) {
+                    int slot = minute + k * length;
+                    expected = slot < DaySlotBitmap.MINUTES_PER_DAY && bitmap.isAvailable(slot);
+                }
+                assertThat(starts.isAvailable(minute))
+                        .as("trial %d, minute %d, %d slots of %d minutes", trial, minute, slotCount, length)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void singleSlotDayHasNoRuns() {
+        DaySlotBitmap bitmap = DaySlotBitmap.of(Map.of(600, true));
+
+        assertThat(bitmap.slotLengthMinutes()).isEqualTo(-1);
+        assertThat(bitmap.runStarts(2).availableCount()).isZero();
+    }
+
+    @Test
+    void nextAvailableSkipsTakenAndUndefinedMinutes() {
+        DaySlotBitmap bitmap = DaySlotBitmap.of(Map.of(60, false, 130, true, 1439, true));
+
+        assertThat(bitmap.nextAvailable(0)).isEqualTo(130);
+        assertThat(bitmap.nextAvailable(131)).isEqualTo(1439);
+        assertThat(bitmap.with(Map.of(1439, false)).nextAvailable(131)).isEqualTo(-1);
+        assertThat(bitmap.isAvailable(1439)).isTrue();
+    }
+
+    @Test
+    void withLeavesTheOriginalUntouchedAndDefinesNewSlots() {
+        DaySlotBitmap bitmap = DaySlotBitmap.of(Map.of(540, true));
+
+        DaySlotBitmap changed = bitmap.with(Map.of(540, false, 600, true, -5, true));
+
+        assertThat(bitmap.isAvailable(540)).isTrue();
+        assertThat(bitmap.isDefined(600)).isFalse();
+        assertThat(changed.isAvailable(540)).isFalse();
+        assertThat(changed.isDefined(540)).isTrue();
+        assertThat(changed.isAvailable(600)).isTrue();
+        assertThat(changed.definedCount()).isEqualTo(2);
+        assertThat(changed.availableCount()).isEqualTo(1);
+    }
+
+    private static List<Integer> availableMinutes(DaySlotBitmap bitmap) {
+        List<Integer> minutes = new ArrayList<>();
+        for (int minute = bitmap.nextAvailable(0); minute >= 0; minute = bitmap.nextAvailable(minute + 1)) {
+            minutes.add(minute);
+        }
+        return minutes;
+    }
+}
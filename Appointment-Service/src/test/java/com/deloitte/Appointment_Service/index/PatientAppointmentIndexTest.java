@@ -0,0 +1,155 @@
+package com.deloitte.Appointment_Service.index;
+
+import com.deloitte.Appointment_Service.constants.PatientOverlapPolicy;
+import com.deloitte.Appointment_Service.exception.PatientDoubleBookingException;
+import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.deloitte.Appointment_Service.repository.PatientAppointmentView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientAppointmentIndexTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private PatientAppointmentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientAppointmentIndex(appointmentRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "policy", PatientOverlapPolicy.REJECT);
+        ReflectionTestUtils.setField(index, "appointmentMinutes", 30L);
+        ReflectionTestUtils.setField(index, "maxDurationMinutes", 480L);
+        ReflectionTestUtils.setField(index, "refreshSeconds", 60L);
+        ReflectionTestUtils.setField(index, "maxPatients", 100);
+    }
+
+    @Test
+    void inFlightBookingBlocksOverlapsButNotAdjacentSlots() {
+        index.reserve(PATIENT_ID, START);
+
+        assertThatThrownBy(() -> index.reserve(PATIENT_ID, START.plusMinutes(15)))
+                .isInstanceOf(PatientDoubleBookingException.class);
+        assertThatThrownBy(() -> index.reserve(PATIENT_ID, START.minusMinutes(15), 20))
+                .isInstanceOf(PatientDoubleBookingException.class);
+        assertThat(index.reserve(PATIENT_ID, START.plusMinutes(30))).isNegative();
+        assertThat(index.reserve(PATIENT_ID, START.minusMinutes(30))).isNegative();
+    }
+
+    @Test
+    void findsAnOverlapWithALongBookingThatStartedEarlier() {
+        PatientAppointmentView longBooking = mock(PatientAppointmentView.class);
+        when(longBooking.getId()).thenReturn(10L);
+        when(longBooking.getAppointmentDateTime()).thenReturn(START);
+        when(longBooking.getDurationMinutes()).thenReturn(240);
+        when(appointmentRepository.findPatientBookingsAfter(eq(PATIENT_ID), any(), anyCollection()))
+                .thenReturn(List.of(longBooking));
+        when(appointmentRepository.existsByIdAndStatusIn(eq(10L), anyCollection())).thenReturn(true);
+
+        assertThatThrownBy(() -> index.reserve(PATIENT_ID, START.plusHours(3)))
+                .isInstanceOf(PatientDoubleBookingException.class);
+        assertThat(index.reserve(PATIENT_ID, START.plusHours(4))).isNegative();
+    }
+
+    @Test
+    void dropsSavedBookingsThatAreNoLongerLive() {
+        PatientAppointmentView cancelled = mock(PatientAppointmentView.class);
+        when(cancelled.getId()).thenReturn(10L);
+        when(cancelled.getAppointmentDateTime()).thenReturn(START);
+        when(cancelled.getDurationMinutes()).thenReturn(null);
+        when(appointmentRepository.findPatientBookingsAfter(eq(PATIENT_ID), any(), anyCollection()))
+                .thenReturn(List.of(cancelled));
+        when(appointmentRepository.existsByIdAndStatusIn(eq(10L), anyCollection())).thenReturn(false);
+
+        long ticket = index.reserve(PATIENT_ID, START);
+        index.cancel(PATIENT_ID, ticket);
+        index.reserve(PATIENT_ID, START);
+
+        // The stale entry was removed on the first check, so the database is asked only once
+        verify(appointmentRepository, times(1)).existsByIdAndStatusIn(eq(10L), anyCollection());
+    }
+
+    @Test
+    void boundBookingIsCheckedAgainstTheDatabase() {
+        long ticket = index.reserve(PATIENT_ID, START);
+        index.bind(PATIENT_ID, ticket, 42L);
+        when(appointmentRepository.existsByIdAndStatusIn(eq(42L), anyCollection())).thenReturn(true);
+
+        assertThatThrownBy(() -> index.reserve(PATIENT_ID, START))
+                .isInstanceOf(PatientDoubleBookingException.class);
+    }
+
+    @Test
+    void cancelledReservationFreesTheTime() {
+        long ticket = index.reserve(PATIENT_ID, START);
+        index.cancel(PATIENT_ID, ticket);
+
+        assertThat(index.reserve(PATIENT_ID, START)).isNegative();
+        verify(appointmentRepository, never()).existsByIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void patientWithAReservationInFlightIsNotEvicted() {
+        ReflectionTestUtils.setField(index, "maxPatients", 1);
+        long ticket = index.reserve(PATIENT_ID, START);
+        index.reserve(2L, START);
+
+        index.bind(PATIENT_ID, ticket, 42L);
+        when(appointmentRepository.existsByIdAndStatusIn(eq(42L), anyCollection())).thenReturn(true);
+
+        assertThatThrownBy(() -> index.reserve(PATIENT_ID, START))
+                .isInstanceOf(PatientDoubleBookingException.class);
+    }
+
+    @Test
+    void idlePatientIsEvictedAndReloadedOnNextUse() {
+        ReflectionTestUtils.setField(index, "maxPatients", 1);
+        index.cancel(PATIENT_ID, index.reserve(PATIENT_ID, START));
+        index.reserve(2L, START);
+
+        assertThat(index.reserve(PATIENT_ID, START)).isNegative();
+        verify(appointmentRepository, times(2)).findPatientBookingsAfter(eq(PATIENT_ID), any(), anyCollection());
+    }
+
+    @Test
+    void warnPolicyBooksOverTheOverlap() {
+        ReflectionTestUtils.setField(index, "policy", PatientOverlapPolicy.WARN);
+        index.reserve(PATIENT_ID, START);
+
+        assertThat(index.reserve(PATIENT_ID, START)).isNegative();
+    }
+
+    @Test
+    void allowPolicySkipsTheIndex() {
+        ReflectionTestUtils.setField(index, "policy", PatientOverlapPolicy.ALLOW);
+
+        assertThat(index.reserve(PATIENT_ID, START)).isEqualTo(PatientAppointmentIndex.NO_RESERVATION);
+        assertThat(index.reserve(PATIENT_ID, START)).isEqualTo(PatientAppointmentIndex.NO_RESERVATION);
+        verify(appointmentRepository, never()).findPatientBookingsAfter(any(), any(), anyCollection());
+    }
+}
@@ -0,0 +1,42 @@
+package com.deloitte.Appointment_Service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotKeysTest {
+
+    @Test
+    void acceptsShortFullAndDateTimeKeys() {
+        assertThat(SlotKeys.toMinuteOfDay("09:30")).isEqualTo(570);
+        assertThat(SlotKeys.toMinuteOfDay("09:30:00")).isEqualTo(570);
+        assertThat(SlotKeys.toMinuteOfDay("2025-01-06T23:59:00")).isEqualTo(1439);
+        assertThat(SlotKeys.toSlotKey(570)).isEqualTo("09:30:00");
+        assertThat(SlotKeys.toLocalTime(570)).isEqualTo(LocalTime.of(9, 30));
+    }
+
+    @Test
+    void rejectsKeysThatDoNotParseOrCarrySeconds() {
+        assertThatThrownBy(() -> SlotKeys.toMinuteOfDay("9am")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SlotKeys.toMinuteOfDay("09:30:15"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("whole minute");
+        assertThatThrownBy(() -> SlotKeys.toMinuteOfDay((String) null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTwoKeysForTheSameMinute() {
+        Map<String, Boolean> slots = new LinkedHashMap<>();
+        slots.put("09:00", true);
+        slots.put("09:00:00", false);
+
+        assertThatThrownBy(() -> SlotKeys.toMinuteMap(slots))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than once");
+    }
+}
@@ -0,0 +1,75 @@
+package com.deloitte.Appointment_Service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotScheduleTest {
+
+    @Test
+    void roundTripsThroughBytesAcrossBitsetWords() {
+        Map<Integer, Boolean> slots = new LinkedHashMap<>();
+        for (int i = 0; i < 70; i++) {
+            slots.put(i * 20, i % 3 != 0);
+        }
+        SlotSchedule schedule = SlotSchedule.of(slots);
+
+        SlotSchedule decoded = SlotSchedule.fromBytes(schedule.toBytes());
+
+        assertThat(decoded).isEqualTo(schedule);
+        assertThat(decoded.toMinuteMap()).containsExactlyEntriesOf(slots);
+        assertThat(decoded.availableCount()).isEqualTo(46);
+    }
+
+    @Test
+    void encodesAFullWorkingDayInAFewBytesPerSlot() {
+        Map<Integer, Boolean> slots = new LinkedHashMap<>();
+        for (int i = 0; i < 48; i++) {
+            slots.put(i * 30, true);
+        }
+
+        // Version, count, two bytes per minute and one availability bit per slot
+        assertThat(SlotSchedule.of(slots).toBytes()).hasSize(1 + 2 + 96 + 6);
+    }
+
+    @Test
+    void sortsMinutesAndDropsOutOfRangeOnes() {
+        Map<Integer, Boolean> slots = new LinkedHashMap<>();
+        slots.put(600, true);
+        slots.put(540, false);
+        slots.put(-1, true);
+        slots.put(DaySlotBitmap.MINUTES_PER_DAY, true);
+
+        SlotSchedule schedule = SlotSchedule.of(slots);
+
+        assertThat(schedule.size()).isEqualTo(2);
+        assertThat(schedule.toSlotKeyMap()).containsExactly(
+                Map.entry("09:00:00", false), Map.entry("10:00:00", true));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        byte[] encoded = SlotSchedule.of(Map.of(540, true)).toBytes();
+        encoded[0] = 2;
+
+        assertThatThrownBy(() -> SlotSchedule.fromBytes(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void runFromCoversTheDurationWithPublishedSlotsOnly() {
+        SlotSchedule schedule = SlotSchedule.of(Map.of(540, true, 570, false, 600, true, 660, true));
+
+        assertThat(schedule.runFrom(540, 45)).containsExactly(540, 570);
+        assertThat(schedule.runFrom(540, 90)).containsExactly(540, 570, 600);
+        assertThat(schedule.runFrom(570, 90)).isNull();
+        assertThat(schedule.runFrom(600, 10)).containsExactly(600);
+        assertThat(SlotSchedule.of(Map.of(540, true)).runFrom(540, 30)).containsExactly(540);
+        assertThat(SlotSchedule.of(Map.of(540, true)).runFrom(570, 30)).isNull();
+    }
+}
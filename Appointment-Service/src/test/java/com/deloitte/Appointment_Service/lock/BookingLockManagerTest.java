@@ -0,0 +1,79 @@
+package com.deloitte.Appointment_Service.lock;
+
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingLockManagerTest {
+
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void secondBookingForASlotInFlightIsRejected() {
+        BookingLockManager lockManager = new BookingLockManager(16, 200, meterRegistry);
+
+        assertThatThrownBy(() -> lockManager.withSlotLock(PROVIDER_ID, SLOT, false,
+                () -> lockManager.withSlotLock(PROVIDER_ID, SLOT, false, () -> "booked")))
+                .isInstanceOf(SlotNotAvailableException.class);
+        assertThat(rejections("in_flight")).isEqualTo(1);
+
+        // The slot is released once the first booking finishes
+        assertThat(lockManager.withSlotLock(PROVIDER_ID, SLOT, false, () -> "booked")).isEqualTo("booked");
+    }
+
+    @Test
+    void sharedSeatSlotsOnlyQueueOnTheDayLock() {
+        BookingLockManager lockManager = new BookingLockManager(16, 200, meterRegistry);
+
+        String result = lockManager.withSlotLock(PROVIDER_ID, SLOT, true,
+                () -> lockManager.withSlotLock(PROVIDER_ID, SLOT, true, () -> "booked"));
+
+        assertThat(result).isEqualTo("booked");
+        assertThat(rejections("in_flight")).isZero();
+    }
+
+    @Test
+    void busyDayIsRejectedOnceTheWaitRunsOut() throws Exception {
+        BookingLockManager lockManager = new BookingLockManager(1, 20, meterRegistry);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> lockManager.withLock(PROVIDER_ID, SLOT.toLocalDate(), () -> {
+            locked.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        holder.start();
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // A single stripe makes every provider day share the held lock
+            assertThatThrownBy(() -> lockManager.withLock(3L, LocalDate.of(2030, 1, 8), () -> "booked"))
+                    .isInstanceOf(SlotNotAvailableException.class)
+                    .hasMessageContaining("please retry");
+            assertThat(rejections("timeout")).isEqualTo(1);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("appointment.booking.lock.rejected").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,127 @@
+package com.deloitte.Appointment_Service.reaper;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.deloitte.Appointment_Service.repository.SlotHoldRepository;
+import com.deloitte.Appointment_Service.service.ProviderScheduleService;
+import com.deloitte.Appointment_Service.service.SlotHoldService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentReaperTest {
+
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDateTime SLOT = LocalDateTime.of(2020, 1, 7, 9, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private SlotHoldRepository slotHoldRepository;
+    @Mock
+    private ProviderScheduleService scheduleService;
+    @Mock
+    private SlotHoldService slotHoldService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AppointmentReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new AppointmentReaper(appointmentRepository, slotHoldRepository, scheduleService, slotHoldService,
+                transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(reaper, "batchSize", 2);
+        ReflectionTestUtils.setField(reaper, "maxBatchesPerRun", 3);
+        ReflectionTestUtils.setField(reaper, "requestedTtlHours", 48L);
+        ReflectionTestUtils.setField(reaper, "completeAfterMinutes", 60L);
+        ReflectionTestUtils.setField(reaper, "holdGraceSeconds", 60L);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(appointmentRepository.claimByAppointmentTimeBefore(any(), any(), anyInt())).thenReturn(List.of());
+        lenient().when(appointmentRepository.claimByCreatedAtBefore(any(), any(), anyInt())).thenReturn(List.of());
+        lenient().when(appointmentRepository.batchTransition(eq(List.of()), any(), any())).thenReturn(new int[0]);
+    }
+
+    @Test
+    void rejectsOverdueRequestsAndReleasesOnlyTheSlotsOfRowsItMoved() {
+        when(appointmentRepository.claimByAppointmentTimeBefore(eq(AppointmentStatus.REQUESTED), any(), eq(2)))
+                .thenReturn(List.of(requested(10L), requested(11L)))
+                .thenReturn(List.of());
+        when(appointmentRepository.batchTransition(List.of(10L, 11L), List.of(AppointmentStatus.REQUESTED),
+                AppointmentStatus.REJECTED))
+                .thenReturn(new int[] {1, 0});
+        when(scheduleService.bookedSlots(PROVIDER_ID, SLOT, null)).thenReturn(List.of(SLOT));
+
+        reaper.reap();
+
+        verify(scheduleService).releaseSlots(PROVIDER_ID, List.of(SLOT));
+        assertThat(processed("rejected_requested")).isEqualTo(1);
+        // The full batch is followed by another claim, which came back short and ended the drain
+        verify(appointmentRepository, times(2))
+                .claimByAppointmentTimeBefore(eq(AppointmentStatus.REQUESTED), any(), eq(2));
+    }
+
+    @Test
+    void drainStopsAtThePerRunCap() {
+        when(appointmentRepository.claimByCreatedAtBefore(eq(AppointmentStatus.REQUESTED), any(), eq(2)))
+                .thenReturn(List.of(requested(10L), requested(11L)));
+        when(appointmentRepository.batchTransition(List.of(10L, 11L), List.of(AppointmentStatus.REQUESTED),
+                AppointmentStatus.REJECTED))
+                .thenReturn(new int[] {0, 0});
+
+        reaper.reap();
+
+        verify(appointmentRepository, times(3)).claimByCreatedAtBefore(eq(AppointmentStatus.REQUESTED), any(), eq(2));
+        verify(scheduleService, never()).releaseSlots(any(), anyList());
+    }
+
+    @Test
+    void failedBatchDoesNotStopTheOtherKinds() {
+        when(appointmentRepository.claimByAppointmentTimeBefore(eq(AppointmentStatus.REQUESTED), any(), eq(2)))
+                .thenThrow(new IllegalStateException("Lock wait timeout exceeded"));
+        when(slotHoldRepository.claimExpired(any(), eq(2))).thenReturn(List.of("hold-1"));
+        when(slotHoldService.expireHolds(List.of("hold-1"))).thenReturn(1);
+        when(slotHoldRepository.countByExpiresAtBefore(any())).thenReturn(4L);
+
+        reaper.reap();
+
+        assertThat(processed("expired_hold")).isEqualTo(1);
+        assertThat(meterRegistry.get("appointment.reaper.backlog").tag("kind", "hold").gauge().value())
+                .isEqualTo(4);
+    }
+
+    private double processed(String outcome) {
+        return meterRegistry.get("appointment.reaper.processed").tag("outcome", outcome).counter().count();
+    }
+
+    private static AppointmentResponseDto requested(Long id) {
+        return new AppointmentResponseDto(id, 1L, PROVIDER_ID, AppointmentStatus.REQUESTED, SLOT, null,
+                SLOT.minusDays(3));
+    }
+}
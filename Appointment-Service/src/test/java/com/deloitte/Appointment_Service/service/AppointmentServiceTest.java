@@ -0,0 +1,328 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.constants.AppointmentStatus;
+import com.deloitte.Appointment_Service.dto.AppointmentDecisionDto;
+import com.deloitte.Appointment_Service.dto.AppointmentPageResponseDto;
+import com.deloitte.Appointment_Service.dto.AppointmentResponseDto;
+import com.deloitte.Appointment_Service.dto.AppointmentSeriesResponseDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateRequestDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateResponseDto;
+import com.deloitte.Appointment_Service.dto.BulkStatusUpdateResultDto;
+import com.deloitte.Appointment_Service.dto.CreateAppointmentSeriesRequestDto;
+import com.deloitte.Appointment_Service.dto.SeriesOccurrenceResultDto;
+import com.deloitte.Appointment_Service.engine.BookingEngine;
+import com.deloitte.Appointment_Service.exception.AppointmentNotFoundException;
+import com.deloitte.Appointment_Service.exception.InvalidAppointmentStateException;
+import com.deloitte.Appointment_Service.index.PatientAppointmentIndex;
+import com.deloitte.Appointment_Service.lock.BookingLockManager;
+import com.deloitte.Appointment_Service.model.Appointment;
+import com.deloitte.Appointment_Service.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentServiceTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private ProviderScheduleService scheduleService;
+    @Mock
+    private BookingLockManager bookingLockManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ObjectProvider<BookingEngine> bookingEngine;
+    @Mock
+    private SlotHoldService slotHoldService;
+    @Mock
+    private PatientAppointmentIndex patientAppointmentIndex;
+
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentService = new AppointmentService(appointmentRepository, scheduleService, bookingLockManager,
+                transactionTemplate, bookingEngine, new ObjectMapper(), slotHoldService, patientAppointmentIndex);
+        ReflectionTestUtils.setField(appointmentService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(appointmentService, "maxPageSize", 500);
+
+        lenient().when(bookingLockManager.withLock(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void nextCursorResumesAfterTheLastRowOfThePage() {
+        when(appointmentRepository.findPatientPage(eq(PATIENT_ID), any(), any(), isNull(), any(), any(),
+                eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(row(10L, SLOT), row(11L, SLOT), row(12L, SLOT.plusHours(1))));
+
+        AppointmentPageResponseDto first = appointmentService.getPatientAppointmentPage(
+                PATIENT_ID, null, 2, null, null, null);
+
+        assertThat(first.items()).extracting(AppointmentResponseDto::id).containsExactly(10L, 11L);
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(appointmentRepository.findPatientPage(eq(PATIENT_ID), any(), any(), isNull(), eq(SLOT), eq(11L),
+                eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(row(12L, SLOT.plusHours(1))));
+
+        AppointmentPageResponseDto second = appointmentService.getPatientAppointmentPage(
+                PATIENT_ID, first.nextCursor(), 2, null, null, null);
+
+        assertThat(second.items()).extracting(AppointmentResponseDto::id).containsExactly(12L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsCappedAtTheMaximum() {
+        appointmentService.getProviderAppointmentPage(PROVIDER_ID, null, 10_000, null, null, null);
+
+        verify(appointmentRepository).findProviderPage(eq(PROVIDER_ID), any(), any(), isNull(), any(), any(),
+                eq(PageRequest.of(0, 501)));
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndPageSizes() {
+        assertThatThrownBy(() -> appointmentService.getPatientAppointmentPage(
+                PATIENT_ID, "not-a-cursor", 10, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid page cursor");
+        assertThatThrownBy(() -> appointmentService.getPatientAppointmentPage(
+                PATIENT_ID, null, 0, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void confirmBuildsTheResponseFromTheConditionalUpdate() {
+        when(appointmentRepository.transitionAsProvider(eq(10L), eq(PROVIDER_ID),
+                eq(List.of(AppointmentStatus.REQUESTED)), eq(AppointmentStatus.CONFIRMED), any()))
+                .thenReturn(1);
+        when(appointmentRepository.findResponseById(10L)).thenReturn(Optional.of(row(10L, SLOT)));
+
+        AppointmentResponseDto response = appointmentService.confirmAppointment(10L, PROVIDER_ID);
+
+        assertThat(response.status()).isEqualTo(AppointmentStatus.CONFIRMED);
+        assertThat(response.message()).isEqualTo("Appointment confirmed successfully");
+        verify(appointmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void confirmThatMatchesNoRowReportsWhy() {
+        when(appointmentRepository.transitionAsProvider(any(), any(), any(), any(), any())).thenReturn(0);
+        when(appointmentRepository.findById(10L))
+                .thenReturn(Optional.of(appointment(10L, 99L, AppointmentStatus.REQUESTED)));
+        when(appointmentRepository.findById(11L))
+                .thenReturn(Optional.of(appointment(11L, PROVIDER_ID, AppointmentStatus.CANCELLED)));
+        when(appointmentRepository.findById(12L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> appointmentService.confirmAppointment(10L, PROVIDER_ID))
+                .isInstanceOf(InvalidAppointmentStateException.class)
+                .hasMessage("Appointment does not belong to this provider");
+        assertThatThrownBy(() -> appointmentService.confirmAppointment(11L, PROVIDER_ID))
+                .isInstanceOf(InvalidAppointmentStateException.class)
+                .hasMessageEndingWith("Current state: CANCELLED");
+        assertThatThrownBy(() -> appointmentService.confirmAppointment(12L, PROVIDER_ID))
+                .isInstanceOf(AppointmentNotFoundException.class);
+    }
+
+    @Test
+    void cancelReleasesTheSlotOnlyWhenTheUpdateMatched() {
+        Appointment appointment = appointment(10L, PROVIDER_ID, AppointmentStatus.CONFIRMED);
+        when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.transitionAsPatient(eq(10L), eq(PATIENT_ID), anyList(),
+                eq(AppointmentStatus.CANCELLED), any()))
+                .thenReturn(1);
+
+        AppointmentResponseDto response = appointmentService.cancelAppointment(10L, PATIENT_ID);
+
+        assertThat(response.status()).isEqualTo(AppointmentStatus.CANCELLED);
+        verify(scheduleService).updateSlotAvailability(PROVIDER_ID, SLOT, true);
+    }
+
+    @Test
+    void cancelThatMatchesNoRowLeavesTheSlotAlone() {
+        Appointment appointment = appointment(10L, PROVIDER_ID, AppointmentStatus.CANCELLED);
+        when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.transitionAsPatient(any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> appointmentService.cancelAppointment(10L, PATIENT_ID))
+                .isInstanceOf(InvalidAppointmentStateException.class)
+                .hasMessageEndingWith("Current state: CANCELLED");
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void bulkUpdateReportsEachDecisionAndReleasesRejectedSlots() {
+        when(appointmentRepository.batchTransitionAsProvider(PROVIDER_ID, List.of(10L, 12L),
+                List.of(AppointmentStatus.REQUESTED), AppointmentStatus.CONFIRMED))
+                .thenReturn(new int[] {1, 0});
+        when(appointmentRepository.batchTransitionAsProvider(PROVIDER_ID, List.of(11L),
+                List.of(AppointmentStatus.REQUESTED), AppointmentStatus.REJECTED))
+                .thenReturn(new int[] {1});
+        when(appointmentRepository.findAllById(List.of(12L, 11L))).thenReturn(List.of(
+                appointment(12L, PROVIDER_ID, AppointmentStatus.CANCELLED),
+                appointment(11L, PROVIDER_ID, AppointmentStatus.REJECTED)));
+        when(scheduleService.bookedSlots(PROVIDER_ID, SLOT, null)).thenReturn(List.of(SLOT));
+
+        BulkStatusUpdateResponseDto response = appointmentService.bulkUpdateAppointmentStatus(PROVIDER_ID,
+                new BulkStatusUpdateRequestDto(List.of(
+                        new AppointmentDecisionDto(10L, "CONFIRM"),
+                        new AppointmentDecisionDto(11L, "reject"),
+                        new AppointmentDecisionDto(12L, "CONFIRM"),
+                        new AppointmentDecisionDto(10L, "REJECT"),
+                        new AppointmentDecisionDto(13L, "POSTPONE"))));
+
+        assertThat(response.succeeded()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkStatusUpdateResultDto::status).containsExactly(
+                AppointmentStatus.CONFIRMED, AppointmentStatus.REJECTED, null, null, null);
+        assertThat(response.results()).extracting(BulkStatusUpdateResultDto::errorMessage).containsExactly(
+                null,
+                null,
+                "Only REQUESTED appointments can be confirmed. Current state: CANCELLED",
+                "Duplicate appointment ID in request",
+                "Invalid action. Use CONFIRM or REJECT");
+        verify(scheduleService).releaseSlots(PROVIDER_ID, List.of(SLOT));
+    }
+
+    @Test
+    void bulkUpdateReportsUnknownAndForeignAppointments() {
+        when(appointmentRepository.batchTransitionAsProvider(PROVIDER_ID, List.of(10L, 11L),
+                List.of(AppointmentStatus.REQUESTED), AppointmentStatus.CONFIRMED))
+                .thenReturn(new int[] {0, 0});
+        when(appointmentRepository.batchTransitionAsProvider(PROVIDER_ID, List.of(),
+                List.of(AppointmentStatus.REQUESTED), AppointmentStatus.REJECTED))
+                .thenReturn(new int[0]);
+        when(appointmentRepository.findAllById(List.of(10L, 11L)))
+                .thenReturn(List.of(appointment(11L, 99L, AppointmentStatus.REQUESTED)));
+
+        BulkStatusUpdateResponseDto response = appointmentService.bulkUpdateAppointmentStatus(PROVIDER_ID,
+                new BulkStatusUpdateRequestDto(List.of(
+                        new AppointmentDecisionDto(10L, "CONFIRM"),
+                        new AppointmentDecisionDto(11L, "CONFIRM"))));
+
+        assertThat(response.succeeded()).isZero();
+        assertThat(response.results()).extracting(BulkStatusUpdateResultDto::errorMessage).containsExactly(
+                "Appointment not found with ID: 10",
+                "Appointment does not belong to this provider");
+        verify(scheduleService).releaseSlots(PROVIDER_ID, List.of());
+    }
+
+    @Test
+    void seriesIsBookedInOneTransactionAndBoundToTheIndex() {
+        ReflectionTestUtils.setField(appointmentService, "maxSeriesOccurrences", 52);
+        List<LocalDateTime> times = List.of(SLOT, SLOT.plusWeeks(2));
+        when(scheduleService.findUnbookableSlots(PROVIDER_ID, times)).thenReturn(Map.of());
+        when(patientAppointmentIndex.reserve(PATIENT_ID, SLOT)).thenReturn(-1L);
+        when(patientAppointmentIndex.reserve(PATIENT_ID, SLOT.plusWeeks(2))).thenReturn(-2L);
+        when(scheduleService.reserveSlots(PROVIDER_ID, times)).thenReturn(List.of());
+        when(appointmentRepository.insertAppointments(PATIENT_ID, PROVIDER_ID, times, AppointmentStatus.REQUESTED))
+                .thenReturn(List.of(20L, 21L));
+
+        AppointmentSeriesResponseDto response = appointmentService.createAppointmentSeries(
+                new CreateAppointmentSeriesRequestDto(PATIENT_ID, PROVIDER_ID, SLOT, 2, 2));
+
+        assertThat(response.booked()).isEqualTo(2);
+        assertThat(response.occurrences()).extracting(SeriesOccurrenceResultDto::appointmentId)
+                .containsExactly(20L, 21L);
+        verify(patientAppointmentIndex).bind(PATIENT_ID, -1L, 20L);
+        verify(patientAppointmentIndex).bind(PATIENT_ID, -2L, 21L);
+    }
+
+    @Test
+    void seriesRollsBackEveryClaimWhenOneOccurrenceIsLost() {
+        ReflectionTestUtils.setField(appointmentService, "maxSeriesOccurrences", 52);
+        List<LocalDateTime> times = List.of(SLOT, SLOT.plusWeeks(1), SLOT.plusWeeks(2));
+        when(scheduleService.findUnbookableSlots(PROVIDER_ID, times)).thenReturn(Map.of());
+        when(patientAppointmentIndex.reserve(eq(PATIENT_ID), any(LocalDateTime.class))).thenReturn(-1L, -2L, -3L);
+        when(scheduleService.reserveSlots(PROVIDER_ID, times)).thenReturn(List.of(SLOT.plusWeeks(1)));
+        TransactionStatus status = mock(TransactionStatus.class);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status))
+                .when(transactionTemplate).execute(any());
+
+        AppointmentSeriesResponseDto response = appointmentService.createAppointmentSeries(
+                new CreateAppointmentSeriesRequestDto(PATIENT_ID, PROVIDER_ID, SLOT, 3, null));
+
+        assertThat(response.booked()).isZero();
+        assertThat(response.conflicts()).isEqualTo(1);
+        assertThat(response.occurrences()).extracting(SeriesOccurrenceResultDto::errorMessage).containsExactly(
+                "Not booked because another occurrence conflicts",
+                "Time slot was booked by someone else",
+                "Not booked because another occurrence conflicts");
+        // The slots already claimed are given back by rolling the transaction back
+        verify(status).setRollbackOnly();
+        verify(appointmentRepository, never()).insertAppointments(any(), any(), anyList(), any());
+        verify(patientAppointmentIndex).cancel(PATIENT_ID, -1L);
+        verify(patientAppointmentIndex).cancel(PATIENT_ID, -2L);
+        verify(patientAppointmentIndex).cancel(PATIENT_ID, -3L);
+    }
+
+    @Test
+    void seriesWithAKnownConflictNeverOpensATransaction() {
+        ReflectionTestUtils.setField(appointmentService, "maxSeriesOccurrences", 52);
+        when(scheduleService.findUnbookableSlots(PROVIDER_ID, List.of(SLOT)))
+                .thenReturn(Map.of(SLOT, "Time slot is closed by the provider"));
+        when(patientAppointmentIndex.reserve(PATIENT_ID, SLOT)).thenReturn(-1L);
+
+        AppointmentSeriesResponseDto response = appointmentService.createAppointmentSeries(
+                new CreateAppointmentSeriesRequestDto(PATIENT_ID, PROVIDER_ID, SLOT, 1, null));
+
+        assertThat(response.occurrences()).extracting(SeriesOccurrenceResultDto::errorMessage)
+                .containsExactly("Time slot is closed by the provider");
+        verify(transactionTemplate, never()).execute(any());
+        verify(patientAppointmentIndex).cancel(PATIENT_ID, -1L);
+    }
+
+    private static AppointmentResponseDto row(Long id, LocalDateTime appointmentDateTime) {
+        return new AppointmentResponseDto(id, PATIENT_ID, PROVIDER_ID, AppointmentStatus.REQUESTED,
+                appointmentDateTime, null, appointmentDateTime.minusDays(1));
+    }
+
+    private static Appointment appointment(Long id, Long providerId, AppointmentStatus status) {
+        return Appointment.builder()
+                .id(id)
+                .patientId(PATIENT_ID)
+                .providerId(providerId)
+                .status(status)
+                .appointmentDateTime(SLOT)
+                .build();
+    }
+}
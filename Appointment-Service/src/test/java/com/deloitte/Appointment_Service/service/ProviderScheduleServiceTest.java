@@ -0,0 +1,213 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.constants.SlotState;
+import com.deloitte.Appointment_Service.dto.PatchScheduleSlotsRequestDto;
+import com.deloitte.Appointment_Service.dto.ScheduleResponseDto;
+import com.deloitte.Appointment_Service.event.SlotAvailabilityChangedEvent;
+import com.deloitte.Appointment_Service.exception.SlotNotAvailableException;
+import com.deloitte.Appointment_Service.index.SlotAvailabilityIndex;
+import com.deloitte.Appointment_Service.index.SlotSchedule;
+import com.deloitte.Appointment_Service.model.ProviderTimeSlots;
+import com.deloitte.Appointment_Service.repository.ProviderSlotRepository;
+import com.deloitte.Appointment_Service.repository.ProviderSlotView;
+import com.deloitte.Appointment_Service.repository.ProviderTimeSlotsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderScheduleServiceTest {
+
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime NINE = DATE.atTime(9, 0);
+
+    @Mock
+    private ProviderTimeSlotsRepository timeSlotsRepository;
+    @Mock
+    private ProviderSlotRepository slotRepository;
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProviderScheduleService scheduleService;
+
+    @BeforeEach
+    void setUp() {
+        scheduleService = new ProviderScheduleService(timeSlotsRepository, slotRepository, slotAvailabilityIndex,
+                eventPublisher, new SimpleMeterRegistry(), 100, 30);
+        ReflectionTestUtils.setField(scheduleService, "maxSlotCapacity", 100);
+    }
+
+    @Test
+    void patchRejectsATimeListedTwiceOrNoChangeAtAll() {
+        PatchScheduleSlotsRequestDto twice = new PatchScheduleSlotsRequestDto(
+                List.of(LocalTime.of(9, 0)), null, null, List.of(LocalTime.of(9, 0)), null);
+        PatchScheduleSlotsRequestDto empty = new PatchScheduleSlotsRequestDto(null, List.of(), null, null, null);
+
+        assertThatThrownBy(() -> scheduleService.patchScheduleSlots(PROVIDER_ID, DATE, twice))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than once");
+        assertThatThrownBy(() -> scheduleService.patchScheduleSlots(PROVIDER_ID, DATE, empty))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no slot changes");
+        verifyNoInteractions(timeSlotsRepository, slotRepository);
+    }
+
+    @Test
+    void patchRejectsSlotsThatDoNotMatchTheDay() {
+        when(timeSlotsRepository.findForUpdate(PROVIDER_ID, DATE)).thenReturn(Optional.of(day(Map.of(540, true))));
+
+        assertThatThrownBy(() -> scheduleService.patchScheduleSlots(PROVIDER_ID, DATE,
+                new PatchScheduleSlotsRequestDto(List.of(LocalTime.of(9, 0)), null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        assertThatThrownBy(() -> scheduleService.patchScheduleSlots(PROVIDER_ID, DATE,
+                new PatchScheduleSlotsRequestDto(null, null, null, List.of(LocalTime.of(10, 0)), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not exist");
+        verifyNoInteractions(slotRepository);
+    }
+
+    @Test
+    void patchRefusesToRemoveABookedSlot() {
+        when(timeSlotsRepository.findForUpdate(PROVIDER_ID, DATE)).thenReturn(Optional.of(day(Map.of(540, false))));
+        when(slotRepository.deleteAvailableSlots(PROVIDER_ID, List.of(NINE))).thenReturn(new int[] {0});
+
+        assertThatThrownBy(() -> scheduleService.patchScheduleSlots(PROVIDER_ID, DATE,
+                new PatchScheduleSlotsRequestDto(null, List.of(LocalTime.of(9, 0)), null, null, null)))
+                .isInstanceOf(SlotNotAvailableException.class)
+                .hasMessageContaining("booked");
+        verify(slotRepository, never()).closeSlots(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void patchTouchesOnlyTheListedSlotsAndKeepsTheDayCountersInStep() {
+        ProviderTimeSlots day = day(Map.of(540, true, 570, true, 600, true));
+        LocalDateTime ten = DATE.atTime(10, 0);
+        when(timeSlotsRepository.findForUpdate(PROVIDER_ID, DATE)).thenReturn(Optional.of(day));
+        when(slotRepository.deleteAvailableSlots(PROVIDER_ID, List.of(DATE.atTime(9, 30)))).thenReturn(new int[] {1});
+        when(slotRepository.openSlots(PROVIDER_ID, List.of())).thenReturn(new int[0]);
+        when(slotRepository.closeSlots(PROVIDER_ID, List.of(ten))).thenReturn(new int[] {1});
+        ProviderSlotView closed = slotView(600, SlotState.CLOSED, 1, 0);
+        when(slotRepository.findSlotStatesAt(eq(PROVIDER_ID), anyCollection(), anyCollection()))
+                .thenReturn(List.of(closed));
+
+        ScheduleResponseDto response = scheduleService.patchScheduleSlots(PROVIDER_ID, DATE,
+                new PatchScheduleSlotsRequestDto(List.of(LocalTime.of(11, 0)), List.of(LocalTime.of(9, 30)),
+                        null, List.of(LocalTime.of(10, 0)), null));
+
+        verify(slotRepository).insertSlots(PROVIDER_ID, DATE, Map.of(660, true), 1);
+        assertThat(response.slots()).containsExactly(
+                Map.entry("09:00:00", true), Map.entry("10:00:00", false), Map.entry("11:00:00", true));
+        assertThat(day.getTotalSlots()).isEqualTo(3);
+        assertThat(day.getOpenSlots()).isEqualTo(2);
+
+        ArgumentCaptor<SlotAvailabilityChangedEvent> event = ArgumentCaptor.forClass(SlotAvailabilityChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().changes()).containsOnly(
+                Map.entry(570, false), Map.entry(600, false), Map.entry(660, true));
+    }
+
+    @Test
+    void takingTheLastSeatFlipsTheSlotAndTheDayCounter() {
+        when(slotRepository.reserveSlot(PROVIDER_ID, DATE, 540)).thenReturn(1);
+        ProviderSlotView booked = slotView(540, SlotState.BOOKED, 1, 1);
+        when(slotRepository.findSlotStatesAt(eq(PROVIDER_ID), anyCollection(), anyCollection()))
+                .thenReturn(List.of(booked));
+
+        scheduleService.reserveSlot(PROVIDER_ID, NINE);
+
+        verify(timeSlotsRepository).adjustOpenSlots(PROVIDER_ID, DATE, -1);
+        ArgumentCaptor<SlotAvailabilityChangedEvent> event = ArgumentCaptor.forClass(SlotAvailabilityChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().changes()).containsOnly(Map.entry(540, false));
+    }
+
+    @Test
+    void takingOneOfSeveralSeatsLeavesTheDayCounterAlone() {
+        when(slotRepository.reserveSlot(PROVIDER_ID, DATE, 540)).thenReturn(1);
+        ProviderSlotView shared = slotView(540, SlotState.AVAILABLE, 3, 1);
+        when(slotRepository.findSlotStatesAt(eq(PROVIDER_ID), anyCollection(), anyCollection()))
+                .thenReturn(List.of(shared));
+
+        scheduleService.holdSlot(PROVIDER_ID, NINE);
+
+        verify(timeSlotsRepository, never()).adjustOpenSlots(any(), any(), anyInt());
+        ArgumentCaptor<SlotAvailabilityChangedEvent> event = ArgumentCaptor.forClass(SlotAvailabilityChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().seats()).containsOnly(Map.entry(540, 2));
+    }
+
+    @Test
+    void losingTheRaceForASeatChangesNothing() {
+        when(slotRepository.reserveSlot(PROVIDER_ID, DATE, 540)).thenReturn(0);
+
+        assertThatThrownBy(() -> scheduleService.reserveSlot(PROVIDER_ID, NINE))
+                .isInstanceOf(SlotNotAvailableException.class);
+        assertThatThrownBy(() -> scheduleService.holdSlot(PROVIDER_ID, NINE))
+                .isInstanceOf(SlotNotAvailableException.class);
+        verify(slotRepository, never()).findSlotStatesAt(any(), anyCollection(), anyCollection());
+        verifyNoInteractions(timeSlotsRepository, eventPublisher);
+    }
+
+    @Test
+    void releasingASlotThatIsAlreadyFreeIsANoOp() {
+        when(slotRepository.releaseSlot(PROVIDER_ID, DATE, 540)).thenReturn(0);
+        when(slotRepository.existsByProviderIdAndScheduleDateAndSlotMinute(PROVIDER_ID, DATE, (short) 540))
+                .thenReturn(true);
+
+        scheduleService.updateSlotAvailability(PROVIDER_ID, NINE, true);
+
+        verifyNoInteractions(timeSlotsRepository, eventPublisher);
+    }
+
+    private static ProviderTimeSlots day(Map<Integer, Boolean> slots) {
+        long open = slots.values().stream().filter(Boolean::booleanValue).count();
+        return ProviderTimeSlots.builder()
+                .id(5L)
+                .providerId(PROVIDER_ID)
+                .scheduleDate(DATE)
+                .slots(SlotSchedule.of(slots))
+                .totalSlots(slots.size())
+                .openSlots((int) open)
+                .build();
+    }
+
+    private static ProviderSlotView slotView(int minute, SlotState state, int capacity, int booked) {
+        ProviderSlotView view = mock(ProviderSlotView.class);
+        when(view.getScheduleDate()).thenReturn(DATE);
+        when(view.getSlotMinute()).thenReturn((short) minute);
+        when(view.getState()).thenReturn(state);
+        when(view.getCapacity()).thenReturn(capacity);
+        when(view.getBooked()).thenReturn(booked);
+        return view;
+    }
+}
@@ -0,0 +1,82 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.dto.CreateSlotHoldRequestDto;
+import com.deloitte.Appointment_Service.model.SlotHold;
+import com.deloitte.Appointment_Service.repository.SlotHoldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Mock
+    private SlotHoldRepository holdRepository;
+    @Mock
+    private ProviderScheduleService scheduleService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SlotHoldService slotHoldService;
+
+    @BeforeEach
+    void setUp() {
+        slotHoldService = new SlotHoldService(holdRepository, scheduleService, transactionTemplate, meterRegistry,
+                1000, 512, 500);
+        ReflectionTestUtils.setField(slotHoldService, "defaultHoldSeconds", 120);
+        ReflectionTestUtils.setField(slotHoldService, "maxHoldSeconds", 900);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(holdRepository.save(any(SlotHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void holdIsTimedRightAwayOutsideATransaction() {
+        slotHoldService.hold(new CreateSlotHoldRequestDto(1L, 2L, SLOT, null));
+
+        assertThat(pendingHolds()).isEqualTo(1);
+    }
+
+    @Test
+    void holdInsideAnEnclosingTransactionIsTimedOnlyOnceItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        slotHoldService.hold(new CreateSlotHoldRequestDto(1L, 2L, SLOT, 60));
+
+        assertThat(pendingHolds()).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(pendingHolds()).isEqualTo(1);
+    }
+
+    private double pendingHolds() {
+        return meterRegistry.get("appointment.slot.holds.pending").gauge().value();
+    }
+}
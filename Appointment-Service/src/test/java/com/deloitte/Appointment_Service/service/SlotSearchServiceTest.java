@@ -0,0 +1,94 @@
+package com.deloitte.Appointment_Service.service;
+
+import com.deloitte.Appointment_Service.dto.ProviderSlotDto;
+import com.deloitte.Appointment_Service.dto.ProviderSummaryDto;
+import com.deloitte.Appointment_Service.gateway.UserServiceGateway;
+import com.deloitte.Appointment_Service.index.SlotAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotSearchServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime FROM = DATE.atStartOfDay();
+
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+    @Mock
+    private UserServiceGateway userServiceGateway;
+
+    private SlotSearchService slotSearchService;
+
+    @BeforeEach
+    void setUp() {
+        slotSearchService = new SlotSearchService(slotAvailabilityIndex, userServiceGateway);
+        ReflectionTestUtils.setField(slotSearchService, "defaultWindowDays", 14);
+        ReflectionTestUtils.setField(slotSearchService, "maxWindowDays", 31);
+        ReflectionTestUtils.setField(slotSearchService, "defaultLimit", 10);
+        ReflectionTestUtils.setField(slotSearchService, "maxLimit", 100);
+        ReflectionTestUtils.setField(slotSearchService, "maxProviders", 500);
+    }
+
+    @Test
+    void mergesProvidersInTimeOrderAndStopsAtTheLimit() {
+        Iterator<LocalDateTime> first = slots(9, 10, 11, 12);
+        when(slotAvailabilityIndex.availableSlotIterator(eq(1L), eq(FROM), any())).thenReturn(first);
+        when(slotAvailabilityIndex.availableSlotIterator(eq(2L), eq(FROM), any())).thenReturn(slots(9, 10));
+        when(slotAvailabilityIndex.availableSlotIterator(eq(3L), eq(FROM), any())).thenReturn(slots());
+
+        List<ProviderSlotDto> results = slotSearchService.findEarliestSlots(List.of(2L, 1L, 3L), null, FROM, null, 4);
+
+        // Ties on time go to the lower provider ID
+        assertThat(results).containsExactly(
+                new ProviderSlotDto(1L, DATE.atTime(9, 0)),
+                new ProviderSlotDto(2L, DATE.atTime(9, 0)),
+                new ProviderSlotDto(1L, DATE.atTime(10, 0)),
+                new ProviderSlotDto(2L, DATE.atTime(10, 0)));
+        // Slots past the limit are never pulled from the index
+        assertThat(first.next()).isEqualTo(DATE.atTime(12, 0));
+    }
+
+    @Test
+    void specialityAddsItsProvidersByUserId() {
+        when(userServiceGateway.getProvidersBySpeciality("Cardiology")).thenReturn(List.of(
+                new ProviderSummaryDto(40L, 4L, "Dr. Rao", "Cardiology", "Heart")));
+        when(slotAvailabilityIndex.availableSlotIterator(eq(4L), eq(FROM), any())).thenReturn(slots(8));
+
+        List<ProviderSlotDto> results = slotSearchService.findEarliestSlots(null, "Cardiology", FROM, null, null);
+
+        assertThat(results).containsExactly(new ProviderSlotDto(4L, DATE.atTime(8, 0)));
+    }
+
+    @Test
+    void rejectsSearchesWithoutProvidersOrWithAnOverlongWindow() {
+        assertThatThrownBy(() -> slotSearchService.findEarliestSlots(null, " ", FROM, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Either providerIds or speciality must be given");
+        assertThatThrownBy(() -> slotSearchService.findEarliestSlots(List.of(1L), null, FROM, FROM.plusDays(32), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("31 days");
+        verifyNoInteractions(slotAvailabilityIndex);
+    }
+
+    private static Iterator<LocalDateTime> slots(int... hours) {
+        return Arrays.stream(hours).mapToObj(hour -> DATE.atTime(hour, 0)).iterator();
+    }
+}
@@ -0,0 +1,107 @@
+package com.deloitte.Appointment_Service.stream;
+
+import com.deloitte.Appointment_Service.dto.AvailableSlotsWindowDto;
+import com.deloitte.Appointment_Service.dto.SlotAvailabilityDeltaDto;
+import com.deloitte.Appointment_Service.dto.TimeSlotResponseDto;
+import com.deloitte.Appointment_Service.exception.SubscriberLimitExceededException;
+import com.deloitte.Appointment_Service.service.ProviderScheduleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotUpdateBroadcasterTest {
+
+    private static final Long PROVIDER_ID = 2L;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalDateTime FROM = DATE.atTime(10, 30);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private ProviderScheduleService scheduleService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SlotUpdateBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SlotUpdateBroadcaster(scheduleService, meterRegistry, 1, 8, 1, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void snapshotIsReadForTheRequestedWindow() {
+        when(scheduleService.getAvailableSlots(PROVIDER_ID, FROM, null, 1, null))
+                .thenReturn(new AvailableSlotsWindowDto(List.of(), FROM, TO, null));
+
+        assertThat(broadcaster.subscribe(PROVIDER_ID, FROM, null, 1)).isNotNull();
+
+        verify(scheduleService).getAvailableSlots(PROVIDER_ID, FROM, null, 1, null);
+        assertThat(subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void subscriptionsPastTheLimitAreRefused() {
+        when(scheduleService.getAvailableSlots(PROVIDER_ID, null, null, null, null))
+                .thenReturn(new AvailableSlotsWindowDto(List.of(), FROM, TO, null));
+        broadcaster.subscribe(PROVIDER_ID, null, null, null);
+
+        assertThatThrownBy(() -> broadcaster.subscribe(PROVIDER_ID, null, null, null))
+                .isInstanceOf(SubscriberLimitExceededException.class);
+        assertThat(subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidWindowLeavesNoSubscriberBehind() {
+        when(scheduleService.getAvailableSlots(any(), any(), any(), any(), isNull()))
+                .thenThrow(new IllegalArgumentException("Days must be between 1 and 31"));
+
+        assertThatThrownBy(() -> broadcaster.subscribe(PROVIDER_ID, null, null, 90))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    void windowKeepsOnlyTheChangesItCovers() {
+        SlotUpdateBroadcaster.SlotWindow window = new SlotUpdateBroadcaster.SlotWindow(FROM, TO);
+        SlotAvailabilityDeltaDto delta = delta(DATE, slot(DATE.atTime(10, 0)), slot(DATE.atTime(11, 0)));
+
+        assertThat(window.slice(delta).slots()).extracting(TimeSlotResponseDto::slotTime)
+                .containsExactly(DATE.atTime(11, 0));
+        assertThat(window.slice(delta(DATE.plusDays(1), slot(TO)))).isNull();
+        assertThat(window.coversDate(DATE.plusDays(1))).isTrue();
+        assertThat(window.coversDate(DATE.plusDays(2))).isFalse();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("appointment.slot.stream.subscribers").gauge().value();
+    }
+
+    private static SlotAvailabilityDeltaDto delta(LocalDate scheduleDate, TimeSlotResponseDto... slots) {
+        return new SlotAvailabilityDeltaDto(PROVIDER_ID, scheduleDate, false, List.of(slots));
+    }
+
+    private static TimeSlotResponseDto slot(LocalDateTime slotTime) {
+        return new TimeSlotResponseDto(slotTime, false, 0);
+    }
+}
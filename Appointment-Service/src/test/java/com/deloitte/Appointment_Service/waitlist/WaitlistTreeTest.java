@@ -0,0 +1,84 @@
+package com.deloitte.Appointment_Service.waitlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitlistTreeTest {
+
+    private static final LocalDateTime ENQUEUED = LocalDateTime.of(2025, 1, 6, 8, 0);
+
+    @Test
+    void bestPicksHighestPriorityThenEarliestAmongCoveringWindows() {
+        WaitlistTree tree = new WaitlistTree();
+        Waiter early = waiter(1, 0, ENQUEUED);
+        Waiter late = waiter(2, 0, ENQUEUED.plusMinutes(5));
+        Waiter urgent = waiter(3, 5, ENQUEUED.plusMinutes(10));
+        tree.add(early, 540, 600);
+        tree.add(late, 480, 720);
+        tree.add(urgent, 660, 700);
+
+        assertThat(tree.best(480)).isEqualTo(late);
+        assertThat(tree.best(540)).isEqualTo(early);
+        assertThat(tree.best(600)).isEqualTo(late);
+        assertThat(tree.best(660)).isEqualTo(urgent);
+        assertThat(tree.best(700)).isEqualTo(late);
+        assertThat(tree.best(720)).isNull();
+    }
+
+    @Test
+    void removedWaitersAreNoLongerMatched() {
+        WaitlistTree tree = new WaitlistTree();
+        Waiter first = waiter(1, 0, ENQUEUED);
+        Waiter second = waiter(2, 0, ENQUEUED.plusMinutes(1));
+        tree.add(first, 0, 1440);
+        tree.add(second, 600, 601);
+
+        tree.remove(first, 0, 1440);
+
+        assertThat(tree.best(600)).isEqualTo(second);
+        assertThat(tree.best(599)).isNull();
+        tree.remove(second, 600, 601);
+        assertThat(tree.isEmpty()).isTrue();
+    }
+
+    @Test
+    void matchesAScanOfEveryWindow() {
+        Random random = new Random(11);
+        WaitlistTree tree = new WaitlistTree();
+        List<Waiter> waiters = new ArrayList<>();
+        List<int[]> windows = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            int from = random.nextInt(1440);
+            int to = from + 1 + random.nextInt(1440 - from);
+            Waiter waiter = waiter(id, random.nextInt(3), ENQUEUED.plusMinutes(random.nextInt(100)));
+            tree.add(waiter, from, to);
+            waiters.add(waiter);
+            windows.add(new int[] {from, to});
+        }
+        for (int i = 0; i < 100; i++) {
+            tree.remove(waiters.get(i), windows.get(i)[0], windows.get(i)[1]);
+        }
+
+        for (int minute = 0; minute < 1440; minute++) {
+            Waiter expected = null;
+            for (int i = 100; i < waiters.size(); i++) {
+                int[] window = windows.get(i);
+                if (window[0] <= minute && minute < window[1]
+                        && (expected == null || Waiter.OFFER_ORDER.compare(waiters.get(i), expected) < 0)) {
+                    expected = waiters.get(i);
+                }
+            }
+            assertThat(tree.best(minute)).as("minute %d", minute).isEqualTo(expected);
+        }
+    }
+
+    private static Waiter waiter(long id, int priority, LocalDateTime enqueuedAt) {
+        return new Waiter(id, 100 + id, priority, enqueuedAt, null, null);
+    }
+}
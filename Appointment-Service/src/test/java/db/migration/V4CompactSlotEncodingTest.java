@@ -0,0 +1,45 @@
+package db.migration;
+
+import com.deloitte.Appointment_Service.index.SlotKeys;
+import com.deloitte.Appointment_Service.index.SlotSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class V4CompactSlotEncodingTest {
+
+    @Test
+    void encodesCanonicalKeysExactlyLikeSlotSchedule() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 500; trial++) {
+            Map<String, Boolean> slots = new HashMap<>();
+            int count = random.nextInt(200);
+            for (int i = 0; i < count; i++) {
+                slots.put(SlotKeys.toSlotKey(random.nextInt(24 * 60)), random.nextBoolean());
+            }
+
+            byte[] migrated = V4__compact_slot_encoding.encode(slots);
+
+            assertThat(migrated).as("trial %d", trial)
+                    .isEqualTo(SlotSchedule.of(SlotKeys.toMinuteMap(slots)).toBytes());
+        }
+    }
+
+    @Test
+    void skipsLegacyKeysThatDoNotParseAndIgnoresSeconds() {
+        Map<String, Boolean> slots = new HashMap<>();
+        slots.put("09:00:00", true);
+        slots.put("2025-01-06T09:30:00", false);
+        slots.put("10:00:30", true);
+        slots.put("lunch", true);
+
+        SlotSchedule decoded = SlotSchedule.fromBytes(V4__compact_slot_encoding.encode(slots));
+
+        assertThat(decoded.toMinuteMap()).containsExactly(
+                Map.entry(540, true), Map.entry(570, false), Map.entry(600, true));
+    }
+}
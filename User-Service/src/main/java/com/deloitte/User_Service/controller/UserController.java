@@ -2,6 +2,7 @@ package com.deloitte.User_Service.controller;
 
 import com.deloitte.User_Service.dto.AssignRoleRequestDto;
 import com.deloitte.User_Service.dto.GetUserResponseDto;
+import com.deloitte.User_Service.dto.ProviderSummaryDto;
 import com.deloitte.User_Service.dto.UserRequestDto;
 import com.deloitte.User_Service.dto.UserResponseDto;
 import com.deloitte.User_Service.service.UserService;
@@ -12,6 +13,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 public class UserController {
@@ -62,4 +65,17 @@ public class UserController {
             throw e;
         }
     }
+
+    @GetMapping("/providers")
+    public ResponseEntity<List<ProviderSummaryDto>> getProvidersBySpeciality(@RequestParam String speciality) {
+        log.info("Received request to get providers with speciality: {}", speciality);
+        try {
+            List<ProviderSummaryDto> providers = userService.getProvidersBySpeciality(speciality);
+            log.info("Retrieved {} providers with speciality: {}", providers.size(), speciality);
+            return ResponseEntity.status(HttpStatus.OK).body(providers);
+        } catch (Exception e) {
+            log.error("Error retrieving providers with speciality: {}", speciality, e);
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.deloitte.User_Service.dto;
+
+public record ProviderSummaryDto(
+        Long providerId,
+        Long userId,
+        String name,
+        String speciality,
+        String department
+) {
+}
@@ -1,11 +1,13 @@
 package com.deloitte.User_Service.repository;
 
+import com.deloitte.User_Service.dto.ProviderSummaryDto;
 import com.deloitte.User_Service.model.Provider;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +15,9 @@ public interface ProviderRepository extends JpaRepository<Provider, Long> {
 
     @Query("SELECT pr FROM Provider pr WHERE pr.user_id.id = :userId")
     Optional<Provider> findByUser_id(@Param("userId") Long userId);
+
+    @Query("SELECT new com.deloitte.User_Service.dto.ProviderSummaryDto(pr.id, u.id, u.name, pr.speciality, pr.department) " +
+           "FROM Provider pr JOIN pr.user_id u WHERE LOWER(pr.speciality) = LOWER(:speciality)")
+    List<ProviderSummaryDto> findSummariesBySpeciality(@Param("speciality") String speciality);
 }
 
@@ -3,6 +3,7 @@ package com.deloitte.User_Service.service;
 import com.deloitte.User_Service.constants.Role;
 import com.deloitte.User_Service.dto.AssignRoleRequestDto;
 import com.deloitte.User_Service.dto.GetUserResponseDto;
+import com.deloitte.User_Service.dto.ProviderSummaryDto;
 import com.deloitte.User_Service.dto.UserRequestDto;
 import com.deloitte.User_Service.dto.UserResponseDto;
 import com.deloitte.User_Service.exception.UserAlreadyExistsException;
@@ -19,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -243,4 +245,10 @@ public class UserService {
     private String generateMRN(Long userId) {
         return String.format("MRN-%d-%s", userId, System.currentTimeMillis());
     }
+
+    @Transactional(readOnly = true)
+    public List<ProviderSummaryDto> getProvidersBySpeciality(String speciality) {
+        log.debug("Fetching providers with speciality: {}", speciality);
+        return providerRepository.findSummariesBySpeciality(speciality);
+    }
 }